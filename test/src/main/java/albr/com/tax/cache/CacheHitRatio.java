@@ -0,0 +1,22 @@
+package albr.com.tax.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Jauge cache.hit.ratio{cache} : part des lectures servies par le cache depuis le démarrage
+ * (complète cache.gets{result=hit|miss} publié par CaffeineCacheMetrics).
+ */
+final class CacheHitRatio {
+
+    private CacheHitRatio() {
+    }
+
+    static void register(MeterRegistry registry, Cache<?, ?> cache, String name) {
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of cache lookups served from the cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+}
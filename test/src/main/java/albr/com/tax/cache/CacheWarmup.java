@@ -0,0 +1,160 @@
+package albr.com.tax.cache;
+
+import albr.com.tax.config.WarmupProperties;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.service.TaxService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Préchauffage des caches au démarrage (app.warmup.enabled) : recharge les produits les plus lus avant
+ * le dernier arrêt et calcule leurs cotations, avant que l'application ne se déclare prête
+ * (les ApplicationRunner passent avant l'état de readiness ACCEPTING_TRAFFIC).
+ * À l'arrêt, les ids les plus chauds du cache produits sont écrits dans app.warmup.hot-ids-file.
+ */
+@Component
+public class CacheWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmup.class);
+
+    // taille des IN (...) et des pages lues pendant le préchauffage
+    static final int CHUNK_SIZE = 1000;
+
+    private final WarmupProperties properties;
+    private final ProductRepository repository;
+    private final ProductCache productCache;
+    private final TaxQuoteCache quoteCache;
+    private final TaxService taxService;
+
+    public CacheWarmup(WarmupProperties properties, ProductRepository repository, ProductCache productCache,
+                       TaxQuoteCache quoteCache, TaxService taxService) {
+        this.properties = properties;
+        this.repository = repository;
+        this.productCache = productCache;
+        this.quoteCache = quoteCache;
+        this.taxService = taxService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.enabled()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * @return le nombre de produits mis en cache
+     */
+    public int warmUp() {
+        if (!productCache.enabled()) {
+            log.info("Product cache disabled, warm-up skipped");
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<Long> hotIds = readHotIds();
+        int loaded = hotIds.isEmpty() ? loadFirstProducts() : loadProducts(hotIds);
+        log.info("Cache warm-up: {} products loaded in {} ms ({})", loaded,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                hotIds.isEmpty() ? "first ids" : "hot ids from " + properties.hotIdsFile());
+        return loaded;
+    }
+
+    @PreDestroy
+    public void saveHotIds() {
+        Path file = properties.hotIdsFile();
+        if (!properties.enabled() || file == null || !productCache.enabled()) {
+            return;
+        }
+        List<Long> hotIds = productCache.hottest(properties.maxProducts());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // écriture dans un fichier temporaire puis renommage : pas de fichier tronqué si l'arrêt est brutal
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.US_ASCII)) {
+                for (Long id : hotIds) {
+                    writer.write(Long.toString(id));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("{} hot product ids saved to {}", hotIds.size(), file);
+        } catch (IOException ex) {
+            log.warn("Unable to save hot product ids to {}", file, ex);
+        }
+    }
+
+    private List<Long> readHotIds() {
+        Path file = properties.hotIdsFile();
+        if (file == null || !Files.isReadable(file)) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        try (var lines = Files.lines(file, StandardCharsets.US_ASCII)) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                if (ids.size() >= properties.maxProducts()) {
+                    break;
+                }
+                try {
+                    ids.add(Long.parseLong(line.trim()));
+                } catch (NumberFormatException ignored) {
+                    // ligne vide ou corrompue
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Unable to read hot product ids from {}, loading first ids instead", file, ex);
+            return List.of();
+        }
+        return ids;
+    }
+
+    private int loadProducts(List<Long> ids) {
+        int loaded = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            loaded += cache(repository.findSummariesByIdIn(chunk));
+        }
+        return loaded;
+    }
+
+    private int loadFirstProducts() {
+        int loaded = 0;
+        long afterId = 0;
+        while (loaded < properties.maxProducts()) {
+            int limit = Math.min(CHUNK_SIZE, properties.maxProducts() - loaded);
+            List<ProductSummary> page = repository.findSummariesAfter(afterId, Limit.of(limit));
+            loaded += cache(page);
+            if (page.size() < limit) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        return loaded;
+    }
+
+    private int cache(List<ProductSummary> products) {
+        productCache.putAll(products);
+        for (ProductSummary product : products) {
+            if (product.getPrice() != null && product.getCountry() != null) {
+                quoteCache.quote(product, taxService.findTaxStrategy(product));
+            }
+        }
+        return products.size();
+    }
+}
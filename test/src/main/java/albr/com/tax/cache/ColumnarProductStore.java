@@ -0,0 +1,393 @@
+package albr.com.tax.cache;
+
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.engine.FixedPoint;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.repository.ProductView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Modèle de lecture en colonnes (app.read.columnar.enabled) : id, nom, prix, pays et version de tous les produits,
+ * rangés dans des tableaux primitifs plutôt qu'un objet par produit.
+ * <ul>
+ *     <li>id et version en {@code long}, prix en unités mineures ({@link FixedPoint#SCALE}) + échelle d'origine,
+ *     pays en indice {@code byte} ;</li>
+ *     <li>noms encodés en UTF-8 à la suite dans un seul tableau d'octets (une String n'est créée qu'à la lecture) ;</li>
+ *     <li>index id -> ligne par adressage ouvert.</li>
+ * </ul>
+ * Construit au démarrage avant que l'application ne se déclare prête, puis tenu à jour par les écritures
+ * ({@link #put}, {@link #putAll}, appliqués après commit). Les lectures ne prennent pas de verrou
+ * (lecture optimiste, relue sous verrou si une écriture l'a croisée).
+ * Un produit absent ou non représentable (prix à plus de {@link FixedPoint#SCALE} décimales) n'y est pas :
+ * la lecture retombe alors sur le cache produits et la base.
+ * Métriques : app.read.columnar.products, app.read.columnar.heap.bytes, app.read.columnar.bytes.per.product.
+ */
+@Component
+public class ColumnarProductStore implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarProductStore.class);
+
+    private static final Country[] COUNTRIES = Country.values();
+    private static final int INITIAL_CAPACITY = 1024;
+    // en-tête approximatif d'un tableau (compressed oops)
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final boolean enabled;
+    private final int pageSize;
+    private final ProductRepository repository;
+
+    private final StampedLock lock = new StampedLock();
+    // remplacé en entier quand il faut agrandir ; modifié en place sous verrou d'écriture sinon
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY, INITIAL_CAPACITY * 16);
+    private volatile boolean ready;
+
+    public ColumnarProductStore(ColumnarReadProperties properties, ProductRepository repository,
+                                MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.pageSize = properties.pageSize();
+        this.repository = repository;
+
+        if (enabled) {
+            Gauge.builder("app.read.columnar.products", this, ColumnarProductStore::size)
+                    .description("Products held by the columnar read model")
+                    .register(meterRegistry);
+            Gauge.builder("app.read.columnar.heap.bytes", this, ColumnarProductStore::footprintBytes)
+                    .description("Heap used by the columnar read model arrays, spare capacity included")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("app.read.columnar.bytes.per.product", this, ColumnarProductStore::bytesPerProduct)
+                    .description("Columnar read model heap divided by the number of products")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public boolean ready() {
+        return ready;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            build();
+        }
+    }
+
+    /**
+     * Charge tous les produits par pages (pagination par clé) ; les écritures concurrentes sont appliquées
+     * au fil de l'eau, le modèle ne sert les lectures qu'une fois complet.
+     *
+     * @return le nombre de produits chargés
+     */
+    public int build() {
+        long start = System.nanoTime();
+        int loaded = 0;
+        long afterId = 0;
+        while (true) {
+            List<ProductSummary> page = repository.findSummariesAfter(afterId, Limit.of(pageSize));
+            write(page);
+            loaded += page.size();
+            if (page.size() < pageSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        ready = true;
+        log.info("Columnar read model built: {} products, {} KB ({} bytes/product) in {} ms", size(),
+                footprintBytes() / 1024, bytesPerProduct(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded;
+    }
+
+    /**
+     * Produit lu dans les colonnes ; vide si le modèle est désactivé, pas encore construit, ou ne contient pas l'id.
+     * La projection rendue n'a pas de cotation précalculée (taxe calculée à la lecture).
+     */
+    public Optional<ProductSummary> find(Long id) {
+        if (!ready || id == null) {
+            return Optional.empty();
+        }
+        long stamp = lock.tryOptimisticRead();
+        ProductSummary product = columns.read(id);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                product = columns.read(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return Optional.ofNullable(product);
+    }
+
+    /**
+     * Ajoute ou remplace un produit, après le commit de la transaction en cours s'il y en a une.
+     */
+    public void put(ProductView product) {
+        putAll(List.of(product));
+    }
+
+    public void putAll(Collection<? extends ProductView> products) {
+        if (!enabled || products.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // rollback : rien n'est appliqué
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(products);
+                }
+            });
+        } else {
+            write(products);
+        }
+    }
+
+    public int size() {
+        return columns.size;
+    }
+
+    public long footprintBytes() {
+        return columns.footprintBytes();
+    }
+
+    public long bytesPerProduct() {
+        Columns current = columns;
+        return current.size == 0 ? 0 : current.footprintBytes() / current.size;
+    }
+
+    private void write(Collection<? extends ProductView> products) {
+        long stamp = lock.writeLock();
+        try {
+            for (ProductView product : products) {
+                upsert(product);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // sous verrou d'écriture
+    private void upsert(ProductView product) {
+        Long id = product.getId();
+        BigDecimal price = product.getPrice();
+        if (id == null || id <= 0) {
+            return;
+        }
+        long priceMinor;
+        if (price == null || price.scale() < 0 || price.scale() > FixedPoint.SCALE) {
+            priceMinor = -1;
+        } else {
+            try {
+                priceMinor = FixedPoint.toMinor(price, RoundingMode.UNNECESSARY);
+            } catch (ArithmeticException notRepresentable) {
+                priceMinor = -1;
+            }
+        }
+        Columns current = columns;
+        if (priceMinor < 0 && price != null) {
+            // hors format : l'ancienne valeur éventuelle ne doit plus être servie
+            current.remove(id);
+            return;
+        }
+        byte[] name = product.getName() != null ? product.getName().getBytes(StandardCharsets.UTF_8) : null;
+        if (name != null && (name.length >= Character.MAX_VALUE
+                || (long) current.arenaSize + name.length > Integer.MAX_VALUE - 8)) {
+            current.remove(id);
+            return;
+        }
+
+        // une case d'index par id ajouté, au plus une ligne sur deux : le taux de remplissage reste <= 0.5
+        int row = current.row(id);
+        if (row < 0 && current.size == current.ids.length
+                || current.arenaSize + (name != null ? name.length : 0) > current.names.length) {
+            current = current.grow(name != null ? name.length : 0);
+            columns = current;
+        }
+        current.set(row < 0 ? current.size : row, id, product.getVersion(), priceMinor,
+                price != null ? (byte) price.scale() : 0,
+                product.getCountry() != null ? (byte) product.getCountry().ordinal() : -1, name);
+    }
+
+    /**
+     * Tableaux du modèle ; lus sans verrou, toujours de tailles cohérentes entre eux.
+     */
+    private static final class Columns {
+
+        private static final byte NO_PRICE = -1;
+
+        // lignes, dans l'ordre d'insertion
+        private final long[] ids;
+        private final long[] versions;
+        private final long[] pricesMinor;
+        private final byte[] priceScales;
+        private final byte[] countries;
+        private final int[] nameOffsets;
+        private final char[] nameLengths;  // 0xFFFF : pas de nom
+        private final byte[] names;
+
+        // index id -> ligne (adressage ouvert, 0 = case libre, -1 = ligne supprimée)
+        private final long[] slotKeys;
+        private final int[] slotRows;
+
+        private int size;
+        private int arenaSize;
+
+        Columns(int capacity, int arenaCapacity) {
+            ids = new long[capacity];
+            versions = new long[capacity];
+            pricesMinor = new long[capacity];
+            priceScales = new byte[capacity];
+            countries = new byte[capacity];
+            nameOffsets = new int[capacity];
+            nameLengths = new char[capacity];
+            names = new byte[arenaCapacity];
+            slotKeys = new long[capacity * 2];
+            slotRows = new int[capacity * 2];
+        }
+
+        ProductSummary read(long id) {
+            int row = row(id);
+            if (row < 0 || row >= ids.length) {
+                return null;
+            }
+            long version = versions[row];
+            long minor = pricesMinor[row];
+            byte scale = priceScales[row];
+            byte country = countries[row];
+            int offset = nameOffsets[row];
+            char length = nameLengths[row];
+            // lecture optimiste : des valeurs incohérentes sont possibles, la lecture est alors refaite sous verrou
+            String name = length == Character.MAX_VALUE || offset < 0 || offset + length > names.length
+                    ? null : new String(names, offset, length, StandardCharsets.UTF_8);
+            BigDecimal price = scale == NO_PRICE || scale < 0 || scale > FixedPoint.SCALE
+                    ? null : BigDecimal.valueOf(minor / FixedPoint.powerOfTen(FixedPoint.SCALE - scale), scale);
+            Country resolved = country >= 0 && country < COUNTRIES.length ? COUNTRIES[country] : null;
+            return new ProductSummary(id, name, price, resolved, null, null, version);
+        }
+
+        int row(long id) {
+            int mask = slotKeys.length - 1;
+            for (int slot = slot(id, mask); ; slot = (slot + 1) & mask) {
+                long key = slotKeys[slot];
+                if (key == id) {
+                    return slotRows[slot];
+                }
+                if (key == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void set(int row, long id, long version, long priceMinor, byte scale, byte country, byte[] name) {
+            // nom identique (mise à jour de version) : octets réutilisés
+            int offset = row < size && name != null && sameName(row, name) ? nameOffsets[row] : -1;
+            if (offset < 0 && name != null) {
+                offset = arenaSize;
+                System.arraycopy(name, 0, names, offset, name.length);
+                arenaSize += name.length;
+            }
+            ids[row] = id;
+            versions[row] = version;
+            pricesMinor[row] = priceMinor;
+            priceScales[row] = priceMinor < 0 ? NO_PRICE : scale;
+            countries[row] = country;
+            nameOffsets[row] = name != null ? offset : 0;
+            nameLengths[row] = name != null ? (char) name.length : Character.MAX_VALUE;
+            if (row == size) {
+                // la case d'index n'est visible qu'une fois la ligne remplie
+                index(id, row);
+                size++;
+            }
+        }
+
+        void remove(long id) {
+            int mask = slotKeys.length - 1;
+            for (int slot = slot(id, mask); slotKeys[slot] != 0; slot = (slot + 1) & mask) {
+                if (slotKeys[slot] == id) {
+                    // la case reste occupée (chaîne de sondage intacte), sans ligne
+                    slotRows[slot] = -1;
+                    return;
+                }
+            }
+        }
+
+        Columns grow(int extraNameBytes) {
+            int capacity = size == ids.length ? ids.length * 2 : ids.length;
+            int arenaCapacity = Math.max(names.length, arenaSize + extraNameBytes);
+            if (arenaCapacity > names.length) {
+                arenaCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) names.length * 2,
+                        arenaSize + extraNameBytes));
+            }
+            Columns grown = new Columns(capacity, arenaCapacity);
+            System.arraycopy(ids, 0, grown.ids, 0, size);
+            System.arraycopy(versions, 0, grown.versions, 0, size);
+            System.arraycopy(pricesMinor, 0, grown.pricesMinor, 0, size);
+            System.arraycopy(priceScales, 0, grown.priceScales, 0, size);
+            System.arraycopy(countries, 0, grown.countries, 0, size);
+            System.arraycopy(nameOffsets, 0, grown.nameOffsets, 0, size);
+            System.arraycopy(nameLengths, 0, grown.nameLengths, 0, size);
+            System.arraycopy(names, 0, grown.names, 0, arenaSize);
+            grown.size = size;
+            grown.arenaSize = arenaSize;
+            for (int slot = 0; slot < slotKeys.length; slot++) {
+                if (slotKeys[slot] != 0) {
+                    grown.index(slotKeys[slot], slotRows[slot]);
+                }
+            }
+            return grown;
+        }
+
+        long footprintBytes() {
+            long perRow = Long.BYTES * 3L + 2 + Integer.BYTES + Character.BYTES;
+            long index = (Long.BYTES + Integer.BYTES) * (long) slotKeys.length;
+            return perRow * ids.length + index + names.length + 10L * ARRAY_HEADER_BYTES;
+        }
+
+        private boolean sameName(int row, byte[] name) {
+            return nameLengths[row] == name.length
+                    && Arrays.equals(names, nameOffsets[row], nameOffsets[row] + name.length, name, 0, name.length);
+        }
+
+        private void index(long id, int row) {
+            int mask = slotKeys.length - 1;
+            int slot = slot(id, mask);
+            while (slotKeys[slot] != 0 && slotKeys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            slotRows[slot] = row;
+            slotKeys[slot] = id;
+        }
+
+        private static int slot(long id, int mask) {
+            // mélange de Stafford : des ids consécutifs ne tombent pas dans des cases voisines
+            long h = id * 0xbf58476d1ce4e5b9L;
+            return (int) (h ^ (h >>> 31)) & mask;
+        }
+    }
+}
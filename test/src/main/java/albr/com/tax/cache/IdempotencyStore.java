@@ -0,0 +1,126 @@
+package albr.com.tax.cache;
+
+import albr.com.tax.config.IdempotencyProperties;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.exception.ProductCreationException;
+import albr.com.tax.exception.RequestInProgressException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Créations récentes par Idempotency-Key, bornées en nombre et en durée.
+ * Une clé déjà vue rejoue la réponse enregistrée ; des requêtes simultanées avec la même clé
+ * attendent l'unique création en cours au lieu d'insérer chacune une ligne.
+ * Une création en échec, quelle que soit l'erreur, libère la clé pour que le retry suivant puisse réessayer ;
+ * un doublon n'attend la requête d'origine que {@code app.idempotency.await-timeout}.
+ * Deux corps sont identiques s'ils ne diffèrent que par l'écriture du prix (100.0 et 100.00).
+ * Métriques : app.idempotency.keys, app.idempotency.replayed.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+    private final Counter replayed;
+    private final Duration awaitTimeout;
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.awaitTimeout = properties.awaitTimeout();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .build();
+
+        Gauge.builder("app.idempotency.keys", entries, Cache::estimatedSize)
+                .description("Idempotency keys currently remembered")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("app.idempotency.replayed")
+                .description("Product creations answered from a previous request with the same key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exécute {@code creation} une seule fois par clé.
+     *
+     * @throws IllegalStateException      si la clé a déjà servi pour une autre requête
+     * @throws RequestInProgressException si la requête d'origine n'a pas abouti dans le délai d'attente
+     */
+    public ProductResponse execute(String key, ProductRequest request, Creation creation)
+            throws ProductCreationException {
+
+        requireNonNull(key, "Idempotency key must not be null");
+        requireNonNull(request, "ProductRequest must not be null");
+
+        Entry mine = new Entry(Fingerprint.of(request), new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(mine.fingerprint())) {
+                throw new IllegalStateException("Idempotency-Key already used for a different request");
+            }
+            replayed.increment();
+            return await(existing.response());
+        }
+
+        try {
+            ProductResponse response = creation.create();
+            mine.response().complete(response);
+            return response;
+        } catch (Throwable ex) {
+            // y compris les Error et ProductCreationException (un Throwable) : rien n'a été enregistré,
+            // la clé est libérée et les requêtes en attente reçoivent la même erreur
+            entries.asMap().remove(key, mine);
+            mine.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private ProductResponse await(CompletableFuture<ProductResponse> response) throws ProductCreationException {
+        try {
+            return response.get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            switch (ex.getCause()) {
+                case ProductCreationException pce -> throw pce;
+                case RuntimeException re -> throw re;
+                default -> throw new CompletionException(ex.getCause());
+            }
+        } catch (TimeoutException ex) {
+            throw new RequestInProgressException("A request with the same Idempotency-Key is still in progress", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("Interrupted while waiting for the original request", ex);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Creation {
+        ProductResponse create() throws ProductCreationException;
+    }
+
+    private record Entry(Fingerprint fingerprint, CompletableFuture<ProductResponse> response) {
+    }
+
+    // champs de ProductRequest, prix sans zéros non significatifs (BigDecimal.equals compare aussi l'échelle)
+    private record Fingerprint(String name, BigDecimal price, Country country) {
+
+        static Fingerprint of(ProductRequest request) {
+            BigDecimal price = request.getPrice();
+            return new Fingerprint(request.getName(), price != null ? price.stripTrailingZeros() : null,
+                    request.getCountry());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package albr.com.tax.cache;
+
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.repository.ProductSummary;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache "read-through" des produits par id, borné en taille et en durée.
+ * Les compteurs hit / miss / eviction sont publiés sous le nom de cache "products"
+ * (/actuator/metrics/cache.gets, cache.evictions...).
+ * <p>
+ * Le cache contient des projections {@link ProductSummary} immuables, partagées entre requêtes.
+ * <p>
+ * Les chargements s'exécutent hors du verrou de la map (cache asynchrone dont chaque entrée est un futur) :
+ * un chargement lent ou qui attend ({@link albr.com.tax.service.ProductLoader}) ne bloque pas les autres clés.
+ * Une invalidation pendant un chargement retire le futur, dont le résultat n'entre alors pas dans le cache.
+ */
+@Component
+public class ProductCache {
+
+    public static final String NAME = "products";
+
+    // null si le cache est désactivé
+    private final AsyncCache<Long, ProductSummary> cache;
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        CacheHitRatio.register(meterRegistry, cache.synchronous(), NAME);
+    }
+
+    /**
+     * Renvoie le produit en cache ou le charge via {@code loader}.
+     * Les chargements concurrents d'un même id ne déclenchent qu'un appel au loader ;
+     * un produit absent n'est pas mis en cache.
+     */
+    public Optional<ProductSummary> get(Long id, Function<Long, Optional<ProductSummary>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        CompletableFuture<ProductSummary> mine = new CompletableFuture<>();
+        CompletableFuture<ProductSummary> future = cache.get(id, (key, executor) -> mine);
+        if (future == mine) {
+            // chargé par l'appelant, hors de la map ; une entrée complétée à null ou en erreur est retirée
+            try {
+                mine.complete(loader.apply(id).orElse(null));
+            } catch (Throwable ex) {
+                mine.completeExceptionally(ex);
+            }
+        }
+        return Optional.ofNullable(join(future));
+    }
+
+    /**
+     * Version groupée de {@link #get} : les ids absents du cache sont chargés
+     * en un seul appel à {@code loader}. Les ids inconnus sont absents de la map renvoyée.
+     */
+    public Map<Long, ProductSummary> getAll(Collection<Long> ids, Function<Set<Long>, List<ProductSummary>> loader) {
+        if (cache == null) {
+            return byId(loader.apply(new LinkedHashSet<>(ids)));
+        }
+        return join(cache.getAll(ids, (missing, executor) -> {
+            try {
+                return CompletableFuture.completedFuture(byId(loader.apply(new LinkedHashSet<>(missing))));
+            } catch (Throwable ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }));
+    }
+
+    /**
+     * Produit en cache, sans chargement en cas d'absence.
+     */
+    public Optional<ProductSummary> peek(Long id) {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        CompletableFuture<ProductSummary> future = cache.getIfPresent(id);
+        // un chargement en cours n'est pas attendu
+        return future != null && future.isDone() && !future.isCompletedExceptionally()
+                ? Optional.ofNullable(future.getNow(null))
+                : Optional.empty();
+    }
+
+    /**
+     * Ajoute des produits déjà chargés (préchauffage), sans écraser une entrée plus récente.
+     */
+    public void putAll(Collection<ProductSummary> products) {
+        if (cache != null) {
+            products.forEach(p -> cache.asMap().putIfAbsent(p.getId(), CompletableFuture.completedFuture(p)));
+        }
+    }
+
+    /**
+     * Ids des produits les plus souvent lus, du plus chaud au moins chaud (au plus {@code limit}).
+     */
+    public List<Long> hottest(int limit) {
+        if (cache == null) {
+            return List.of();
+        }
+        Cache<Long, ProductSummary> view = cache.synchronous();
+        return view.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElseGet(() -> view.asMap().keySet().stream().limit(limit).toList());
+    }
+
+    public boolean enabled() {
+        return cache != null;
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null && id != null) {
+            cache.synchronous().invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.synchronous().stats() : CacheStats.empty();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            switch (ex.getCause()) {
+                case RuntimeException cause -> throw cause;
+                case Error cause -> throw cause;
+                case null, default -> throw ex;
+            }
+        }
+    }
+
+    private static Map<Long, ProductSummary> byId(List<ProductSummary> products) {
+        Map<Long, ProductSummary> byId = new HashMap<>(products.size() * 2);
+        products.forEach(p -> byId.put(p.getId(), p));
+        return byId;
+    }
+}
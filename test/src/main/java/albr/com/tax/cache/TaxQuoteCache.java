@@ -0,0 +1,141 @@
+package albr.com.tax.cache;
+
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.engine.CompiledTaxRule;
+import albr.com.tax.engine.FixedPoint;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.engine.TaxRulesChangedEvent;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductView;
+import albr.com.tax.service.CompiledTaxStrategy;
+import albr.com.tax.service.TaxStrategy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mémoïsation des calculs de taxe : une cotation ne dépend que du prix et du pays,
+ * elle est donc partagée par tous les produits au même prix dans le même pays.
+ * Le prix est normalisé en unités mineures (10.0 et 10.00 donnent la même clé) et la taxe est gardée
+ * en unités mineures : la cotation est rendue à l'échelle du prix demandé, pas de celui qui a rempli l'entrée.
+ * <p>
+ * Pour une {@link CompiledTaxStrategy}, la clé contient la règle compilée lue une fois par appel et la taxe est
+ * calculée avec cette même règle : un calcul commencé avant un rechargement ne peut remplir qu'une entrée
+ * de l'ancienne table, que plus aucune lecture n'atteint. Les autres stratégies sont identifiées par l'instance.
+ * Le cache est vidé à chaque {@link TaxRulesChangedEvent}, pour libérer les entrées de l'ancienne table.
+ */
+@Component
+public class TaxQuoteCache {
+
+    public static final String NAME = "taxQuotes";
+
+    // rules : CompiledTaxRule (identité) ou, à défaut, la stratégie
+    private record Key(Object rules, Country country, long priceMinor) {
+    }
+
+    // null si le cache est désactivé
+    private final Cache<Key, Long> cache;
+
+    public TaxQuoteCache(QuoteCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        CacheHitRatio.register(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Cotation du produit par {@code strategy}, servie depuis le cache si le couple (prix, pays) est connu
+     * pour la règle en vigueur. La taxe vient de la règle compilée ou, pour une autre stratégie,
+     * de {@link TaxStrategy#calculateTax} ; le TTC est prix + taxe.
+     */
+    public TaxQuote quote(ProductView product, TaxStrategy strategy) {
+        if (cache == null) {
+            return compute(product, strategy);
+        }
+        CompiledTaxRule rule = strategy instanceof CompiledTaxStrategy compiled ? compiled.rule() : null;
+        Key key = keyOf(product, rule != null ? rule : strategy);
+        if (key == null) {
+            return compute(product, strategy);
+        }
+        // null : taxe non représentable en unités mineures, jamais mise en cache
+        Long taxMinor = cache.get(key, k -> rule != null
+                ? taxMinor(rule, k.priceMinor())
+                : taxMinor(strategy.calculateTax(product)));
+        if (taxMinor == null) {
+            return rule != null ? rule.quote(product.getPrice()) : compute(product, strategy);
+        }
+        int scale = product.getPrice().scale();
+        try {
+            return new TaxQuote(FixedPoint.toDecimal(taxMinor, scale),
+                    FixedPoint.toDecimal(Math.addExact(key.priceMinor(), taxMinor), scale));
+        } catch (ArithmeticException overflow) {
+            return rule != null ? rule.quote(product.getPrice()) : compute(product, strategy);
+        }
+    }
+
+    @EventListener
+    public void onTaxRulesChanged(TaxRulesChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    private static TaxQuote compute(ProductView product, TaxStrategy strategy) {
+        BigDecimal tax = strategy.calculateTax(product);
+        BigDecimal price = product.getPrice();
+        return new TaxQuote(tax, price != null && tax != null ? price.add(tax) : null);
+    }
+
+    private static Long taxMinor(CompiledTaxRule rule, long priceMinor) {
+        try {
+            return rule.taxMinor(priceMinor);
+        } catch (ArithmeticException overflow) {
+            return null;
+        }
+    }
+
+    private static Long taxMinor(BigDecimal tax) {
+        if (tax == null) {
+            return null;
+        }
+        try {
+            return FixedPoint.toMinor(tax, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException notRepresentable) {
+            return null;
+        }
+    }
+
+    // pas de clé (donc pas de cache) pour un produit incomplet ou un prix hors capacité
+    private static Key keyOf(ProductView product, Object rules) {
+        BigDecimal price = product.getPrice();
+        if (price == null || product.getCountry() == null) {
+            return null;
+        }
+        try {
+            return new Key(rules, product.getCountry(), FixedPoint.toMinor(price, RoundingMode.UNNECESSARY));
+        } catch (ArithmeticException notRepresentable) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Réglages de l'import en masse (POST /api/products/bulk).
+ *
+ * @param batchSize nombre de produits persistés par transaction / batch JDBC
+ */
+@ConfigurationProperties(prefix = "app.bulk")
+public record BulkProperties(@DefaultValue("500") int batchSize) {
+
+    public BulkProperties {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("app.bulk.batch-size must be > 0");
+        }
+    }
+}
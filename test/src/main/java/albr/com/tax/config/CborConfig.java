@@ -0,0 +1,71 @@
+package albr.com.tax.config;
+
+import albr.com.tax.engine.FixedPoint;
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.boot.jackson.autoconfigure.CborMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Format binaire application/cbor (Accept: application/cbor), pour les appels entre services.
+ * Le convertisseur HTTP utilise le CBORMapper de Spring Boot, dont on change seulement l'encodage des montants :
+ * en CBOR tout BigDecimal est un entier en unités mineures à l'échelle {@link FixedPoint#SCALE}
+ * (100.00 -> 10_000_000_000), dans les deux sens. Le JSON n'est pas modifié.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CborConfig {
+
+    @Bean
+    CborMapperBuilderCustomizer scaledDecimalCborCustomizer() {
+        return builder -> builder.addModule(scaledDecimalModule());
+    }
+
+    // sans ce customizer, Spring MVC enregistre un convertisseur CBOR avec un mapper par défaut
+    @Bean
+    ServerHttpMessageConvertersCustomizer cborConverterCustomizer(CBORMapper cborMapper) {
+        return converters -> converters.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+    }
+
+    public static SimpleModule scaledDecimalModule() {
+        return new SimpleModule("scaled-decimals")
+                .addSerializer(BigDecimal.class, new ScaledDecimalSerializer())
+                .addDeserializer(BigDecimal.class, new ScaledDecimalDeserializer());
+    }
+
+    static final class ScaledDecimalSerializer extends ValueSerializer<BigDecimal> {
+
+        @Override
+        public void serialize(BigDecimal value, JsonGenerator gen, SerializationContext ctxt) {
+            // entier CBOR sur 1 à 9 octets, au lieu d'une fraction décimale (tag 4 + mantisse + exposant)
+            gen.writeNumber(FixedPoint.toMinor(value, RoundingMode.HALF_EVEN));
+        }
+    }
+
+    static final class ScaledDecimalDeserializer extends ValueDeserializer<BigDecimal> {
+
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return FixedPoint.toDecimal(p.getLongValue(), 2);
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return p.getDecimalValue();
+            }
+            return (BigDecimal) ctxt.handleUnexpectedToken(BigDecimal.class, p);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Modèle de lecture en colonnes (app.read.columnar) : copie en mémoire de id / nom / prix / pays
+ * servant GET /api/products/{id} et /final-price-tax-country sans passer par JPA.
+ *
+ * @param enabled  false : les lectures passent par le cache produits et la base
+ * @param pageSize produits lus par requête pendant la construction au démarrage
+ */
+@ConfigurationProperties(prefix = "app.read.columnar")
+public record ColumnarReadProperties(@DefaultValue("false") boolean enabled,
+                                     @DefaultValue("1000") int pageSize) {
+
+    public ColumnarReadProperties {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("app.read.columnar.page-size must be > 0");
+        }
+    }
+}
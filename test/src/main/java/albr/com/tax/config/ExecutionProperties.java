@@ -0,0 +1,19 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Contrôle d'admission des requêtes HTTP (app.execution).
+ * En mode threads virtuels le nombre de requêtes simultanées n'est plus borné par le pool Tomcat :
+ * {@code maxInFlight} évite qu'elles s'accumulent devant le pool de connexions JDBC.
+ *
+ * @param maxInFlight    requêtes traitées simultanément, 0 = pas de limite
+ * @param acquireTimeout attente maximale d'une place avant de répondre 503
+ */
+@ConfigurationProperties(prefix = "app.execution")
+public record ExecutionProperties(@DefaultValue("0") int maxInFlight,
+                                  @DefaultValue("1s") Duration acquireTimeout) {
+}
@@ -0,0 +1,29 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Export du catalogue avec les prix calculés (POST /api/products/export, app.export).
+ *
+ * @param directory  répertoire où les fichiers d'export sont écrits
+ * @param blockSize  produits tarifés ensemble (par pays) ; taille d'un bloc du format colonnes
+ * @param bufferSize tampon d'écriture vers le fichier, réutilisé pendant tout l'export
+ */
+@ConfigurationProperties(prefix = "app.export")
+public record ExportProperties(@DefaultValue("./data/export") Path directory,
+                               @DefaultValue("500") int blockSize,
+                               @DefaultValue("64KB") DataSize bufferSize) {
+
+    public ExportProperties {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("app.export.block-size must be > 0");
+        }
+        if (bufferSize.toBytes() < 1024 || bufferSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.export.buffer-size must be >= 1KB and < 2GB");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * En-têtes de cache HTTP des lectures produit (app.http.cache).
+ *
+ * @param maxAge durée pendant laquelle un client ou un CDN peut resservir la réponse sans revalider ;
+ *               0 = "no-cache" : revalidation à chaque fois par If-None-Match (304 si inchangé)
+ */
+@ConfigurationProperties(prefix = "app.http.cache")
+public record HttpCacheProperties(@DefaultValue("0s") Duration maxAge) {
+
+    public HttpCacheProperties {
+        if (maxAge.isNegative()) {
+            throw new IllegalArgumentException("app.http.cache.max-age must be >= 0");
+        }
+    }
+}
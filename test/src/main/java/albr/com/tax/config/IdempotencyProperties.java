@@ -0,0 +1,25 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Clés Idempotency-Key de POST /api/products (app.idempotency).
+ *
+ * @param maximumSize      nombre maximum de clés récentes gardées en mémoire
+ * @param expireAfterWrite durée pendant laquelle un retry avec la même clé rejoue la réponse
+ * @param awaitTimeout     attente maximale d'un doublon pendant que la requête d'origine est en cours
+ */
+@ConfigurationProperties(prefix = "app.idempotency")
+public record IdempotencyProperties(@DefaultValue("100000") long maximumSize,
+                                    @DefaultValue("1h") Duration expireAfterWrite,
+                                    @DefaultValue("30s") Duration awaitTimeout) {
+
+    public IdempotencyProperties {
+        if (awaitTimeout == null || awaitTimeout.isNegative() || awaitTimeout.isZero()) {
+            throw new IllegalArgumentException("app.idempotency.await-timeout must be positive");
+        }
+    }
+}
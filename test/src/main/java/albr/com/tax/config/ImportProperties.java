@@ -0,0 +1,30 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Import de fichiers catalogue CSV / NDJSON (POST /api/products/import, app.import).
+ *
+ * @param directory   seul répertoire d'où les fichiers peuvent être importés ; les fichiers de rejet y sont écrits
+ * @param parallelism threads de lecture, chacun persiste ses propres lots (à garder sous la taille du pool JDBC)
+ * @param splitSize   taille au-dessous de laquelle une portion du fichier n'est plus découpée
+ *                    (une projection mémoire par portion, au plus 2 GB)
+ */
+@ConfigurationProperties(prefix = "app.import")
+public record ImportProperties(@DefaultValue("./data/import") Path directory,
+                               @DefaultValue("4") int parallelism,
+                               @DefaultValue("64MB") DataSize splitSize) {
+
+    public ImportProperties {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("app.import.parallelism must be > 0");
+        }
+        if (splitSize.toBytes() <= 0 || splitSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.import.split-size must be > 0 and < 2GB");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Création asynchrone des produits (POST /api/products/async, app.ingest).
+ *
+ * @param queueCapacity  demandes en attente au maximum ; au-delà la création est refusée (503)
+ * @param offerTimeout   attente maximale d'une place dans la file avant de refuser
+ * @param batchSize      demandes persistées au plus par transaction
+ * @param workers        threads qui vident la file
+ * @param drainTimeout   temps laissé à l'arrêt pour persister les demandes encore en file
+ * @param maxTracked     nombre de suivis (tracking id) gardés en mémoire
+ * @param statusRetention durée de vie d'un suivi après sa dernière mise à jour
+ */
+@ConfigurationProperties(prefix = "app.ingest")
+public record IngestProperties(@DefaultValue("10000") int queueCapacity,
+                               @DefaultValue("50ms") Duration offerTimeout,
+                               @DefaultValue("500") int batchSize,
+                               @DefaultValue("2") int workers,
+                               @DefaultValue("30s") Duration drainTimeout,
+                               @DefaultValue("100000") long maxTracked,
+                               @DefaultValue("10m") Duration statusRetention) {
+
+    public IngestProperties {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("app.ingest.queue-capacity must be > 0");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("app.ingest.batch-size must be > 0");
+        }
+        if (workers <= 0) {
+            throw new IllegalArgumentException("app.ingest.workers must be > 0");
+        }
+    }
+}
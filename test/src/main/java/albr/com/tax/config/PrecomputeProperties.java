@@ -0,0 +1,20 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cotations précalculées à l'écriture (app.pricing.precompute).
+ * Les lectures TTC renvoient alors la taxe stockée au lieu de la recalculer ; un changement de règles
+ * déclenche un recalcul de la table en arrière-plan, par lots de {@code batchSize}.
+ */
+@ConfigurationProperties(prefix = "app.pricing.precompute")
+public record PrecomputeProperties(@DefaultValue("false") boolean enabled,
+                                   @DefaultValue("500") int batchSize) {
+
+    public PrecomputeProperties {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("app.pricing.precompute.batch-size must be > 0");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cache des produits lus par id (app.cache.products).
+ *
+ * @param maximumSize      nombre maximum de produits gardés en mémoire
+ * @param expireAfterWrite durée de vie d'une entrée après son chargement
+ */
+@ConfigurationProperties(prefix = "app.cache.products")
+public record ProductCacheProperties(@DefaultValue("true") boolean enabled,
+                                     @DefaultValue("10000") long maximumSize,
+                                     @DefaultValue("10m") Duration expireAfterWrite) {
+}
@@ -0,0 +1,14 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cache des cotations par (prix, pays) (app.cache.quotes).
+ *
+ * @param maximumSize nombre maximum de couples (prix, pays) gardés en mémoire
+ */
+@ConfigurationProperties(prefix = "app.cache.quotes")
+public record QuoteCacheProperties(@DefaultValue("true") boolean enabled,
+                                   @DefaultValue("50000") long maximumSize) {
+}
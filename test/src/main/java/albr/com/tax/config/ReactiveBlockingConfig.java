@@ -0,0 +1,31 @@
+package albr.com.tax.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Pile réactive : les contrôleurs partagés avec la pile servlet (import, export, règles de taxe) sont bloquants
+ * (JPA, fichiers). WebFlux appelle les méthodes qui ne renvoient ni Mono ni Flux sur l'exécuteur
+ * applicatif de Spring Boot (threads virtuels avec le profil "virtual"), jamais sur les threads d'I/O de Netty.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBlockingConfig implements WebFluxConfigurer {
+
+    private final AsyncTaskExecutor executor;
+
+    public ReactiveBlockingConfig(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                  AsyncTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(executor);
+    }
+}
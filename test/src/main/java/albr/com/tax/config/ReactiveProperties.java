@@ -0,0 +1,31 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Pile réactive (profil "reactive", app.reactive) : accès R2DBC à la base de {@code spring.datasource}.
+ *
+ * @param url      URL H2 sans le préfixe {@code jdbc:h2:} / {@code r2dbc:h2:} (ex. {@code mem:taxdb})
+ * @param poolSize connexions R2DBC ouvertes au plus
+ * @param pageSize lignes par requête : pages de {@code /stream}, ids par {@code IN (...)} des cotations en lot
+ */
+@ConfigurationProperties(prefix = "app.reactive")
+public record ReactiveProperties(@DefaultValue("mem:taxdb") String url,
+                                 @DefaultValue("admin") String username,
+                                 @DefaultValue("admin") String password,
+                                 @DefaultValue("16") int poolSize,
+                                 @DefaultValue("500") int pageSize) {
+
+    public ReactiveProperties {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("app.reactive.url must not be blank");
+        }
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("app.reactive.pool-size must be > 0");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("app.reactive.page-size must be > 0");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Regroupement des lectures de produits par id absentes du cache (app.read.coalescing).
+ *
+ * @param enabled      false : chaque lecture interroge la base
+ * @param window       attente maximale pour regrouper des ids distincts dans une même requête IN, 0 = aucune ;
+ *                     payée par toute lecture absente du cache qui ouvre un lot, même sans lecture concurrente
+ * @param maxBatchSize ids au plus par requête ; un lot plein part sans attendre la fin de la fenêtre
+ */
+@ConfigurationProperties(prefix = "app.read.coalescing")
+public record ReadCoalescingProperties(@DefaultValue("true") boolean enabled,
+                                       @DefaultValue("0ms") Duration window,
+                                       @DefaultValue("200") int maxBatchSize) {
+
+    public ReadCoalescingProperties {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("app.read.coalescing.max-batch-size must be > 0");
+        }
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("app.read.coalescing.window must be >= 0");
+        }
+    }
+}
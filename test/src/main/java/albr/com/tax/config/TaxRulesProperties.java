@@ -0,0 +1,15 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+/**
+ * Source de la table des règles de taxe (app.tax.rules).
+ *
+ * @param location fichier JSON des règles, relu à chaque rechargement
+ *                 (ex: file:/etc/tax-app/tax-rules.json)
+ */
+@ConfigurationProperties(prefix = "app.tax.rules")
+public record TaxRulesProperties(@DefaultValue("classpath:tax-rules.json") Resource location) {
+}
@@ -0,0 +1,19 @@
+package albr.com.tax.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Préchauffage des caches au démarrage (app.warmup).
+ *
+ * @param maxProducts nombre maximum de produits rechargés
+ * @param hotIdsFile  fichier où sont notés à l'arrêt les ids les plus lus ; sans fichier (ou au premier démarrage)
+ *                    les premiers produits par id sont chargés
+ */
+@ConfigurationProperties(prefix = "app.warmup")
+public record WarmupProperties(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("10000") int maxProducts,
+                               Path hotIdsFile) {
+}
@@ -1,35 +1,188 @@
 package albr.com.tax.controller;
 
+import albr.com.tax.cache.IdempotencyStore;
+import albr.com.tax.config.HttpCacheProperties;
+import albr.com.tax.dto.ProductIngestStatus;
+import albr.com.tax.dto.ProductPage;
 import albr.com.tax.dto.ProductRequest;
 import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
 import albr.com.tax.exception.ProductCreationException;
+import albr.com.tax.exception.RequestInProgressException;
+import albr.com.tax.service.ProductBulkService;
+import albr.com.tax.service.ProductIngestQueue;
+import albr.com.tax.service.ProductETags;
+import albr.com.tax.service.ProductListingService;
 import albr.com.tax.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.util.List;
 
 
 @RestController
 @RequestMapping("/api/products")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ProductController {
 
+    // borne la taille du IN (...) envoyé à la base pour un panier
+    static final int MAX_QUOTE_BATCH = 500;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final List<MediaType> ETAG_VARIANTS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final ProductListingService productListingService;
+    private final ProductIngestQueue productIngestQueue;
+    private final IdempotencyStore idempotencyStore;
+    private final ProductETags productETags;
+    private final String cacheControl;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter jsonWriter;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductBulkService productBulkService,
+                             ProductListingService productListingService,
+                             ProductIngestQueue productIngestQueue,
+                             IdempotencyStore idempotencyStore,
+                             ProductETags productETags,
+                             HttpCacheProperties httpCacheProperties,
+                             ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productBulkService = productBulkService;
+        this.productListingService = productListingService;
+        this.productIngestQueue = productIngestQueue;
+        this.idempotencyStore = idempotencyStore;
+        this.productETags = productETags;
+        this.cacheControl = (httpCacheProperties.maxAge().isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(httpCacheProperties.maxAge())).cachePublic().getHeaderValue();
+        this.ndjsonWriter = objectMapper.writer().withRootValueSeparator("\n");
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    /*
+     * Listing paginé par clé : passer le nextAfterId de la réponse en afterId pour la page suivante.
+     */
+    @GetMapping
+    public ProductPage listProducts(@RequestParam(defaultValue = "0") @Min(0) long afterId,
+                                    @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+                                    @RequestParam(required = false) Country country,
+                                    @RequestParam(defaultValue = "false") boolean withPrices) {
+        return productListingService.page(afterId, limit, country, withPrices);
+    }
+
+    /*
+     * Listing complet écrit au fil de la lecture (curseur base) : NDJSON, ou tableau JSON
+     * si le client demande application/json. Mémoire constante quel que soit le volume.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamProducts(@RequestParam(defaultValue = "0") @Min(0) long afterId,
+                               @RequestParam(required = false) Country country,
+                               @RequestParam(defaultValue = "false") boolean withPrices,
+                               HttpServletResponse httpResponse) throws IOException {
+
+        httpResponse.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (SequenceWriter items = ndjsonWriter.writeValues(httpResponse.getOutputStream())) {
+            productListingService.stream(afterId, country, withPrices, items::write);
+        }
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamProductsAsArray(@RequestParam(defaultValue = "0") @Min(0) long afterId,
+                                      @RequestParam(required = false) Country country,
+                                      @RequestParam(defaultValue = "false") boolean withPrices,
+                                      HttpServletResponse httpResponse) throws IOException {
+
+        httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (SequenceWriter items = jsonWriter.writeValuesAsArray(httpResponse.getOutputStream())) {
+            productListingService.stream(afterId, country, withPrices, items::write);
+        }
+    }
+
+    /*
+     * Avec un en-tête Idempotency-Key, un retry (même clé, même corps) renvoie le produit déjà créé
+     * au lieu d'en insérer un second ; la même clé avec un autre corps est refusée (422).
+     * Un doublon dont l'original n'a pas abouti dans app.idempotency.await-timeout reçoit 409.
+     */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ProductResponse addProduct(@RequestBody @Valid ProductRequest request) throws ProductCreationException {
+    public ProductResponse addProduct(@RequestBody @Valid ProductRequest request,
+                                      @RequestHeader(name = IDEMPOTENCY_KEY, required = false)
+                                      @Size(min = 1, max = 255) String idempotencyKey)
+            throws ProductCreationException {
 
-        ProductResponse response = productService.add(request);
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(response).getBody();
+        if (idempotencyKey == null) {
+            return productService.add(request);
+        }
+        try {
+            return idempotencyStore.execute(idempotencyKey, request, () -> productService.add(request));
+        } catch (IllegalStateException ex) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT, ex.getMessage(), ex);
+        } catch (RequestInProgressException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        }
+    }
+
+    /*
+     * Création asynchrone : 202 + suivi dès la mise en file, sans attendre le commit.
+     * File pleine : 503 + Retry-After, le client réessaie plus tard.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<ProductIngestStatus> addProductAsync(@RequestBody @Valid ProductRequest request) {
+        return productIngestQueue.submit(request)
+                .map(status -> ResponseEntity
+                        .accepted()
+                        .location(URI.create("/api/products/ingest/" + status.getTrackingId()))
+                        .body(status))
+                .orElseGet(() -> ResponseEntity
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<ProductIngestStatus> getIngestStatus(@PathVariable String trackingId) {
+        return ResponseEntity.of(productIngestQueue.status(trackingId));
+    }
+
+    /*
+     * Import en masse : tableau JSON ou NDJSON en entrée,
+     * un ProductBulkResult par élément en sortie (NDJSON, écrit au fil de l'eau).
+     */
+    @PostMapping(path = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void addProducts(InputStream body, HttpServletResponse httpResponse) throws IOException {
+
+        httpResponse.setStatus(HttpStatus.OK.value());
+        httpResponse.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        try (SequenceWriter results = ndjsonWriter.writeValues(httpResponse.getOutputStream())) {
+            productBulkService.ingest(body, results::write);
+        }
     }
 
 
@@ -39,16 +192,62 @@ public class ProductController {
 
     }
 
-    @GetMapping("/{id}/")
-    public ResponseEntity<ProductResponse> geProduct(@PathVariable Long id) {
+    /*
+     * Lectures avec ETag : un If-None-Match qui correspond reçoit 304 sans que le produit soit chargé ni sérialisé.
+     * JSON et CBOR sont deux représentations : ETag distincts et Vary: Accept pour les caches partagés.
+     */
+    @GetMapping(path = "/{id}/", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ProductResponse> geProduct(@PathVariable Long id, ServletWebRequest webRequest) {
+        if (notModified(productETags.product(id).orElse(null), webRequest)) {
+            return null;
+        }
         ProductResponse response = productService.getProduct(id);
         return ResponseEntity.ok(response);
     }
 
 
-    @GetMapping("/{id}/final-price-tax-country")
-    public ResponseEntity<ProductResponse> getFinalPriceTTC(@PathVariable Long id) {
+    @GetMapping(path = "/{id}/final-price-tax-country",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ProductResponse> getFinalPriceTTC(@PathVariable Long id, ServletWebRequest webRequest) {
+        if (notModified(productETags.price(id).orElse(null), webRequest)) {
+            return null;
+        }
         ProductResponse response = productService.getProductTTC(id);
         return ResponseEntity.ok(response);
     }
+
+    // ETag, Cache-Control et Vary posés sur la réponse dans les deux cas (304 ou 200) ; null = produit inconnu
+    private boolean notModified(String etag, ServletWebRequest webRequest) {
+        HttpServletResponse response = webRequest.getResponse();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (etag == null) {
+            return false;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return webRequest.checkNotModified(ProductETags.variant(etag, selectedMediaType(webRequest)));
+    }
+
+    // même choix que la négociation de Spring MVC entre les représentations produites (JSON d'abord)
+    private static MediaType selectedMediaType(ServletWebRequest webRequest) {
+        List<MediaType> accepted = MediaType.parseMediaTypes(webRequest.getHeader(HttpHeaders.ACCEPT));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType mediaType : accepted) {
+            for (MediaType variant : ETAG_VARIANTS) {
+                if (mediaType.isCompatibleWith(variant) && mediaType.getQualityValue() > 0) {
+                    return variant;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /*
+     * Cotation d'un panier : liste d'ids en entrée, un ProductResponse par id (même ordre).
+     */
+    @PostMapping("/final-price-tax-country")
+    public ResponseEntity<List<ProductResponse>> getFinalPricesTTC(
+            @RequestBody @NotEmpty @Size(max = MAX_QUOTE_BATCH) List<Long> ids) {
+        List<ProductResponse> responses = productService.getProductsTTC(ids);
+        return ResponseEntity.ok(responses);
+    }
 }
@@ -0,0 +1,43 @@
+package albr.com.tax.controller;
+
+import albr.com.tax.dto.ProductExportStatus;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.service.CatalogExportWriter.Format;
+import albr.com.tax.service.ProductExportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+
+@RestController
+@RequestMapping("/api/products/export")
+public class ProductExportController {
+
+    private final ProductExportService exportService;
+
+    public ProductExportController(ProductExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /*
+     * Export du catalogue avec prix de base, taxe et TTC dans app.export.directory :
+     * format=CSV ou COLUMNAR (binaire), compress=true pour gzip, country pour filtrer.
+     * 202 + suivi : le nom du fichier et l'avancement se lisent sur GET /api/products/export/{jobId}.
+     */
+    @PostMapping
+    public ResponseEntity<ProductExportStatus> export(@RequestParam(defaultValue = "CSV") Format format,
+                                                      @RequestParam(defaultValue = "false") boolean compress,
+                                                      @RequestParam(required = false) Country country) {
+        ProductExportStatus status = exportService.submit(format, compress, country);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/products/export/" + status.getJobId()))
+                .body(status);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ProductExportStatus> getStatus(@PathVariable String jobId) {
+        return ResponseEntity.of(exportService.status(jobId));
+    }
+}
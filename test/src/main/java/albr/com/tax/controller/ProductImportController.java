@@ -0,0 +1,44 @@
+package albr.com.tax.controller;
+
+import albr.com.tax.dto.ProductImportStatus;
+import albr.com.tax.service.ProductFileImporter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+
+
+@RestController
+@RequestMapping("/api/products/import")
+public class ProductImportController {
+
+    private final ProductFileImporter importer;
+
+    public ProductImportController(ProductFileImporter importer) {
+        this.importer = importer;
+    }
+
+    /*
+     * Import d'un fichier catalogue déjà déposé dans app.import.directory (nom relatif à ce répertoire).
+     * 202 + suivi : l'avancement se lit sur GET /api/products/import/{jobId}.
+     */
+    @PostMapping
+    public ResponseEntity<ProductImportStatus> importFile(@RequestParam String file) {
+        try {
+            ProductImportStatus status = importer.submit(file);
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/products/import/" + status.getJobId()))
+                    .body(status);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ProductImportStatus> getStatus(@PathVariable String jobId) {
+        return ResponseEntity.of(importer.status(jobId));
+    }
+}
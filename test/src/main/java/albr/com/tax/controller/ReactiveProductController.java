@@ -0,0 +1,193 @@
+package albr.com.tax.controller;
+
+import albr.com.tax.cache.IdempotencyStore;
+import albr.com.tax.config.HttpCacheProperties;
+import albr.com.tax.dto.ProductBulkResult;
+import albr.com.tax.dto.ProductIngestStatus;
+import albr.com.tax.dto.ProductPage;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.exception.ProductCreationException;
+import albr.com.tax.exception.RequestInProgressException;
+import albr.com.tax.service.ProductIngestQueue;
+import albr.com.tax.service.ReactiveProductService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.net.URI;
+
+
+/*
+ * Mêmes endpoints que ProductController, servis par WebFlux (profil "reactive").
+ * Les flux (/stream, /bulk, cotation en lot) sont produits à la demande du client : NDJSON ou tableau JSON
+ * selon Accept, sans jamais garder la réponse entière en mémoire.
+ * JSON seulement : l'encodeur CBOR de WebFlux n'écrit pas ces réponses, application/cbor reste sur la pile servlet.
+ */
+@RestController
+@RequestMapping(path = "/api/products", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+    private final ProductIngestQueue productIngestQueue;
+    private final IdempotencyStore idempotencyStore;
+    private final String cacheControl;
+
+    public ReactiveProductController(ReactiveProductService productService,
+                                     ProductIngestQueue productIngestQueue,
+                                     IdempotencyStore idempotencyStore,
+                                     HttpCacheProperties httpCacheProperties) {
+        this.productService = productService;
+        this.productIngestQueue = productIngestQueue;
+        this.idempotencyStore = idempotencyStore;
+        this.cacheControl = (httpCacheProperties.maxAge().isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(httpCacheProperties.maxAge())).cachePublic().getHeaderValue();
+    }
+
+    @GetMapping
+    public Mono<ProductPage> listProducts(@RequestParam(defaultValue = "0") @Min(0) long afterId,
+                                          @RequestParam(defaultValue = "100") @Min(1)
+                                          @Max(ProductController.MAX_PAGE_SIZE) int limit,
+                                          @RequestParam(required = false) Country country,
+                                          @RequestParam(defaultValue = "false") boolean withPrices) {
+        return productService.page(afterId, limit, country, withPrices);
+    }
+
+    @GetMapping(path = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ProductResponse> streamProducts(@RequestParam(defaultValue = "0") @Min(0) long afterId,
+                                                @RequestParam(required = false) Country country,
+                                                @RequestParam(defaultValue = "false") boolean withPrices) {
+        return productService.stream(afterId, country, withPrices);
+    }
+
+    /*
+     * Avec Idempotency-Key, la création passe par IdempotencyStore, dont l'attente d'une requête concurrente
+     * sur la même clé est bloquante : elle est faite hors des threads d'I/O.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ProductResponse> addProduct(@RequestBody @Valid ProductRequest request,
+                                            @RequestHeader(name = ProductController.IDEMPOTENCY_KEY, required = false)
+                                            @Size(min = 1, max = 255) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return productService.add(request);
+        }
+        return Mono.defer(() -> {
+                    try {
+                        return Mono.just(idempotencyStore.execute(idempotencyKey, request,
+                                () -> addBlocking(request)));
+                    } catch (ProductCreationException ex) {
+                        return Mono.error(ex);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(IllegalStateException.class,
+                        ex -> new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT, ex.getMessage(), ex))
+                .onErrorMap(RequestInProgressException.class,
+                        ex -> new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex));
+    }
+
+    private ProductResponse addBlocking(ProductRequest request) throws ProductCreationException {
+        try {
+            return productService.add(request).block();
+        } catch (RuntimeException ex) {
+            // block() enveloppe les erreurs non RuntimeException
+            if (Exceptions.unwrap(ex) instanceof ProductCreationException creation) {
+                throw creation;
+            }
+            throw ex;
+        }
+    }
+
+    // la mise en file attend une place (offer avec délai) : hors des threads d'I/O
+    @PostMapping("/async")
+    public Mono<ResponseEntity<ProductIngestStatus>> addProductAsync(@RequestBody @Valid ProductRequest request) {
+        return Mono.fromCallable(() -> productIngestQueue.submit(request)
+                        .map(status -> ResponseEntity
+                                .accepted()
+                                .location(URI.create("/api/products/ingest/" + status.getTrackingId()))
+                                .body(status))
+                        .orElseGet(() -> ResponseEntity
+                                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .build()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<ProductIngestStatus> getIngestStatus(@PathVariable String trackingId) {
+        return ResponseEntity.of(productIngestQueue.status(trackingId));
+    }
+
+    @PostMapping(path = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductBulkResult> addProducts(@RequestBody Flux<ProductRequest> body) {
+        return productService.ingest(body);
+    }
+
+    @GetMapping("/{id}/final-price")
+    public Mono<BigDecimal> getFinalPrice(@PathVariable Long id) {
+        return Mono.empty();
+    }
+
+    // une seule représentation (JSON) : l'ETag est celui de la variante JSON servlet, Vary: Accept reste posé
+    @GetMapping(path = "/{id}/", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ProductResponse>> geProduct(@PathVariable Long id, ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return productService.productETag(id)
+                .map(etag -> notModified(etag, exchange))
+                .defaultIfEmpty(false)
+                .flatMap(notModified -> notModified
+                        ? Mono.empty()
+                        : productService.getProduct(id).map(ResponseEntity::ok));
+    }
+
+    @GetMapping(path = "/{id}/final-price-tax-country", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ProductResponse>> getFinalPriceTTC(@PathVariable Long id,
+                                                                  ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return productService.priceETag(id)
+                .map(etag -> notModified(etag, exchange))
+                .defaultIfEmpty(false)
+                .flatMap(notModified -> notModified
+                        ? Mono.empty()
+                        : productService.getProductTTC(id).map(ResponseEntity::ok));
+    }
+
+    // 304 : checkNotModified a déjà posé le statut et l'ETag, la réponse reste vide
+    private boolean notModified(String etag, ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().set(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return exchange.checkNotModified(etag);
+    }
+
+    /*
+     * Cotation d'un panier, tableau JSON ou NDJSON d'ids : les ids sont lus et cotés par groupes au fil de la
+     * réception, sans la limite de MAX_QUOTE_BATCH ids de la pile servlet.
+     */
+    @PostMapping(path = "/final-price-tax-country",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponse> getFinalPricesTTC(@RequestBody Flux<Long> ids) {
+        return productService.getProductsTTC(ids)
+                .switchIfEmpty(Flux.error(() -> new ServerWebInputException("Product ids must not be empty")));
+    }
+}
@@ -0,0 +1,51 @@
+package albr.com.tax.controller;
+
+import albr.com.tax.engine.TaxRule;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.service.TaxRuleRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/tax-rules")
+public class TaxRuleController {
+
+    public record TaxRulesResponse(String version, Map<Country, TaxRule> rules) {
+
+        static TaxRulesResponse of(TaxRuleTable table) {
+            return new TaxRulesResponse(table.version(), table.definitions());
+        }
+    }
+
+    private final TaxRuleRegistry registry;
+
+    public TaxRuleController(TaxRuleRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping
+    public ResponseEntity<TaxRulesResponse> getRules() {
+        return ResponseEntity.ok(TaxRulesResponse.of(registry.current()));
+    }
+
+    /*
+     * Relit le fichier de règles et remplace la table en vigueur, sans redéploiement.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<TaxRulesResponse> reload() {
+        try {
+            return ResponseEntity.ok(TaxRulesResponse.of(registry.reload()));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+}
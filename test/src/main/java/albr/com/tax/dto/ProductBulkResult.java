@@ -0,0 +1,30 @@
+package albr.com.tax.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'un élément d'un import en masse (une ligne NDJSON par produit reçu).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductBulkResult {
+
+    public enum Status {
+        CREATED,   // persisté
+        REJECTED,  // invalide, non persisté
+        FAILED     // erreur technique sur le batch
+    }
+
+    // position de l'élément dans le flux reçu (0-based)
+    private long index;
+    private Status status;
+    private Long id;
+    private String error;
+}
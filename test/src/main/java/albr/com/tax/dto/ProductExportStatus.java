@@ -0,0 +1,37 @@
+package albr.com.tax.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Avancement d'un export du catalogue (POST /api/products/export, GET /api/products/export/{jobId}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductExportStatus {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED   // le fichier partiel est supprimé
+    }
+
+    private String jobId;
+    // relatif à app.export.directory
+    private String file;
+    private String format;
+    private boolean compressed;
+    private Status status;
+    private long rowsWritten;
+    private long bytesWritten;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private String error;
+}
@@ -0,0 +1,39 @@
+package albr.com.tax.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Avancement d'un import de fichier catalogue (POST /api/products/import, GET /api/products/import/{jobId}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportStatus {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED   // erreur de lecture du fichier ; les lots déjà persistés le restent
+    }
+
+    private String jobId;
+    private String file;
+    private Status status;
+    private long bytesTotal;
+    private long bytesRead;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    // lignes rejetées (NDJSON : offset, erreur, ligne), absent tant qu'aucune ligne n'est rejetée
+    private String rejectFile;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private String error;
+}
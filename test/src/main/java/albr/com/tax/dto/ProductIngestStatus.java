@@ -0,0 +1,29 @@
+package albr.com.tax.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Suivi d'une création asynchrone (POST /api/products/async, GET /api/products/ingest/{trackingId}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductIngestStatus {
+
+    public enum Status {
+        QUEUED,   // en file, pas encore persisté
+        CREATED,  // persisté, id renseigné
+        FAILED    // erreur technique sur le lot
+    }
+
+    private String trackingId;
+    private Status status;
+    private Long id;
+    private String error;
+}
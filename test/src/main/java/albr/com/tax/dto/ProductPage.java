@@ -0,0 +1,21 @@
+package albr.com.tax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page d'un listing paginé par clé : {@code nextAfterId} est à renvoyer tel quel pour la page suivante,
+ * il vaut {@code null} sur la dernière page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPage {
+    private List<ProductResponse> items;
+    private Long nextAfterId;
+}
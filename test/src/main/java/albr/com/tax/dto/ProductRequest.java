@@ -1,6 +1,10 @@
 package albr.com.tax.dto;
 
 import albr.com.tax.enumTax.Country;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,10 +18,17 @@ import java.math.BigDecimal;
 @Builder
 public class ProductRequest {
 
+    @NotBlank
     private String name;
 
+    // products.price est un numeric(38, 2) : au-delà de 2 décimales, le prix stocké serait arrondi
+    // alors que la cotation précalculée porterait sur le prix reçu
+    @NotNull
+    @PositiveOrZero
+    @Digits(integer = 36, fraction = 2)
     private BigDecimal price;
 
+    @NotNull
     private Country country;
 
 }
@@ -0,0 +1,166 @@
+package albr.com.tax.engine;
+
+import albr.com.tax.enumTax.Country;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Calcul des taxes par lots, sur des tableaux de prix en unités mineures ({@link FixedPoint#SCALE}) d'un même pays.
+ * Même résultat, au centime près, que {@link CompiledTaxRule#taxMinor(long)} appelé prix par prix.
+ * Sert l'export du catalogue et le recalcul des cotations précalculées.
+ * <p>
+ * {@link #best()} utilise le noyau de l'API Vector (module incubateur {@code jdk.incubator.vector}) quand
+ * l'application est construite et lancée avec le profil Maven {@code vector}, et que le processeur offre
+ * au moins deux voies de {@code long} ; sinon le calcul reste scalaire.
+ */
+public final class BatchTaxEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchTaxEvaluator.class);
+
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+    // compilé seulement avec le profil Maven "vector" (src/vector/java)
+    private static final String VECTOR_KERNEL = "albr.com.tax.engine.VectorKernel";
+
+    /**
+     * Noyau de calcul : {@code taxes[i] = taxe(prices[i])} pour {@code i} dans {@code [0, length)}.
+     */
+    interface Kernel {
+
+        void taxesMinor(CompiledTaxRule rule, long[] pricesMinor, long[] taxesMinor, int length);
+
+        // nombre de prix traités ensemble
+        int lanes();
+    }
+
+    private static final BatchTaxEvaluator SCALAR = new BatchTaxEvaluator(new ScalarKernel());
+    private static final BatchTaxEvaluator BEST = selectBest();
+
+    private final Kernel kernel;
+
+    BatchTaxEvaluator(Kernel kernel) {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Évaluateur vectoriel si possible, scalaire sinon ; choisi une fois par JVM.
+     */
+    public static BatchTaxEvaluator best() {
+        return BEST;
+    }
+
+    public static BatchTaxEvaluator scalar() {
+        return SCALAR;
+    }
+
+    public boolean vectorized() {
+        return kernel.lanes() > 1;
+    }
+
+    /**
+     * @param pricesMinor prix en unités mineures, tous du pays de {@code rule}
+     * @param taxesMinor  reçoit les taxes ; peut être le tableau des prix (calcul en place)
+     * @throws ArithmeticException si une taxe dépasse la capacité d'un long
+     */
+    public void taxesMinor(CompiledTaxRule rule, long[] pricesMinor, long[] taxesMinor, int length) {
+        Objects.requireNonNull(rule, "Tax rule must not be null");
+        Objects.checkFromIndexSize(0, length, pricesMinor.length);
+        Objects.checkFromIndexSize(0, length, taxesMinor.length);
+        kernel.taxesMinor(rule, pricesMinor, taxesMinor, length);
+    }
+
+    /**
+     * Lot d'un pays, avec la règle de ce pays dans {@code table}.
+     */
+    public void taxesMinor(TaxRuleTable table, Country country, long[] pricesMinor, long[] taxesMinor, int length) {
+        taxesMinor(table.rule(country), pricesMinor, taxesMinor, length);
+    }
+
+    /**
+     * Cotations d'un lot de prix d'un même pays, identiques à {@link CompiledTaxRule#quote(BigDecimal)} :
+     * montants rendus à l'échelle de chaque prix, calcul BigDecimal pour les montants hors capacité d'un long.
+     *
+     * @param prices non null, tous du pays de {@code rule}
+     * @param quotes reçoit les cotations
+     */
+    public void quotes(CompiledTaxRule rule, BigDecimal[] prices, TaxQuote[] quotes, int length) {
+        Objects.requireNonNull(rule, "Tax rule must not be null");
+        Objects.checkFromIndexSize(0, length, prices.length);
+        Objects.checkFromIndexSize(0, length, quotes.length);
+        int[] indexes = new int[length];
+        long[] pricesMinor = new long[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            try {
+                pricesMinor[count] = FixedPoint.toMinor(prices[i], rule.roundingMode());
+                indexes[count++] = i;
+            } catch (ArithmeticException overflow) {
+                quotes[i] = rule.quote(prices[i]);
+            }
+        }
+
+        long[] taxesMinor = new long[count];
+        try {
+            kernel.taxesMinor(rule, pricesMinor, taxesMinor, count);
+        } catch (ArithmeticException overflow) {
+            // rare : le lot repasse prix par prix, avec le chemin de secours de la règle
+            for (int j = 0; j < count; j++) {
+                quotes[indexes[j]] = rule.quote(prices[indexes[j]]);
+            }
+            return;
+        }
+        for (int j = 0; j < count; j++) {
+            BigDecimal price = prices[indexes[j]];
+            try {
+                quotes[indexes[j]] = new TaxQuote(FixedPoint.toDecimal(taxesMinor[j], price.scale()),
+                        FixedPoint.toDecimal(Math.addExact(pricesMinor[j], taxesMinor[j]), price.scale()));
+            } catch (ArithmeticException overflow) {
+                quotes[indexes[j]] = rule.quote(price);
+            }
+        }
+    }
+
+    private static BatchTaxEvaluator selectBest() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("Module {} not enabled, batch tax evaluation stays scalar", VECTOR_MODULE);
+            return SCALAR;
+        }
+        try {
+            // chargée seulement ici : sans le module, la classe n'est jamais résolue
+            Kernel vector = Class.forName(VECTOR_KERNEL).asSubclass(Kernel.class)
+                    .getDeclaredConstructor().newInstance();
+            if (vector.lanes() < 2) {
+                log.info("No SIMD lanes for long values, batch tax evaluation stays scalar");
+                return SCALAR;
+            }
+            log.info("Batch tax evaluation vectorized on {} long lanes", vector.lanes());
+            return new BatchTaxEvaluator(vector);
+        } catch (ClassNotFoundException ex) {
+            log.info("Vector kernel not built (Maven profile vector), batch tax evaluation stays scalar");
+            return SCALAR;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException ex) {
+            log.warn("Vector API unavailable, batch tax evaluation stays scalar", ex);
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Prix par prix, par {@link CompiledTaxRule#taxMinor(long)}.
+     */
+    static final class ScalarKernel implements Kernel {
+
+        @Override
+        public void taxesMinor(CompiledTaxRule rule, long[] pricesMinor, long[] taxesMinor, int length) {
+            for (int i = 0; i < length; i++) {
+                taxesMinor[i] = rule.taxMinor(pricesMinor[i]);
+            }
+        }
+
+        @Override
+        public int lanes() {
+            return 1;
+        }
+    }
+}
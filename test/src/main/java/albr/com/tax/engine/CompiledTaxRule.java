@@ -0,0 +1,140 @@
+package albr.com.tax.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Règle de taxe précompilée en unités mineures ({@link FixedPoint#SCALE} décimales).
+ * Le calcul de la taxe et du TTC se fait en arithmétique {@code long} ;
+ * seuls l'entrée et le résultat passent par BigDecimal.
+ * Si un montant dépasse la capacité d'un long, le calcul bascule sur BigDecimal
+ * avec le même arrondi.
+ */
+public final class CompiledTaxRule {
+
+    private final TaxRule definition;
+
+    private final long rateUnscaled;
+    private final long rateDivisor;
+    private final long fixedFeeMinor;
+    private final boolean hasThreshold;
+    private final long thresholdMinor;
+    private final long thresholdFeeMinor;
+    private final RoundingMode roundingMode;
+
+    CompiledTaxRule(TaxRule definition) {
+        this.definition = definition;
+        this.roundingMode = definition.roundingMode();
+
+        // taux : entier non mis à l'échelle + diviseur 10^scale (0.07864 -> 7864 / 100000)
+        BigDecimal rate = definition.rate().stripTrailingZeros();
+        if (rate.scale() < 0) {
+            rate = rate.setScale(0);
+        }
+        this.rateUnscaled = rate.unscaledValue().longValueExact();
+        this.rateDivisor = FixedPoint.powerOfTen(rate.scale());
+
+        this.fixedFeeMinor = FixedPoint.toMinor(definition.fixedFee(), roundingMode);
+        this.hasThreshold = definition.threshold() != null;
+        this.thresholdMinor = hasThreshold ? FixedPoint.toMinor(definition.threshold(), roundingMode) : 0L;
+        this.thresholdFeeMinor = FixedPoint.toMinor(definition.thresholdFee(), roundingMode);
+    }
+
+    public TaxRule definition() {
+        return definition;
+    }
+
+    // paramètres compilés, lus par les noyaux de BatchTaxEvaluator
+
+    long rateUnscaled() {
+        return rateUnscaled;
+    }
+
+    long rateDivisor() {
+        return rateDivisor;
+    }
+
+    long fixedFeeMinor() {
+        return fixedFeeMinor;
+    }
+
+    boolean hasThreshold() {
+        return hasThreshold;
+    }
+
+    long thresholdMinor() {
+        return thresholdMinor;
+    }
+
+    long thresholdFeeMinor() {
+        return thresholdFeeMinor;
+    }
+
+    RoundingMode roundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * @throws ArithmeticException en cas de dépassement de capacité
+     */
+    public long taxMinor(long priceMinor) {
+        long tax = FixedPoint.divide(Math.multiplyExact(priceMinor, rateUnscaled), rateDivisor, roundingMode);
+        tax = Math.addExact(tax, fixedFeeMinor);
+        if (hasThreshold && priceMinor > thresholdMinor) {
+            tax = Math.addExact(tax, thresholdFeeMinor);
+        }
+        return tax;
+    }
+
+    /**
+     * @throws ArithmeticException en cas de dépassement de capacité
+     */
+    public long finalPriceMinor(long priceMinor) {
+        return Math.addExact(priceMinor, taxMinor(priceMinor));
+    }
+
+    public BigDecimal tax(BigDecimal price) {
+        requireNonNull(price, "Price must not be null");
+        try {
+            return FixedPoint.toDecimal(taxMinor(FixedPoint.toMinor(price, roundingMode)), price.scale());
+        } catch (ArithmeticException overflow) {
+            return slowTax(price);
+        }
+    }
+
+    public BigDecimal finalPrice(BigDecimal price) {
+        requireNonNull(price, "Price must not be null");
+        try {
+            return FixedPoint.toDecimal(finalPriceMinor(FixedPoint.toMinor(price, roundingMode)), price.scale());
+        } catch (ArithmeticException overflow) {
+            return FixedPoint.trim(price.add(slowTax(price)), price.scale());
+        }
+    }
+
+    public TaxQuote quote(BigDecimal price) {
+        requireNonNull(price, "Price must not be null");
+        try {
+            long priceMinor = FixedPoint.toMinor(price, roundingMode);
+            long taxMinor = taxMinor(priceMinor);
+            long finalMinor = Math.addExact(priceMinor, taxMinor);
+            return new TaxQuote(FixedPoint.toDecimal(taxMinor, price.scale()),
+                    FixedPoint.toDecimal(finalMinor, price.scale()));
+        } catch (ArithmeticException overflow) {
+            BigDecimal tax = slowTax(price);
+            return new TaxQuote(tax, FixedPoint.trim(price.add(tax), price.scale()));
+        }
+    }
+
+    // chemin de secours pour les montants hors capacité d'un long, présenté comme le chemin rapide
+    private BigDecimal slowTax(BigDecimal price) {
+        BigDecimal scaledPrice = price.scale() > FixedPoint.SCALE ? price.setScale(FixedPoint.SCALE, roundingMode) : price;
+        BigDecimal tax = scaledPrice.multiply(definition.rate()).setScale(FixedPoint.SCALE, roundingMode)
+                .add(definition.fixedFee());
+        if (definition.threshold() != null && scaledPrice.compareTo(definition.threshold()) > 0) {
+            tax = tax.add(definition.thresholdFee());
+        }
+        return FixedPoint.trim(tax, price.scale());
+    }
+}
@@ -0,0 +1,94 @@
+package albr.com.tax.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Arithmétique en unités mineures : un montant est un {@code long} à l'échelle fixe {@link #SCALE}
+ * (1.5 est représenté par 150_000_000).
+ * Huit décimales rendent exacts les calculs des taux actuels sur des prix au centime.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 8;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        long p = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = p;
+            p *= 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    public static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * @throws ArithmeticException si le montant ne tient pas dans un long à l'échelle {@link #SCALE}
+     */
+    public static long toMinor(BigDecimal amount, RoundingMode roundingMode) {
+        BigDecimal scaled = amount.scale() > SCALE ? amount.setScale(SCALE, roundingMode) : amount;
+        // échelle <= SCALE : le résultat est entier, longValueExact ne passe pas par un BigInteger
+        return scaled.movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * Convertit un montant en unités mineures en BigDecimal, sans zéros inutiles
+     * en dessous de {@code minScale} (120.00 et non 120.00000000).
+     */
+    public static BigDecimal toDecimal(long minor, int minScale) {
+        int scale = SCALE;
+        int floor = Math.clamp(minScale, 0, SCALE);
+        while (scale > floor && minor % 10 == 0) {
+            minor /= 10;
+            scale--;
+        }
+        return BigDecimal.valueOf(minor, scale);
+    }
+
+    /**
+     * Même présentation que {@link #toDecimal(long, int)} pour un montant déjà en BigDecimal
+     * (ex: relu d'une colonne numeric à {@link #SCALE} décimales).
+     */
+    public static BigDecimal trim(BigDecimal amount, int minScale) {
+        BigDecimal stripped = amount.stripTrailingZeros();
+        int floor = Math.clamp(minScale, 0, SCALE);
+        return stripped.scale() < floor ? stripped.setScale(floor) : stripped;
+    }
+
+    /**
+     * Division entière arrondie selon {@code roundingMode}, sans passer par BigDecimal.
+     *
+     * @param divisor strictement positif
+     */
+    public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = dividend < 0 ? -1 : 1;
+        long absRemainder = Math.abs(remainder);
+        long rest = divisor - absRemainder; // distance au multiple supérieur, évite 2 * remainder
+
+        boolean awayFromZero = switch (roundingMode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> absRemainder >= rest;
+            case HALF_DOWN -> absRemainder > rest;
+            case HALF_EVEN -> absRemainder > rest || (absRemainder == rest && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
@@ -0,0 +1,9 @@
+package albr.com.tax.engine;
+
+import java.math.BigDecimal;
+
+/**
+ * Taxe et prix TTC calculés en une seule passe.
+ */
+public record TaxQuote(BigDecimal tax, BigDecimal finalPrice) {
+}
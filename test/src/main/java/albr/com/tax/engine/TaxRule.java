@@ -0,0 +1,34 @@
+package albr.com.tax.engine;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Définition d'une règle de taxe :
+ * {@code tax = price * rate + fixedFee (+ thresholdFee si price > threshold)}.
+ *
+ * @param threshold    {@code null} si la règle n'a pas de seuil
+ * @param roundingMode arrondi appliqué quand le résultat dépasse {@link FixedPoint#SCALE} décimales
+ */
+@Builder
+public record TaxRule(BigDecimal rate,
+                      BigDecimal fixedFee,
+                      BigDecimal threshold,
+                      BigDecimal thresholdFee,
+                      RoundingMode roundingMode) {
+
+    public TaxRule {
+        requireNonNull(rate, "Tax rate must not be null");
+        fixedFee = fixedFee != null ? fixedFee : BigDecimal.ZERO;
+        thresholdFee = thresholdFee != null ? thresholdFee : BigDecimal.ZERO;
+        roundingMode = roundingMode != null ? roundingMode : RoundingMode.HALF_EVEN;
+    }
+
+    public CompiledTaxRule compile() {
+        return new CompiledTaxRule(this);
+    }
+}
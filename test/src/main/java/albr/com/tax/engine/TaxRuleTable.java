@@ -0,0 +1,162 @@
+package albr.com.tax.engine;
+
+import albr.com.tax.enumTax.Country;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Table immuable des règles de taxe, une règle compilée par {@link Country}
+ * rangée à l'indice {@code country.ordinal()}.
+ * Une table est toujours complète : chaque pays a une règle.
+ * <p>
+ * Format JSON :
+ * <pre>
+ * { "version": "2025.1",
+ *   "rules": { "FRANCE": { "rate": "0.20", "roundingMode": "HALF_EVEN" }, ... } }
+ * </pre>
+ */
+public final class TaxRuleTable {
+
+    public static final String DEFAULT_RESOURCE = "tax-rules.json";
+
+    // taille de products.tax_rules_version, écrite avec chaque cotation précalculée
+    public static final int MAX_VERSION_LENGTH = 32;
+
+    // le diviseur du taux compilé est une puissance de 10 qui doit tenir dans un long
+    private static final int MAX_RATE_SCALE = 18;
+
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final String version;
+    private final CompiledTaxRule[] rules;
+
+    private TaxRuleTable(String version, CompiledTaxRule[] rules) {
+        this.version = version;
+        this.rules = rules;
+    }
+
+    /**
+     * @throws IllegalArgumentException si la version est absente ou trop longue, si un pays n'a pas de règle
+     *                                  ou si une règle est négative ou hors capacité
+     */
+    public static TaxRuleTable of(String version, Map<Country, TaxRule> definitions) {
+        if (version == null || version.isBlank()) {
+            throw new IllegalArgumentException("Tax rules version must not be blank");
+        }
+        if (version.length() > MAX_VERSION_LENGTH) {
+            throw new IllegalArgumentException("Tax rules version must not exceed " + MAX_VERSION_LENGTH
+                    + " characters: " + version);
+        }
+        if (definitions == null) {
+            throw new IllegalArgumentException("Tax rules must not be null");
+        }
+
+        Country[] countries = Country.values();
+        CompiledTaxRule[] rules = new CompiledTaxRule[countries.length];
+        List<Country> missing = new ArrayList<>();
+        for (Country country : countries) {
+            TaxRule definition = definitions.get(country);
+            if (definition == null) {
+                missing.add(country);
+            } else {
+                rules[country.ordinal()] = compile(country, definition);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("No tax rule for country=" + missing + " in version " + version);
+        }
+        return new TaxRuleTable(version, rules);
+    }
+
+    private static CompiledTaxRule compile(Country country, TaxRule definition) {
+        requireNonNegative(country, "rate", definition.rate());
+        requireNonNegative(country, "fixedFee", definition.fixedFee());
+        requireNonNegative(country, "threshold", definition.threshold());
+        requireNonNegative(country, "thresholdFee", definition.thresholdFee());
+        if (definition.rate().stripTrailingZeros().scale() > MAX_RATE_SCALE) {
+            throw new IllegalArgumentException("Tax rate of country=" + country + " has more than "
+                    + MAX_RATE_SCALE + " decimals: " + definition.rate());
+        }
+        try {
+            return definition.compile();
+        } catch (ArithmeticException outOfRange) {
+            throw new IllegalArgumentException("Tax rule of country=" + country + " is out of range: "
+                    + outOfRange.getMessage(), outOfRange);
+        }
+    }
+
+    private static void requireNonNegative(Country country, String field, BigDecimal value) {
+        if (value != null && value.signum() < 0) {
+            throw new IllegalArgumentException("Tax rule " + field + " of country=" + country
+                    + " must not be negative: " + value);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException si le contenu est invalide ou incomplet
+     */
+    public static TaxRuleTable read(InputStream json) {
+        TaxRuleFile file;
+        try {
+            file = JSON.readValue(json, TaxRuleFile.class);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid tax rules: " + ex.getMessage(), ex);
+        }
+        if (file == null || file.rules() == null) {
+            throw new IllegalArgumentException("Invalid tax rules: missing \"rules\"");
+        }
+        return of(file.version(), file.rules());
+    }
+
+    /**
+     * Règles livrées avec l'application (classpath:tax-rules.json).
+     */
+    public static TaxRuleTable defaults() {
+        return Defaults.TABLE;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public CompiledTaxRule rule(Country country) {
+        return rules[country.ordinal()];
+    }
+
+    public Map<Country, TaxRule> definitions() {
+        Map<Country, TaxRule> definitions = new EnumMap<>(Country.class);
+        for (Country country : Country.values()) {
+            definitions.put(country, rules[country.ordinal()].definition());
+        }
+        return Collections.unmodifiableMap(definitions);
+    }
+
+    private record TaxRuleFile(String version, Map<Country, TaxRule> rules) {
+    }
+
+    // chargement paresseux, une seule fois
+    private static final class Defaults {
+
+        static final TaxRuleTable TABLE = load();
+
+        private static TaxRuleTable load() {
+            try (InputStream in = TaxRuleTable.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing classpath resource " + DEFAULT_RESOURCE);
+                }
+                return read(in);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package albr.com.tax.engine;
+
+/**
+ * Publié quand les règles de taxe en vigueur changent :
+ * tout ce qui a été calculé avec les anciennes règles doit être oublié.
+ *
+ * @param version version des règles désormais en vigueur
+ */
+public record TaxRulesChangedEvent(String version) {
+}
@@ -0,0 +1,15 @@
+package albr.com.tax.exception;
+
+/**
+ * Une requête avec la même Idempotency-Key est toujours en cours : le client réessaiera plus tard.
+ */
+public class RequestInProgressException extends RuntimeException {
+
+    public RequestInProgressException(String message) {
+        super(message);
+    }
+
+    public RequestInProgressException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
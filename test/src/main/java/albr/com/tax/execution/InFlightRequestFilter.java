@@ -0,0 +1,100 @@
+package albr.com.tax.execution;
+
+import albr.com.tax.config.ExecutionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compte les requêtes en cours par type de thread (virtuel / plateforme)
+ * et, si {@code app.execution.max-in-flight} est positif, limite leur nombre.
+ * Métriques : app.requests.inflight{thread=virtual|platform}, app.requests.rejected.
+ * Les endpoints Actuator ne sont ni comptés ni limités.
+ * Pile servlet seulement : avec le profil "reactive", aucune requête n'occupe de thread pendant ses I/O.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class InFlightRequestFilter extends OncePerRequestFilter {
+
+    private final AtomicInteger virtualInFlight = new AtomicInteger();
+    private final AtomicInteger platformInFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    // null si pas de limite
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public InFlightRequestFilter(ExecutionProperties properties, MeterRegistry meterRegistry) {
+        this.permits = properties.maxInFlight() > 0 ? new Semaphore(properties.maxInFlight(), true) : null;
+        this.acquireTimeoutNanos = properties.acquireTimeout().toNanos();
+
+        Gauge.builder("app.requests.inflight", virtualInFlight, AtomicInteger::get)
+                .tag("thread", "virtual")
+                .description("HTTP requests in progress, by thread kind")
+                .register(meterRegistry);
+        Gauge.builder("app.requests.inflight", platformInFlight, AtomicInteger::get)
+                .tag("thread", "platform")
+                .description("HTTP requests in progress, by thread kind")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.requests.rejected")
+                .description("HTTP requests rejected because max-in-flight was reached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (!acquire()) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many requests in flight");
+            return;
+        }
+
+        AtomicInteger inFlight = Thread.currentThread().isVirtual() ? virtualInFlight : platformInFlight;
+        inFlight.incrementAndGet();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        if (permits == null) {
+            return true;
+        }
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package albr.com.tax.execution;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Expose l'état du scheduler des threads virtuels (threads porteurs) :
+ * jvm.threads.virtual.carrier.{parallelism,pool.size}, jvm.threads.virtual.{mounted,queued},
+ * ainsi que app.execution.virtual (1 si les requêtes sont servies par des threads virtuels).
+ * Lu via le MBean jdk.management:type=VirtualThreadScheduler (JDK 24+), ignoré s'il est absent.
+ */
+@Component
+public class VirtualThreadSchedulerMetrics implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadSchedulerMetrics.class);
+
+    private static final ObjectName SCHEDULER = objectName("jdk.management:type=VirtualThreadScheduler");
+
+    private final boolean virtualThreadsEnabled;
+
+    public VirtualThreadSchedulerMetrics(Environment environment) {
+        this.virtualThreadsEnabled = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.execution.virtual", () -> virtualThreadsEnabled ? 1 : 0)
+                .description("1 when requests run on virtual threads, 0 on the platform thread pool")
+                .register(registry);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (!server.isRegistered(SCHEDULER)) {
+            log.debug("{} not available on this JVM, carrier thread metrics disabled", SCHEDULER);
+            return;
+        }
+
+        gauge(registry, server, SCHEDULER, "jvm.threads.virtual.carrier.parallelism", "Parallelism",
+                "Target number of carrier threads");
+        gauge(registry, server, SCHEDULER, "jvm.threads.virtual.carrier.pool.size", "PoolSize",
+                "Carrier threads started by the scheduler");
+        gauge(registry, server, SCHEDULER, "jvm.threads.virtual.mounted", "MountedVirtualThreadCount",
+                "Virtual threads currently mounted on a carrier");
+        gauge(registry, server, SCHEDULER, "jvm.threads.virtual.queued", "QueuedVirtualThreadCount",
+                "Virtual threads waiting for a carrier");
+    }
+
+    private static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (MalformedObjectNameException ex) {
+            throw new IllegalArgumentException("Invalid MBean name " + name, ex);
+        }
+    }
+
+    private static void gauge(MeterRegistry registry, MBeanServer server, ObjectName scheduler,
+                              String name, String attribute, String description) {
+        Gauge.builder(name, () -> {
+                    try {
+                        return ((Number) server.getAttribute(scheduler, attribute)).doubleValue();
+                    } catch (Exception ex) {
+                        return Double.NaN;
+                    }
+                })
+                .description(description)
+                .register(registry);
+    }
+}
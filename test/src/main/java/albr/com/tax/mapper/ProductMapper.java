@@ -3,6 +3,7 @@ package albr.com.tax.mapper;
 import albr.com.tax.dto.ProductRequest;
 import albr.com.tax.dto.ProductResponse;
 import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
@@ -12,7 +13,11 @@ public interface ProductMapper {
 
     // Request -> Entity
     @Mappings({
-            @Mapping(target = "id", ignore = true)  // calculé ailleurs
+            @Mapping(target = "id", ignore = true),  // calculé ailleurs
+            @Mapping(target = "taxAmount", ignore = true),
+            @Mapping(target = "finalPrice", ignore = true),
+            @Mapping(target = "taxRulesVersion", ignore = true),
+            @Mapping(target = "version", ignore = true)  // géré par JPA (@Version)
     })
     Product toEntity(ProductRequest request);
 
@@ -23,4 +28,12 @@ public interface ProductMapper {
             @Mapping(target = "finalPrice", ignore = true)  // calculé ailleurs
     })
     ProductResponse toResponse(Product product);
+
+    // Projection -> Response (lectures sans entité)
+    @Mappings({
+            @Mapping(target = "basePrice", source = "price"),
+            @Mapping(target = "currency", expression = "java(summary.getCountry() != null ? summary.getCountry().getCurrency() : null)"),
+            @Mapping(target = "finalPrice", ignore = true)  // calculé ailleurs
+    })
+    ProductResponse summaryToResponse(ProductSummary summary);
 }
@@ -0,0 +1,84 @@
+package albr.com.tax.metrics;
+
+import albr.com.tax.enumTax.Country;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps passé dans chaque étape du calcul de prix TTC, par pays :
+ * app.pricing.stage{stage=load|resolve|compute|map|total, country} et app.pricing.errors{stage, exception}.
+ * Les timers sont créés au démarrage et rangés dans un tableau [étape][pays] : un enregistrement
+ * ne fait ni recherche par tags ni allocation. Percentiles et histogrammes se règlent par configuration
+ * (management.metrics.distribution.*.[app.pricing]).
+ */
+@Component
+public class PricingMetrics {
+
+    public static final String STAGE_TIMER = "app.pricing.stage";
+    public static final String ERRORS = "app.pricing.errors";
+
+    public enum Stage {
+        LOAD,     // lecture du produit (cache puis base)
+        RESOLVE,  // résolution de la stratégie du pays
+        COMPUTE,  // calcul de la taxe (cache de cotations puis stratégie)
+        MAP,      // conversion en ProductResponse
+        TOTAL;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final Country[] COUNTRIES = Country.values();
+    // colonne des produits sans pays (ou pas encore chargés)
+    private static final int NO_COUNTRY = COUNTRIES.length;
+
+    private final MeterRegistry registry;
+    private final Timer[][] timers = new Timer[STAGES.length][COUNTRIES.length + 1];
+
+    public PricingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : STAGES) {
+            for (Country country : COUNTRIES) {
+                timers[stage.ordinal()][country.ordinal()] = timer(stage, country.name());
+            }
+            timers[stage.ordinal()][NO_COUNTRY] = timer(stage, "none");
+        }
+    }
+
+    private Timer timer(Stage stage, String country) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Time spent in each stage of a price quote")
+                .tag("stage", stage.tag)
+                .tag("country", country)
+                .register(registry);
+    }
+
+    /**
+     * Enregistre une cotation réussie à partir des instants {@link System#nanoTime()} pris entre les étapes.
+     */
+    public void recordQuote(Country country, long start, long loaded, long resolved, long computed, long mapped) {
+        int column = country != null ? country.ordinal() : NO_COUNTRY;
+        timers[Stage.LOAD.ordinal()][column].record(loaded - start, TimeUnit.NANOSECONDS);
+        timers[Stage.RESOLVE.ordinal()][column].record(resolved - loaded, TimeUnit.NANOSECONDS);
+        timers[Stage.COMPUTE.ordinal()][column].record(computed - resolved, TimeUnit.NANOSECONDS);
+        timers[Stage.MAP.ordinal()][column].record(mapped - computed, TimeUnit.NANOSECONDS);
+        timers[Stage.TOTAL.ordinal()][column].record(mapped - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Compte un échec dans l'étape {@code stage} (produit introuvable, pays sans stratégie, erreur technique...).
+     */
+    public void recordError(Stage stage, Throwable error) {
+        Counter.builder(ERRORS)
+                .description("Price quotes that failed, by stage and exception type")
+                .tag("stage", stage.tag)
+                .tag("exception", error.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+}
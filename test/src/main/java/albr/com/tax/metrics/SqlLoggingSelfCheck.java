@@ -0,0 +1,76 @@
+package albr.com.tax.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vérifie au démarrage que les traces SQL de niveau debug (show-sql, format_sql, logger org.hibernate.SQL
+ * en debug, valeurs bindées en trace) ne sont pas actives : elles formatent et journalisent chaque requête
+ * sur le chemin des appels et coûtent plus que la requête elle-même sous charge.
+ * Avertit hors profil "dev" et publie app.sql.logging.verbose (1 si une trace est active).
+ */
+@Component
+public class SqlLoggingSelfCheck implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlLoggingSelfCheck.class);
+
+    static final String SQL_LOGGER = "org.hibernate.SQL";
+    static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    private final Environment environment;
+
+    public SqlLoggingSelfCheck(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> active = activeSqlLogging();
+        if (active.isEmpty()) {
+            return;
+        }
+        if (environment.matchesProfiles("dev")) {
+            log.info("SQL logging enabled by the dev profile: {}", active);
+        } else {
+            log.warn("Debug-grade SQL logging is active ({}): every statement is formatted and logged on the request "
+                    + "path, which costs more than the query itself under load. Use the dev profile for SQL traces.", active);
+        }
+    }
+
+    /**
+     * Réglages de trace SQL actifs, vide si aucun.
+     */
+    public List<String> activeSqlLogging() {
+        List<String> active = new ArrayList<>();
+        if (environment.getProperty("spring.jpa.show-sql", Boolean.class, false)) {
+            active.add("spring.jpa.show-sql");
+        }
+        if (environment.getProperty("spring.jpa.properties.hibernate.format_sql", Boolean.class, false)) {
+            active.add("hibernate.format_sql");
+        }
+        if (LoggerFactory.getLogger(SQL_LOGGER).isDebugEnabled()) {
+            active.add(SQL_LOGGER + "=debug");
+        }
+        if (LoggerFactory.getLogger(BIND_LOGGER).isTraceEnabled()) {
+            active.add(BIND_LOGGER + "=trace");
+        }
+        return active;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.sql.logging.verbose", this, check -> check.activeSqlLogging().isEmpty() ? 0 : 1)
+                .description("1 when debug-grade SQL logging is active")
+                .register(registry);
+    }
+}
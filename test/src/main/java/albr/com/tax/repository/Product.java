@@ -1,18 +1,27 @@
 package albr.com.tax.repository;
 
+import albr.com.tax.engine.FixedPoint;
 import albr.com.tax.enumTax.Country;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // filtre par pays + pagination par clé sur l'id
+        @Index(name = "idx_products_country", columnList = "country, id"),
+        @Index(name = "idx_products_name", columnList = "name")
+})
 @Data
-public class Product {
+public class Product implements ProductView {
 
+    // séquence "pooled" : les ids sont réservés par blocs, ce qui permet à Hibernate de batcher les INSERT
+    // (IDENTITY force un aller-retour par ligne pour récupérer la clé générée)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -22,6 +31,22 @@ public class Product {
     @Enumerated(EnumType.STRING)
     private Country country;
 
+    // cotation précalculée à l'écriture (app.pricing.precompute) et version des règles qui l'a produite
+    @Column(name = "tax_amount", precision = 38, scale = FixedPoint.SCALE)
+    private BigDecimal taxAmount;
+
+    @Column(name = "final_price", precision = 38, scale = FixedPoint.SCALE)
+    private BigDecimal finalPrice;
+
+    @Column(name = "tax_rules_version", length = 32)
+    private String taxRulesVersion;
+
+    // verrou optimiste : incrémentée par Hibernate à chaque UPDATE (recalcul des cotations compris)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     public Product() {
     }
 
@@ -1,6 +1,65 @@
 package albr.com.tax.repository;
 
+import albr.com.tax.enumTax.Country;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    String SUMMARY = "select new albr.com.tax.repository.ProductSummary("
+            + "p.id, p.name, p.price, p.country, p.taxAmount, p.taxRulesVersion, p.version) from Product p";
+
+    // lectures par projection : pas d'entité hydratée ni gérée, transaction en lecture seule (pas de flush)
+    @Transactional(readOnly = true)
+    @Query(SUMMARY + " where p.id = :id")
+    Optional<ProductSummary> findSummaryById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY + " where p.id in :ids")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY + " where p.id > :afterId order by p.id")
+    List<ProductSummary> findSummariesAfter(@Param("afterId") long afterId, Limit limit);
+
+    // version seule (ETag) : une colonne lue par la clé primaire, sans charger le produit
+    @Transactional(readOnly = true)
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // pagination par clé (keyset) : "id > dernier id vu", sans OFFSET, coût constant quelle que soit la page
+    List<Product> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    List<Product> findByCountryAndIdGreaterThanOrderByIdAsc(Country country, long afterId, Limit limit);
+
+    // curseur JDBC lu par blocs de STREAM_FETCH_SIZE lignes ; à consommer dans une transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamByIdGreaterThanOrderByIdAsc(long afterId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamByCountryAndIdGreaterThanOrderByIdAsc(Country country, long afterId);
+
+    // produits dont la cotation précalculée n'a pas été produite par la version de règles donnée
+    @Query("select p from Product p where p.id > :afterId"
+            + " and (p.taxRulesVersion is null or p.taxRulesVersion <> :version) order by p.id")
+    List<Product> findStalePrices(@Param("afterId") long afterId, @Param("version") String version, Limit limit);
 }
@@ -0,0 +1,22 @@
+package albr.com.tax.repository;
+
+import albr.com.tax.enumTax.Country;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection en lecture seule d'un produit (expression constructeur JPQL) :
+ * aucune entité gérée, donc ni contexte de persistance, ni copie pour le dirty checking, ni flush.
+ * Immuable, elle peut être partagée par le cache produits.
+ */
+@Value
+public class ProductSummary implements ProductView {
+    Long id;
+    String name;
+    BigDecimal price;
+    Country country;
+    BigDecimal taxAmount;
+    String taxRulesVersion;
+    long version;
+}
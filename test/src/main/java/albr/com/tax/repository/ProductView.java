@@ -0,0 +1,27 @@
+package albr.com.tax.repository;
+
+import albr.com.tax.enumTax.Country;
+
+import java.math.BigDecimal;
+
+/**
+ * Données d'un produit nécessaires à la lecture et au calcul de prix,
+ * fournies aussi bien par l'entité {@link Product} que par la projection {@link ProductSummary}.
+ */
+public interface ProductView {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Country getCountry();
+
+    BigDecimal getTaxAmount();
+
+    String getTaxRulesVersion();
+
+    // incrémentée à chaque modification de la ligne (verrou optimiste), sert d'ETag
+    long getVersion();
+}
@@ -0,0 +1,215 @@
+package albr.com.tax.repository;
+
+import albr.com.tax.config.ReactiveProperties;
+import albr.com.tax.enumTax.Country;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Accès R2DBC à la table products pour la pile réactive (profil "reactive") : mêmes lignes et mêmes projections
+ * que {@link ProductRepository}, sans thread bloqué pendant les requêtes.
+ * <p>
+ * Le pool de connexions appartient à ce repository et n'est pas exposé comme bean : un {@code ConnectionFactory}
+ * dans le contexte désactiverait la DataSource JDBC dont JPA a toujours besoin (import, export, recalcul des prix).
+ * Les ids sont pris dans products_seq par blocs de {@link #ALLOCATION_SIZE}, comme l'optimiseur "pooled"
+ * d'Hibernate : les deux allocateurs ne distribuent jamais le même id.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductRepository {
+
+    // doit rester égal à l'allocationSize de Product et à l'increment de products_seq
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final String SUMMARY =
+            "select id, name, price, country, tax_amount, tax_rules_version, version from products";
+    // r2dbc-h2 lie les String comme CLOB, que H2 ne convertit pas vers l'ENUM country : cast explicite en varchar
+    private static final String INSERT = "insert into products"
+            + " (id, name, price, country, tax_amount, final_price, tax_rules_version, version)"
+            + " values ($1, $2, $3, cast($4 as varchar), $5, $6, $7, $8)";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final TransactionalOperator transactions;
+    private final AtomicReference<IdBlock> ids = new AtomicReference<>(new IdBlock(1, 0));
+
+    public ReactiveProductRepository(ReactiveProperties properties) {
+        H2ConnectionFactory connections = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(properties.url())
+                .username(properties.username())
+                .password(properties.password())
+                .build());
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connections)
+                .name("tax-r2dbc")
+                .initialSize(Math.min(4, properties.poolSize()))
+                .maxSize(properties.poolSize())
+                .build());
+        this.client = DatabaseClient.create(pool);
+        this.transactions = TransactionalOperator.create(new R2dbcTransactionManager(pool));
+    }
+
+    public Mono<ProductSummary> findSummaryById(Long id) {
+        return client.sql(SUMMARY + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::summary)
+                .one();
+    }
+
+    public Flux<ProductSummary> findSummariesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return client.sql(SUMMARY + " where id in (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveProductRepository::summary)
+                .all();
+    }
+
+    /**
+     * Pagination par clé, comme {@link ProductRepository#findSummariesAfter}.
+     *
+     * @param country filtre optionnel
+     */
+    public Flux<ProductSummary> findSummariesAfter(long afterId, Country country, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = country == null
+                ? client.sql(SUMMARY + " where id > :afterId order by id limit :limit")
+                : client.sql(SUMMARY + " where country = cast(:country as varchar) and id > :afterId"
+                        + " order by id limit :limit")
+                        .bind("country", country.name());
+        return spec.bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveProductRepository::summary)
+                .all();
+    }
+
+    public Mono<Long> findVersionById(Long id) {
+        return client.sql("select version from products where id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Product> insert(Product product) {
+        return insertAll(List.of(product)).next();
+    }
+
+    /**
+     * Insère les produits en une transaction (un INSERT, un jeu de paramètres par produit)
+     * après leur avoir attribué un id.
+     *
+     * @return les mêmes produits, dans le même ordre
+     */
+    public Flux<Product> insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return Flux.empty();
+        }
+        Mono<Void> inserted = Flux.fromIterable(products)
+                .concatMap(product -> nextId().doOnNext(product::setId))
+                .then(client.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(INSERT);
+                    for (int i = 0; i < products.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        bind(statement, products.get(i));
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                }).then());
+        return transactions.transactional(inserted).thenMany(Flux.fromIterable(products));
+    }
+
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = ids.get().next();
+            if (id > 0) {
+                return Mono.just(id);
+            }
+            // bloc épuisé : plusieurs réservations simultanées donnent des blocs distincts,
+            // le dernier publié sert les suivants (les ids restants des autres sont perdus, jamais réutilisés)
+            return client.sql("select next value for products_seq")
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(hi -> {
+                        IdBlock block = new IdBlock(Math.max(1, hi - ALLOCATION_SIZE + 1), hi);
+                        long first = block.next();
+                        ids.set(block);
+                        return first;
+                    });
+        });
+    }
+
+    private static void bind(Statement statement, Product product) {
+        statement.bind(0, product.getId());
+        bindNullable(statement, 1, product.getName(), String.class);
+        bindNullable(statement, 2, product.getPrice(), BigDecimal.class);
+        bindNullable(statement, 3, product.getCountry() != null ? product.getCountry().name() : null, String.class);
+        bindNullable(statement, 4, product.getTaxAmount(), BigDecimal.class);
+        bindNullable(statement, 5, product.getFinalPrice(), BigDecimal.class);
+        bindNullable(statement, 6, product.getTaxRulesVersion(), String.class);
+        statement.bind(7, product.getVersion());
+    }
+
+    private static <T> void bindNullable(Statement statement, int index, T value, Class<T> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    private static ProductSummary summary(Readable row) {
+        String country = row.get("country", String.class);
+        return new ProductSummary(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("price", BigDecimal.class),
+                country != null ? Country.valueOf(country) : null,
+                row.get("tax_amount", BigDecimal.class),
+                row.get("tax_rules_version", String.class),
+                row.get("version", Long.class));
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    /**
+     * Ids {@code [next, last]} réservés dans la séquence.
+     */
+    private static final class IdBlock {
+
+        private final AtomicLong next;
+        private final long last;
+
+        private IdBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        // 0 si le bloc est épuisé
+        long next() {
+            long id = next.getAndIncrement();
+            return id <= last ? id : 0;
+        }
+    }
+}
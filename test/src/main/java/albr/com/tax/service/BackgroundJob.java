@@ -0,0 +1,68 @@
+package albr.com.tax.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cycle de vie commun des traitements de fond (import et export de catalogue) : identifiant, statut
+ * et chronométrage, lus par les requêtes de suivi pendant que le thread du traitement les met à jour.
+ *
+ * @param <S> statut exposé par l'API (QUEUED, RUNNING, COMPLETED, FAILED)
+ */
+abstract class BackgroundJob<S extends Enum<S>> {
+
+    private final String id;
+    private final S queued;
+
+    private volatile S status;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile String error;
+
+    BackgroundJob(String id, S queued) {
+        this.id = id;
+        this.queued = queued;
+        this.status = queued;
+    }
+
+    String id() {
+        return id;
+    }
+
+    S status() {
+        return status;
+    }
+
+    String error() {
+        return error;
+    }
+
+    void start(S running) {
+        startNanos = System.nanoTime();
+        status = running;
+    }
+
+    void finish(S finalStatus, String failure) {
+        endNanos = System.nanoTime();
+        error = failure;
+        status = finalStatus;
+    }
+
+    /**
+     * Durée écoulée depuis le démarrage (0 tant que le traitement attend son tour).
+     */
+    long elapsedNanos() {
+        if (status == queued) {
+            return 0;
+        }
+        long end = endNanos;
+        return (end != 0 ? end : System.nanoTime()) - startNanos;
+    }
+
+    static long elapsedMs(long elapsedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : 0;
+    }
+}
@@ -0,0 +1,41 @@
+package albr.com.tax.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * File de traitements de fond exécutés un par un sur un thread démon dédié ; les {@value #MAX_JOBS} derniers
+ * restent consultables par leur identifiant.
+ */
+final class BackgroundJobQueue<J extends BackgroundJob<?>> {
+
+    private static final int MAX_JOBS = 100;
+
+    private final ExecutorService executor;
+    private final Cache<String, J> jobsById = Caffeine.newBuilder().maximumSize(MAX_JOBS).build();
+
+    BackgroundJobQueue(String threadName) {
+        this.executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name(threadName).daemon().factory());
+    }
+
+    /**
+     * Enregistre {@code job} et met {@code task} en file ; les suivants attendent leur tour.
+     */
+    void submit(J job, Consumer<? super J> task) {
+        jobsById.put(job.id(), job);
+        executor.execute(() -> task.accept(job));
+    }
+
+    Optional<J> find(String jobId) {
+        return Optional.ofNullable(jobsById.getIfPresent(jobId));
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,293 @@
+package albr.com.tax.service;
+
+import albr.com.tax.engine.FixedPoint;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductView;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Écrit des blocs de produits tarifés dans un canal, à travers un tampon unique fourni par l'appelant.
+ * <ul>
+ *     <li>{@link Format#CSV} : {@code id,name,country,price,tax,final_price}, montants en décimal, nom entre
+ *     guillemets s'il contient une virgule, un guillemet ou un saut de ligne ; champ vide pour une valeur absente.</li>
+ *     <li>{@link Format#COLUMNAR} : binaire big-endian, colonne par colonne dans chaque bloc (voir ci-dessous).</li>
+ * </ul>
+ * Format colonnes :
+ * <pre>
+ * en-tête : "TAXCOL" | version (1 octet) | échelle des montants (1 octet, {@link FixedPoint#SCALE})
+ *           | nombre de pays (1 octet) | pour chaque pays, dans l'ordre des indices : longueur (1 octet) + nom ASCII
+ * bloc    : lignes n (int) | id long[n] | pays byte[n] (indice, -1 absent)
+ *           | prix long[n] | taxe long[n] | TTC long[n] (unités mineures, Long.MIN_VALUE absent)
+ *           | longueur du nom UTF-8 int[n] (-1 absent) | octets des noms, à la suite
+ * fin     : 0 (int) | nombre total de lignes (long)
+ * </pre>
+ * Non thread-safe.
+ */
+public final class CatalogExportWriter implements Closeable {
+
+    public enum Format {
+        CSV("csv"),
+        COLUMNAR("tcol");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Produits d'un bloc et leur cotation ; les tableaux sont réutilisés d'un bloc à l'autre.
+     */
+    public static final class Block {
+
+        private final ProductView[] products;
+        private final BigDecimal[] taxes;
+        private final BigDecimal[] finalPrices;
+        private int size;
+
+        public Block(int capacity) {
+            this.products = new ProductView[capacity];
+            this.taxes = new BigDecimal[capacity];
+            this.finalPrices = new BigDecimal[capacity];
+        }
+
+        public void add(ProductView product) {
+            products[size++] = product;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isFull() {
+            return size == products.length;
+        }
+
+        public ProductView product(int index) {
+            return products[index];
+        }
+
+        public void price(int index, BigDecimal tax, BigDecimal finalPrice) {
+            taxes[index] = tax;
+            finalPrices[index] = finalPrice;
+        }
+
+        // références relâchées : le bloc ne retient pas les produits déjà écrits
+        public void clear() {
+            Arrays.fill(products, 0, size, null);
+            Arrays.fill(taxes, 0, size, null);
+            Arrays.fill(finalPrices, 0, size, null);
+            size = 0;
+        }
+    }
+
+    static final byte[] MAGIC = "TAXCOL".getBytes(StandardCharsets.US_ASCII);
+    static final byte VERSION = 1;
+    static final long NULL_AMOUNT = Long.MIN_VALUE;
+
+    private static final byte[] CSV_HEADER = "id,name,country,price,tax,final_price\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final Country[] COUNTRIES = Country.values();
+
+    private final Format format;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final StringBuilder line = new StringBuilder(128);
+    // noms encodés du bloc en cours (format colonnes)
+    private byte[][] names = new byte[0][];
+    private long rows;
+    private long bytesWritten;
+
+    public CatalogExportWriter(Format format, WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        this.format = format;
+        this.channel = channel;
+        this.buffer = buffer.clear();
+        writeHeader();
+    }
+
+    public void write(Block block) throws IOException {
+        if (block.size == 0) {
+            return;
+        }
+        if (format == Format.CSV) {
+            writeCsv(block);
+        } else {
+            writeColumns(block);
+        }
+        rows += block.size;
+    }
+
+    /**
+     * Écrit la fin de fichier et vide le tampon ; le canal reste ouvert.
+     */
+    public void finish() throws IOException {
+        if (format == Format.COLUMNAR) {
+            ensure(Integer.BYTES + Long.BYTES);
+            buffer.putInt(0).putLong(rows);
+        }
+        flush();
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    // octets passés au canal (avant compression éventuelle)
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeHeader() throws IOException {
+        if (format == Format.CSV) {
+            put(CSV_HEADER);
+            return;
+        }
+        put(MAGIC);
+        ensure(3);
+        buffer.put(VERSION).put((byte) FixedPoint.SCALE).put((byte) COUNTRIES.length);
+        for (Country country : COUNTRIES) {
+            byte[] name = country.name().getBytes(StandardCharsets.US_ASCII);
+            ensure(1);
+            buffer.put((byte) name.length);
+            put(name);
+        }
+    }
+
+    private void writeCsv(Block block) throws IOException {
+        for (int i = 0; i < block.size; i++) {
+            ProductView product = block.products[i];
+            line.setLength(0);
+            line.append(product.getId()).append(',');
+            appendName(product.getName());
+            line.append(',');
+            if (product.getCountry() != null) {
+                line.append(product.getCountry().name());
+            }
+            line.append(',');
+            appendAmount(product.getPrice());
+            line.append(',');
+            appendAmount(block.taxes[i]);
+            line.append(',');
+            appendAmount(block.finalPrices[i]);
+            line.append('\n');
+            put(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void appendName(String name) {
+        if (name == null) {
+            return;
+        }
+        boolean quote = name.indexOf(',') >= 0 || name.indexOf('"') >= 0
+                || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(name);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendAmount(BigDecimal amount) {
+        if (amount != null) {
+            line.append(amount.toPlainString());
+        }
+    }
+
+    private void writeColumns(Block block) throws IOException {
+        int n = block.size;
+        ensure(Integer.BYTES);
+        buffer.putInt(n);
+        for (int i = 0; i < n; i++) {
+            ensure(Long.BYTES);
+            buffer.putLong(block.products[i].getId());
+        }
+        for (int i = 0; i < n; i++) {
+            Country country = block.products[i].getCountry();
+            ensure(1);
+            buffer.put(country != null ? (byte) country.ordinal() : -1);
+        }
+        for (int i = 0; i < n; i++) {
+            putAmount(block.products[i].getPrice());
+        }
+        for (int i = 0; i < n; i++) {
+            putAmount(block.taxes[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            putAmount(block.finalPrices[i]);
+        }
+
+        if (names.length < n) {
+            names = new byte[n][];
+        }
+        for (int i = 0; i < n; i++) {
+            String name = block.products[i].getName();
+            names[i] = name != null ? name.getBytes(StandardCharsets.UTF_8) : null;
+            ensure(Integer.BYTES);
+            buffer.putInt(names[i] != null ? names[i].length : -1);
+        }
+        for (int i = 0; i < n; i++) {
+            if (names[i] != null) {
+                put(names[i]);
+                names[i] = null;
+            }
+        }
+    }
+
+    private void putAmount(BigDecimal amount) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(amount != null ? FixedPoint.toMinor(amount, RoundingMode.HALF_EVEN) : NULL_AMOUNT);
+    }
+
+    // par morceaux : un nom plus long que le tampon passe quand même
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,312 @@
+package albr.com.tax.service;
+
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.enumTax.Country;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Découpe en lignes une portion de fichier catalogue projetée en mémoire et la convertit en {@link ProductRequest}.
+ * <ul>
+ *     <li>CSV {@code name,price,country} : lu octet par octet, le prix devient un BigDecimal
+ *     (entier + échelle) et le pays une constante de l'enum sans passer par une String ;
+ *     seul le nom est décodé. Nom entre guillemets possible ({@code ""} pour un guillemet).
+ *     Une ligne d'en-tête commençant par "name" en tête de fichier est ignorée.</li>
+ *     <li>NDJSON : un objet {@link ProductRequest} par ligne, lu par Jackson depuis un tampon réutilisé.</li>
+ * </ul>
+ * Un enregistrement par ligne (pas de saut de ligne dans un nom). Non thread-safe : une instance par portion.
+ */
+public final class CatalogRecordParser {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported catalog file (expected .csv, .ndjson or .jsonl): "
+                    + fileName);
+        }
+    }
+
+    /**
+     * Reçoit les enregistrements dans l'ordre du fichier ; {@code offset} est la position de la ligne dans le fichier.
+     */
+    public interface Sink {
+
+        /**
+         * @return null si l'enregistrement est accepté, sinon la raison du rejet
+         */
+        String accept(long offset, ProductRequest request);
+
+        void reject(long offset, String error, String line);
+    }
+
+    private static final byte[][] COUNTRY_NAMES;
+    private static final Country[] COUNTRIES = Country.values();
+    // 18 chiffres tiennent toujours dans un long
+    private static final int MAX_DIGITS = 18;
+    private static final String FIELDS_ERROR = "Expected 3 fields: name,price,country";
+    private static final byte[] HEADER = "name,price,country".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        COUNTRY_NAMES = new byte[COUNTRIES.length][];
+        for (int i = 0; i < COUNTRIES.length; i++) {
+            COUNTRY_NAMES[i] = COUNTRIES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final Format format;
+    private final ObjectReader requestReader;
+    private byte[] scratch = new byte[256];
+
+    public CatalogRecordParser(Format format, ObjectReader requestReader) {
+        this.format = format;
+        this.requestReader = requestReader;
+    }
+
+    /**
+     * Lit toutes les lignes de {@code buffer} (positions absolues 0..limit).
+     *
+     * @param baseOffset position de {@code buffer} dans le fichier
+     * @return nombre de lignes non vides lues
+     */
+    public long parse(ByteBuffer buffer, long baseOffset, Sink sink) {
+        int limit = buffer.limit();
+        int start = 0;
+        boolean firstLine = baseOffset == 0;
+        if (firstLine && limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                && buffer.get(2) == (byte) 0xBF) {
+            start = 3;   // BOM UTF-8
+        }
+
+        long lines = 0;
+        while (start < limit) {
+            int newline = indexOf(buffer, (byte) '\n', start, limit);
+            int end = newline < 0 ? limit : newline;
+            int next = newline < 0 ? limit : newline + 1;
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (!isBlank(buffer, start, end)) {
+                if (firstLine && format == Format.CSV && isHeader(buffer, start, end)) {
+                    firstLine = false;
+                    start = next;
+                    continue;
+                }
+                lines++;
+                long offset = baseOffset + start;
+                String error = format == Format.CSV
+                        ? parseCsv(buffer, start, end, offset, sink)
+                        : parseJson(buffer, start, end, offset, sink);
+                if (error != null) {
+                    sink.reject(offset, error, decode(buffer, start, end));
+                }
+            }
+            firstLine = false;
+            start = next;
+        }
+        return lines;
+    }
+
+    private String parseCsv(ByteBuffer buffer, int from, int to, long offset, Sink sink) {
+        int pos = from;
+        int nameLength = 0;
+        if (buffer.get(pos) == '"') {
+            pos++;
+            while (true) {
+                if (pos >= to) {
+                    return "name: unterminated quote";
+                }
+                byte b = buffer.get(pos++);
+                if (b == '"') {
+                    if (pos < to && buffer.get(pos) == '"') {
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                ensureScratch(nameLength + 1);
+                scratch[nameLength++] = b;
+            }
+            if (pos >= to || buffer.get(pos) != ',') {
+                return FIELDS_ERROR;
+            }
+        } else {
+            int comma = indexOf(buffer, (byte) ',', pos, to);
+            if (comma < 0) {
+                return FIELDS_ERROR;
+            }
+            nameLength = copy(buffer, pos, comma);
+            pos = comma;
+        }
+        pos++;   // virgule après le nom
+
+        int comma = indexOf(buffer, (byte) ',', pos, to);
+        if (comma < 0 || indexOf(buffer, (byte) ',', comma + 1, to) >= 0) {
+            return FIELDS_ERROR;
+        }
+        BigDecimal price = parseDecimal(buffer, pos, comma);
+        if (price == null) {
+            return "price: not a decimal number";
+        }
+        Country country = parseCountry(buffer, comma + 1, to);
+        if (country == null) {
+            return "country: unknown value";
+        }
+
+        String name = new String(scratch, 0, nameLength, StandardCharsets.UTF_8);
+        return sink.accept(offset, new ProductRequest(name, price, country));
+    }
+
+    private String parseJson(ByteBuffer buffer, int from, int to, long offset, Sink sink) {
+        int length = copy(buffer, from, to);
+        ProductRequest request;
+        try {
+            request = requestReader.readValue(scratch, 0, length);
+        } catch (JacksonException ex) {
+            return ex.getOriginalMessage();
+        }
+        return sink.accept(offset, request);
+    }
+
+    // [-]chiffres[.chiffres], au plus MAX_DIGITS chiffres ; null si invalide
+    static BigDecimal parseDecimal(ByteBuffer buffer, int from, int to) {
+        int start = skipSpaces(buffer, from, to);
+        int end = trimSpaces(buffer, start, to);
+        if (start == end) {
+            return null;
+        }
+        boolean negative = buffer.get(start) == '-';
+        if (negative) {
+            start++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_DIGITS) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    static Country parseCountry(ByteBuffer buffer, int from, int to) {
+        int start = skipSpaces(buffer, from, to);
+        int end = trimSpaces(buffer, start, to);
+        for (int c = 0; c < COUNTRY_NAMES.length; c++) {
+            byte[] name = COUNTRY_NAMES[c];
+            if (name.length == end - start && matches(buffer, start, name)) {
+                return COUNTRIES[c];
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int from, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // en-tête exact : une ligne de données "Name tag,..." n'est pas un en-tête
+    private static boolean isHeader(ByteBuffer buffer, int from, int to) {
+        if (to - from != HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if ((buffer.get(from + i) | 0x20) != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int copy(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        ensureScratch(length);
+        buffer.get(from, scratch, 0, length);
+        return length;
+    }
+
+    private void ensureScratch(int length) {
+        if (scratch.length < length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+        }
+    }
+
+    /**
+     * Ligne commençant à la position {@code from} de {@code buffer}, sans sa fin de ligne.
+     */
+    static String lineAt(ByteBuffer buffer, int from) {
+        int limit = buffer.limit();
+        int newline = indexOf(buffer, (byte) '\n', from, limit);
+        int end = newline < 0 ? limit : newline;
+        if (end > from && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        return decode(buffer, from, end);
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        return skipSpaces(buffer, from, to) == to;
+    }
+
+    private static int skipSpaces(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) == ' ' || buffer.get(from) == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimSpaces(ByteBuffer buffer, int from, int to) {
+        while (to > from && (buffer.get(to - 1) == ' ' || buffer.get(to - 1) == '\t')) {
+            to--;
+        }
+        return to;
+    }
+}
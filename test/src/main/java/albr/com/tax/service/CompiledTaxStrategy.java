@@ -0,0 +1,53 @@
+package albr.com.tax.service;
+
+import albr.com.tax.engine.CompiledTaxRule;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductView;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+/**
+ * Adaptateur {@link TaxStrategy} au-dessus de la règle compilée d'un pays.
+ * La règle est lue dans la table courante à chaque appel (une lecture + un accès tableau),
+ * un rechargement de la table est donc pris en compte immédiatement.
+ */
+public abstract class CompiledTaxStrategy implements TaxStrategy {
+
+    private final Country country;
+    private final Supplier<TaxRuleTable> rules;
+
+    protected CompiledTaxStrategy(Country country, Supplier<TaxRuleTable> rules) {
+        this.country = country;
+        this.rules = rules;
+    }
+
+    @Override
+    public Country country() {
+        return country;
+    }
+
+    /**
+     * Règle du pays dans la table courante.
+     */
+    public CompiledTaxRule rule() {
+        return rules.get().rule(country);
+    }
+
+    @Override
+    public BigDecimal calculateTax(ProductView product) {
+        return rule().tax(product.getPrice());
+    }
+
+    @Override
+    public BigDecimal calculateFinalPriceTTC(ProductView product) {
+        return rule().finalPrice(product.getPrice());
+    }
+
+    @Override
+    public TaxQuote quote(ProductView product) {
+        return rule().quote(product.getPrice());
+    }
+}
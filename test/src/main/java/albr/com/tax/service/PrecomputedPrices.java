@@ -0,0 +1,118 @@
+package albr.com.tax.service;
+
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.engine.BatchTaxEvaluator;
+import albr.com.tax.engine.FixedPoint;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cotation stockée sur le produit (taxe, TTC, version des règles) quand app.pricing.precompute.enabled.
+ * Une valeur stockée n'est servie que si elle vient de la table de règles courante :
+ * après un changement de règles, les produits pas encore recalculés retombent sur le calcul à la volée.
+ */
+@Component
+public class PrecomputedPrices {
+
+    private final boolean enabled;
+    private final Supplier<TaxRuleTable> rules;
+
+    public PrecomputedPrices(PrecomputeProperties properties, Supplier<TaxRuleTable> rules) {
+        this.enabled = properties.enabled();
+        this.rules = rules;
+    }
+
+    @Autowired
+    public PrecomputedPrices(PrecomputeProperties properties, TaxRuleRegistry registry) {
+        this(properties, registry::current);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Calcule et renseigne la cotation avant écriture ; sans effet si l'option est désactivée.
+     */
+    public void apply(Product product) {
+        if (enabled) {
+            apply(product, rules.get());
+        }
+    }
+
+    /**
+     * Renseigne la cotation calculée avec {@code table} (une seule table lue : valeurs et version concordent).
+     */
+    public void apply(Product product, TaxRuleTable table) {
+        TaxQuote quote = product.getPrice() != null && product.getCountry() != null
+                ? table.rule(product.getCountry()).quote(product.getPrice())
+                : null;
+        product.setTaxAmount(quote != null ? quote.tax() : null);
+        product.setFinalPrice(quote != null ? quote.finalPrice() : null);
+        product.setTaxRulesVersion(table.version());
+    }
+
+    /**
+     * Lot de produits : cotations calculées pays par pays par {@link BatchTaxEvaluator}, sans effet si l'option
+     * est désactivée.
+     */
+    public void applyAll(List<Product> products) {
+        if (enabled) {
+            applyAll(products, rules.get());
+        }
+    }
+
+    /**
+     * Comme {@link #apply(Product, TaxRuleTable)} pour chaque produit du lot, mêmes valeurs.
+     */
+    public void applyAll(List<Product> products, TaxRuleTable table) {
+        Product[] batch = new Product[products.size()];
+        BigDecimal[] prices = new BigDecimal[batch.length];
+        TaxQuote[] quotes = new TaxQuote[batch.length];
+        for (Country country : Country.values()) {
+            int count = 0;
+            for (Product product : products) {
+                if (product.getCountry() == country && product.getPrice() != null) {
+                    batch[count] = product;
+                    prices[count++] = product.getPrice();
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            BatchTaxEvaluator.best().quotes(table.rule(country), prices, quotes, count);
+            for (int i = 0; i < count; i++) {
+                batch[i].setTaxAmount(quotes[i].tax());
+                batch[i].setFinalPrice(quotes[i].finalPrice());
+            }
+        }
+        for (Product product : products) {
+            if (product.getCountry() == null || product.getPrice() == null) {
+                product.setTaxAmount(null);
+                product.setFinalPrice(null);
+            }
+            product.setTaxRulesVersion(table.version());
+        }
+    }
+
+    /**
+     * Taxe stockée, présentée comme un calcul à la volée, ou {@code null} si elle est absente
+     * ou produite par une autre version des règles.
+     */
+    public BigDecimal currentTax(ProductView product) {
+        BigDecimal tax = product.getTaxAmount();
+        if (!enabled || tax == null || !rules.get().version().equals(product.getTaxRulesVersion())) {
+            return null;
+        }
+        return FixedPoint.trim(tax, product.getPrice().scale());
+    }
+}
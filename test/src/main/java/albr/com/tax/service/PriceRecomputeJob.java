@@ -0,0 +1,122 @@
+package albr.com.tax.service;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.engine.TaxRulesChangedEvent;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recalcule en arrière-plan les cotations précalculées qui ne viennent pas des règles courantes :
+ * au démarrage (règles modifiées pendant l'arrêt) et à chaque {@link TaxRulesChangedEvent}.
+ * La table est parcourue par clé sur l'id, un lot par transaction ; un seul recalcul tourne à la fois
+ * et un changement de règles pendant un parcours l'interrompt au profit d'un nouveau.
+ */
+@Component
+public class PriceRecomputeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceRecomputeJob.class);
+
+    private final ProductRepository repository;
+    private final PrecomputedPrices precomputedPrices;
+    private final TaxRuleRegistry registry;
+    private final ProductCache productCache;
+    private final ColumnarProductStore columnarStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("price-recompute").daemon().factory());
+    // un parcours au plus en attente derrière celui en cours
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public PriceRecomputeJob(ProductRepository repository, PrecomputedPrices precomputedPrices,
+                             TaxRuleRegistry registry, ProductCache productCache, ColumnarProductStore columnarStore,
+                             TransactionTemplate transactionTemplate, PrecomputeProperties properties) {
+        this.repository = repository;
+        this.precomputedPrices = precomputedPrices;
+        this.registry = registry;
+        this.productCache = productCache;
+        this.columnarStore = columnarStore;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.batchSize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        schedule();
+    }
+
+    @EventListener
+    public void onTaxRulesChanged(TaxRulesChangedEvent event) {
+        schedule();
+    }
+
+    public void schedule() {
+        if (precomputedPrices.enabled() && scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                scheduled.set(false);
+                try {
+                    recompute();
+                } catch (RuntimeException ex) {
+                    log.warn("Precomputed price refresh failed, stale rows are priced on read", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return nombre de produits recalculés
+     */
+    public long recompute() {
+        TaxRuleTable table = registry.current();
+        long start = System.nanoTime();
+        long updated = 0;
+        long afterId = 0;
+
+        while (registry.current() == table) {
+            long from = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Product> batch = repository.findStalePrices(from, table.version(), Limit.of(batchSize));
+                // entités gérées : modifiées ici, écrites au commit (UPDATE batchés)
+                precomputedPrices.applyAll(batch, table);
+                // nouvelles versions (ETag), reportées après le commit
+                columnarStore.putAll(batch);
+                return batch.stream().map(Product::getId).toList();
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            ids.forEach(productCache::invalidate);
+            updated += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        if (updated > 0) {
+            log.info("{} precomputed prices refreshed for tax rules version {} in {} ms", updated, table.version(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return updated;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+package albr.com.tax.service;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Persiste un lot de produits dans une seule transaction.
+ * Le contexte de persistance est vidé après le flush pour que la mémoire
+ * reste constante quel que soit le nombre de lots.
+ */
+@Component
+public class ProductBatchWriter {
+
+    private final ProductRepository repository;
+    private final EntityManager entityManager;
+    private final ProductCache productCache;
+    private final PrecomputedPrices precomputedPrices;
+    private final ColumnarProductStore columnarStore;
+
+    public ProductBatchWriter(ProductRepository repository, EntityManager entityManager, ProductCache productCache,
+                              PrecomputedPrices precomputedPrices, ColumnarProductStore columnarStore) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.productCache = productCache;
+        this.precomputedPrices = precomputedPrices;
+        this.columnarStore = columnarStore;
+    }
+
+    @Transactional
+    public List<Product> persist(List<Product> products) {
+        precomputedPrices.applyAll(products);
+        List<Product> saved = repository.saveAll(products);
+        repository.flush();
+        entityManager.clear();
+        saved.forEach(p -> productCache.invalidate(p.getId()));
+        columnarStore.putAll(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,187 @@
+package albr.com.tax.service;
+
+import albr.com.tax.config.BulkProperties;
+import albr.com.tax.dto.ProductBulkResult;
+import albr.com.tax.dto.ProductBulkResult.Status;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Import en masse : lit un tableau JSON ou un flux NDJSON de {@link ProductRequest},
+ * valide chaque élément et persiste les éléments valides par lots de {@code app.bulk.batch-size}.
+ * Les résultats sont émis élément par élément vers {@code sink}, sans jamais garder le flux entier en mémoire.
+ */
+@Service
+public class ProductBulkService {
+
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final ProductMapper productMapper;
+    private final ProductBatchWriter batchWriter;
+    private final int batchSize;
+
+    public ProductBulkService(ObjectMapper objectMapper,
+                              Validator validator,
+                              ProductMapper productMapper,
+                              ProductBatchWriter batchWriter,
+                              BulkProperties properties) {
+        this.requestReader = objectMapper.readerFor(ProductRequest.class);
+        this.validator = validator;
+        this.productMapper = productMapper;
+        this.batchWriter = batchWriter;
+        this.batchSize = properties.batchSize();
+    }
+
+    /**
+     * @return nombre d'éléments lus dans le flux
+     */
+    public long ingest(InputStream body, Consumer<ProductBulkResult> sink) {
+
+        requireNonNull(body, "Bulk body must not be null");
+        requireNonNull(sink, "Result sink must not be null");
+
+        Batch batch = new Batch(batchSize);
+        long index = 0;
+
+        // un tableau JSON racine est déroulé par le MappingIterator, un flux NDJSON est lu valeur par valeur
+        try (MappingIterator<ProductRequest> items = requestReader.readValues(body)) {
+            while (true) {
+                ProductRequest request;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    request = items.nextValue();
+                } catch (StreamReadException ex) {
+                    // JSON mal formé : impossible de se resynchroniser, on arrête la lecture
+                    sink.accept(rejected(index++, "Malformed JSON: " + ex.getOriginalMessage()));
+                    break;
+                } catch (JacksonException ex) {
+                    // élément illisible (ex: pays inconnu) : rejeté, on passe au suivant
+                    sink.accept(rejected(index++, ex.getOriginalMessage()));
+                    continue;
+                }
+
+                String error = validate(request);
+                if (error != null) {
+                    sink.accept(rejected(index++, error));
+                    continue;
+                }
+
+                batch.add(index++, productMapper.toEntity(request));
+                if (batch.isFull()) {
+                    flush(batch, sink);
+                }
+            }
+        }
+
+        flush(batch, sink);
+        return index;
+    }
+
+    private String validate(ProductRequest request) {
+        return violations(validator, request);
+    }
+
+    /**
+     * @return les contraintes non respectées, triées, ou null si la demande est valide
+     */
+    static String violations(Validator validator, ProductRequest request) {
+        if (request == null) {
+            return "ProductRequest must not be null";
+        }
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void flush(Batch batch, Consumer<ProductBulkResult> sink) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<Product> saved = batchWriter.persist(batch.products);
+            for (int i = 0; i < saved.size(); i++) {
+                sink.accept(ProductBulkResult.builder()
+                        .index(batch.indexes[i])
+                        .status(Status.CREATED)
+                        .id(saved.get(i).getId())
+                        .build());
+            }
+        } catch (DataAccessException ex) {
+            // le lot entier est annulé par la transaction
+            for (int i = 0; i < batch.products.size(); i++) {
+                sink.accept(ProductBulkResult.builder()
+                        .index(batch.indexes[i])
+                        .status(Status.FAILED)
+                        .error("Unable to create product")
+                        .build());
+            }
+        }
+        batch.reset();
+    }
+
+    private static ProductBulkResult rejected(long index, String error) {
+        return ProductBulkResult.builder()
+                .index(index)
+                .status(Status.REJECTED)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Lot en cours : les produits et leur position dans le flux d'entrée.
+     */
+    private static final class Batch {
+
+        private final long[] indexes;
+        private List<Product> products;
+
+        private Batch(int capacity) {
+            this.indexes = new long[capacity];
+            this.products = new ArrayList<>(capacity);
+        }
+
+        void add(long index, Product product) {
+            indexes[products.size()] = index;
+            products.add(product);
+        }
+
+        boolean isFull() {
+            return products.size() == indexes.length;
+        }
+
+        boolean isEmpty() {
+            return products.isEmpty();
+        }
+
+        void reset() {
+            // nouvelle liste : l'ancienne a pu être retenue par l'appelant du writer
+            products = new ArrayList<>(indexes.length);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package albr.com.tax.service;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * ETag forts des lectures produit, calculés sans charger le produit :
+ * la version vient du cache produits ou du modèle en colonnes s'ils contiennent l'id,
+ * sinon d'une requête sur la seule colonne version.
+ * Le prix TTC dépend aussi des règles de taxe, dont la version entre dans son ETag.
+ * Vide si le produit n'existe pas.
+ */
+@Component
+public class ProductETags {
+
+    private final ProductCache productCache;
+    private final ColumnarProductStore columnarStore;
+    private final ProductRepository repository;
+    private final TaxRuleRegistry registry;
+
+    public ProductETags(ProductCache productCache, ColumnarProductStore columnarStore, ProductRepository repository,
+                        TaxRuleRegistry registry) {
+        this.productCache = productCache;
+        this.columnarStore = columnarStore;
+        this.repository = repository;
+        this.registry = registry;
+    }
+
+    public Optional<String> product(Long id) {
+        return version(id).map(version -> productTag(id, version));
+    }
+
+    public Optional<String> price(Long id) {
+        return version(id).map(version -> priceTag(id, version, registry.current().version()));
+    }
+
+    static String productTag(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    static String priceTag(Long id, long version, String rulesVersion) {
+        return "\"" + id + "-" + version + "-" + rulesVersion + "\"";
+    }
+
+    /**
+     * ETag de la représentation {@code mediaType} : JSON garde l'ETag de base, CBOR reçoit le suffixe -cbor.
+     * Un cache partagé qui a gardé la variante CBOR ne peut donc pas la revalider pour un client JSON.
+     */
+    public static String variant(String etag, MediaType mediaType) {
+        if (etag == null || !MediaType.APPLICATION_CBOR.isCompatibleWith(mediaType)) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-cbor\"";
+    }
+
+    private Optional<Long> version(Long id) {
+        Optional<ProductSummary> cached = productCache.peek(id).or(() -> columnarStore.find(id));
+        if (cached.isPresent()) {
+            return Optional.of(cached.get().getVersion());
+        }
+        return repository.findVersionById(id);
+    }
+}
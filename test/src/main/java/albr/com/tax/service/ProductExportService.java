@@ -0,0 +1,255 @@
+package albr.com.tax.service;
+
+import albr.com.tax.config.ExportProperties;
+import albr.com.tax.dto.ProductExportStatus;
+import albr.com.tax.dto.ProductExportStatus.Status;
+import albr.com.tax.engine.BatchTaxEvaluator;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductView;
+import albr.com.tax.service.CatalogExportWriter.Block;
+import albr.com.tax.service.CatalogExportWriter.Format;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export du catalogue complet avec prix de base, taxe et TTC, dans un fichier de {@code app.export.directory}.
+ * <p>
+ * Les produits sont lus au curseur ({@link ProductListingService#scan}) et regroupés en blocs de
+ * {@code app.export.block-size} ; dans un bloc, la cotation est calculée pays par pays avec la
+ * {@link TaxStrategy} du pays, résolue une fois pour tout l'export (cotation précalculée servie si elle est à jour) ;
+ * les règles compilées sont évaluées en lot par {@link BatchTaxEvaluator}.
+ * Le bloc est ensuite écrit par {@link CatalogExportWriter} à travers un tampon direct unique, compressé en gzip
+ * sur demande : la mémoire ne dépend pas de la taille du catalogue.
+ * Le fichier est écrit sous un nom temporaire ({@code .part}) et renommé une fois complet.
+ * Un export à la fois ; les suivants attendent leur tour.
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExportService.class);
+
+    private static final Country[] COUNTRIES = Country.values();
+
+    private final ProductListingService listingService;
+    private final TaxService taxService;
+    private final PrecomputedPrices precomputedPrices;
+    private final Path directory;
+    private final int blockSize;
+    private final int bufferSize;
+
+    private final BackgroundJobQueue<Job> jobs = new BackgroundJobQueue<>("product-export");
+
+    public ProductExportService(ProductListingService listingService, TaxService taxService,
+                                PrecomputedPrices precomputedPrices, ExportProperties properties) {
+        this.listingService = listingService;
+        this.taxService = taxService;
+        this.precomputedPrices = precomputedPrices;
+        this.directory = properties.directory().toAbsolutePath().normalize();
+        this.blockSize = properties.blockSize();
+        this.bufferSize = (int) properties.bufferSize().toBytes();
+    }
+
+    /**
+     * Met l'export en file.
+     *
+     * @param country filtre optionnel
+     */
+    public ProductExportStatus submit(Format format, boolean compress, Country country) {
+        Job job = newJob(format, compress, country);
+        jobs.submit(job, this::run);
+        return job.snapshot();
+    }
+
+    public Optional<ProductExportStatus> status(String jobId) {
+        return jobs.find(jobId).map(Job::snapshot);
+    }
+
+    /**
+     * Export synchrone, dans le thread appelant.
+     */
+    public ProductExportStatus export(Format format, boolean compress, Country country) {
+        Job job = newJob(format, compress, country);
+        run(job);
+        return job.snapshot();
+    }
+
+    private Job newJob(Format format, boolean compress, Country country) {
+        String id = UUID.randomUUID().toString();
+        String name = "products-" + id + "." + format.extension() + (compress ? ".gz" : "");
+        return new Job(id, directory.resolve(name), format, compress, country);
+    }
+
+    private void run(Job job) {
+        job.start(Status.RUNNING);
+        Path partial = job.file.resolveSibling(job.file.getFileName() + ".part");
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel file = FileChannel.open(partial, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 CatalogExportWriter writer = new CatalogExportWriter(job.format, channel(file, job.compressed),
+                         ByteBuffer.allocateDirect(bufferSize))) {
+                writeAll(job, writer);
+                writer.finish();
+            }
+            Files.move(partial, job.file, StandardCopyOption.REPLACE_EXISTING);
+            job.bytesWritten = Files.size(job.file);
+            job.finish(Status.COMPLETED, null);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Catalog export to {} failed", job.file, ex);
+            deleteQuietly(partial);
+            job.finish(Status.FAILED, ex.getMessage());
+        }
+
+        ProductExportStatus status = job.snapshot();
+        log.info("Catalog export {} {}: {} rows, {} bytes in {} ms ({} rows/s)", job.file.getFileName(),
+                status.getStatus(), status.getRowsWritten(), status.getBytesWritten(), status.getElapsedMs(),
+                status.getRowsPerSecond());
+    }
+
+    private void writeAll(Job job, CatalogExportWriter writer) {
+        Block block = new Block(blockSize);
+        Map<Country, TaxStrategy> strategies = new EnumMap<>(Country.class);
+        listingService.scan(0, job.country, product -> {
+            block.add(product);
+            if (block.isFull()) {
+                writeBlock(block, strategies, writer, job);
+            }
+        });
+        writeBlock(block, strategies, writer, job);
+    }
+
+    private void writeBlock(Block block, Map<Country, TaxStrategy> strategies, CatalogExportWriter writer,
+                            Job job) {
+        if (block.size() == 0) {
+            return;
+        }
+        price(block, strategies);
+        try {
+            writer.write(block);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        job.rowsWritten.add(block.size());
+        job.bytesWritten = writer.bytesWritten();
+        block.clear();
+    }
+
+    // pays par pays : une stratégie par passe sur le bloc ; règles compilées évaluées en lot
+    private void price(Block block, Map<Country, TaxStrategy> strategies) {
+        int[] indexes = new int[block.size()];
+        BigDecimal[] prices = new BigDecimal[block.size()];
+        TaxQuote[] quotes = new TaxQuote[block.size()];
+        for (Country country : COUNTRIES) {
+            TaxStrategy strategy = null;
+            int count = 0;
+            for (int i = 0; i < block.size(); i++) {
+                ProductView product = block.product(i);
+                if (product.getCountry() != country || product.getPrice() == null) {
+                    continue;
+                }
+                BigDecimal stored = precomputedPrices.currentTax(product);
+                if (stored != null) {
+                    block.price(i, stored, product.getPrice().add(stored));
+                    continue;
+                }
+                if (strategy == null) {
+                    strategy = strategies.computeIfAbsent(country, c -> taxService.findTaxStrategy(product));
+                }
+                if (strategy instanceof CompiledTaxStrategy) {
+                    indexes[count] = i;
+                    prices[count++] = product.getPrice();
+                    continue;
+                }
+                TaxQuote quote = strategy.quote(product);
+                block.price(i, quote.tax(), quote.finalPrice());
+            }
+            if (count > 0) {
+                BatchTaxEvaluator.best().quotes(((CompiledTaxStrategy) strategy).rule(), prices, quotes, count);
+                for (int j = 0; j < count; j++) {
+                    block.price(indexes[j], quotes[j].tax(), quotes[j].finalPrice());
+                }
+            }
+        }
+    }
+
+    private static WritableByteChannel channel(FileChannel file, boolean compress) throws IOException {
+        if (!compress) {
+            return file;
+        }
+        return Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(file), 64 * 1024));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Unable to delete partial export {}", file, ex);
+        }
+    }
+
+    /**
+     * État d'un export, mis à jour par le thread d'export.
+     */
+    private final class Job extends BackgroundJob<Status> {
+
+        private final Path file;
+        private final Format format;
+        private final boolean compressed;
+        private final Country country;
+        private final LongAdder rowsWritten = new LongAdder();
+
+        // octets écrits avant compression pendant l'export, taille du fichier une fois terminé
+        private volatile long bytesWritten;
+
+        private Job(String id, Path file, Format format, boolean compressed, Country country) {
+            super(id, Status.QUEUED);
+            this.file = file;
+            this.format = format;
+            this.compressed = compressed;
+            this.country = country;
+        }
+
+        ProductExportStatus snapshot() {
+            long elapsedNanos = elapsedNanos();
+            long rows = rowsWritten.sum();
+            return ProductExportStatus.builder()
+                    .jobId(id())
+                    .file(directory.relativize(file).toString())
+                    .format(format.name())
+                    .compressed(compressed)
+                    .status(status())
+                    .rowsWritten(rows)
+                    .bytesWritten(bytesWritten)
+                    .elapsedMs(elapsedMs(elapsedNanos))
+                    .rowsPerSecond(rowsPerSecond(rows, elapsedNanos))
+                    .error(error())
+                    .build();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdown();
+    }
+}
@@ -0,0 +1,356 @@
+package albr.com.tax.service;
+
+import albr.com.tax.config.BulkProperties;
+import albr.com.tax.config.ImportProperties;
+import albr.com.tax.dto.ProductImportStatus;
+import albr.com.tax.dto.ProductImportStatus.Status;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.CatalogRecordParser.Format;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Import de fichiers catalogue volumineux (CSV ou NDJSON, voir {@link CatalogRecordParser}).
+ * <p>
+ * Le fichier est découpé récursivement en portions alignées sur les fins de ligne (fork/join) jusqu'à
+ * {@code app.import.split-size} ; chaque portion est projetée en mémoire (NIO), lue, validée comme une
+ * {@link ProductRequest} et persistée par lots de {@code app.bulk.batch-size} via {@link ProductBatchWriter}.
+ * Les lignes rejetées sont écrites dans {@code <fichier>.rejects.ndjson}, à côté du fichier importé.
+ * Un import à la fois ; les suivants attendent leur tour.
+ */
+@Service
+public class ProductFileImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFileImporter.class);
+
+    private static final int BOUNDARY_READ_SIZE = 8192;
+    private static final String REJECTS_SUFFIX = ".rejects.ndjson";
+
+    private final ProductMapper productMapper;
+    private final ProductBatchWriter batchWriter;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final ObjectWriter rejectWriter;
+    private final Path directory;
+    private final long splitSize;
+    private final int batchSize;
+
+    private final BackgroundJobQueue<Job> jobs = new BackgroundJobQueue<>("product-import");
+    private final ForkJoinPool pool;
+
+    public ProductFileImporter(ProductMapper productMapper, ProductBatchWriter batchWriter, Validator validator,
+                               ObjectMapper objectMapper, ImportProperties properties, BulkProperties bulkProperties) {
+        this.productMapper = productMapper;
+        this.batchWriter = batchWriter;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(ProductRequest.class);
+        this.rejectWriter = objectMapper.writer().withRootValueSeparator("\n");
+        this.directory = properties.directory().toAbsolutePath().normalize();
+        this.splitSize = properties.splitSize().toBytes();
+        this.batchSize = bulkProperties.batchSize();
+        this.pool = new ForkJoinPool(properties.parallelism());
+    }
+
+    /**
+     * Met en file l'import de {@code fileName}, relatif à {@code app.import.directory}.
+     *
+     * @throws IllegalArgumentException fichier hors du répertoire d'import, absent ou de format inconnu
+     */
+    public ProductImportStatus submit(String fileName) {
+        Path file = resolve(fileName);
+        Job job = newJob(file);
+        jobs.submit(job, this::run);
+        return job.snapshot();
+    }
+
+    public Optional<ProductImportStatus> status(String jobId) {
+        return jobs.find(jobId).map(Job::snapshot);
+    }
+
+    /**
+     * Import synchrone, dans le thread appelant (les portions sont lues par le pool fork/join).
+     */
+    public ProductImportStatus importFile(Path file) {
+        Job job = newJob(file);
+        run(job);
+        return job.snapshot();
+    }
+
+    Path resolve(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No catalog file " + fileName + " in " + directory);
+        }
+        return file;
+    }
+
+    private Job newJob(Path file) {
+        Format format = Format.of(file.getFileName().toString());
+        try {
+            return new Job(UUID.randomUUID().toString(), file, format, Files.size(file));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void run(Job job) {
+        job.start(Status.RUNNING);
+        try (FileChannel channel = FileChannel.open(job.file, StandardOpenOption.READ)) {
+            pool.invoke(new Portion(job, channel, 0, job.bytesTotal));
+            job.finish(Status.COMPLETED, null);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Catalog import of {} failed", job.file, ex);
+            job.finish(Status.FAILED, ex.getMessage());
+        } finally {
+            job.closeRejects();
+        }
+
+        ProductImportStatus status = job.snapshot();
+        log.info("Catalog import of {} {}: {} rows read, {} imported, {} rejected in {} ms ({} rows/s)",
+                job.file.getFileName(), status.getStatus(), status.getRowsRead(), status.getRowsImported(),
+                status.getRowsRejected(), status.getElapsedMs(), status.getRowsPerSecond());
+    }
+
+    // début de la ligne qui suit la position from (ou end)
+    private static long nextRecordStart(FileChannel channel, long from, long end) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(BOUNDARY_READ_SIZE);
+        long position = from;
+        while (position < end) {
+            chunk.clear();
+            int read = channel.read(chunk, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (chunk.get(i) == '\n') {
+                    return Math.min(position + i + 1, end);
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    /**
+     * Portion [start, end) du fichier, toujours alignée sur des débuts de ligne.
+     */
+    private final class Portion extends RecursiveAction {
+
+        private final Job job;
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        private Portion(Job job, FileChannel channel, long start, long end) {
+            this.job = job;
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (end - start > splitSize) {
+                    long middle = nextRecordStart(channel, start + (end - start) / 2, end);
+                    if (middle < end) {
+                        invokeAll(new Portion(job, channel, start, middle), new Portion(job, channel, middle, end));
+                        return;
+                    }
+                }
+                read();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void read() throws IOException {
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Catalog line longer than 2GB at offset " + start);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            BatchSink sink = new BatchSink(job, buffer, start);
+            new CatalogRecordParser(job.format, requestReader).parse(buffer, start, sink);
+            sink.flush();
+            job.bytesRead.add(end - start);
+        }
+    }
+
+    /**
+     * Valide et accumule les lignes d'une portion, persistées par lots.
+     */
+    private final class BatchSink implements CatalogRecordParser.Sink {
+
+        private final Job job;
+        private final ByteBuffer buffer;
+        private final long baseOffset;
+        private final long[] offsets = new long[batchSize];
+        private final List<ProductRequest> requests = new ArrayList<>(batchSize);
+
+        private BatchSink(Job job, ByteBuffer buffer, long baseOffset) {
+            this.job = job;
+            this.buffer = buffer;
+            this.baseOffset = baseOffset;
+        }
+
+        @Override
+        public String accept(long offset, ProductRequest request) {
+            String error = ProductBulkService.violations(validator, request);
+            if (error != null) {
+                return error;
+            }
+            offsets[requests.size()] = offset;
+            requests.add(request);
+            if (requests.size() == batchSize) {
+                flush();
+            }
+            return null;
+        }
+
+        @Override
+        public void reject(long offset, String error, String line) {
+            job.reject(offset, error, line);
+        }
+
+        void flush() {
+            if (requests.isEmpty()) {
+                return;
+            }
+            try {
+                batchWriter.persist(toEntities(requests));
+                job.rowsImported.add(requests.size());
+            } catch (DataAccessException ex) {
+                // le lot entier est annulé par la transaction : on rejoue ligne par ligne pour isoler les fautives
+                for (int i = 0; i < requests.size(); i++) {
+                    persistOne(offsets[i], requests.get(i));
+                }
+            }
+            requests.clear();
+        }
+
+        private void persistOne(long offset, ProductRequest request) {
+            try {
+                batchWriter.persist(List.of(productMapper.toEntity(request)));
+                job.rowsImported.increment();
+            } catch (DataAccessException ex) {
+                // ligne d'origine conservée pour pouvoir rejouer le fichier de rejets
+                job.reject(offset, "Unable to create product",
+                        CatalogRecordParser.lineAt(buffer, (int) (offset - baseOffset)));
+            }
+        }
+
+        // entités neuves à chaque tentative : celles d'un lot annulé ont déjà reçu un id
+        private List<Product> toEntities(List<ProductRequest> batch) {
+            List<Product> products = new ArrayList<>(batch.size());
+            for (ProductRequest request : batch) {
+                products.add(productMapper.toEntity(request));
+            }
+            return products;
+        }
+    }
+
+    /**
+     * État d'un import, mis à jour par les threads de lecture.
+     */
+    private final class Job extends BackgroundJob<Status> {
+
+        private final Path file;
+        private final Format format;
+        private final long bytesTotal;
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder rowsImported = new LongAdder();
+        private final LongAdder rowsRejected = new LongAdder();
+
+        private volatile Path rejectFile;
+        // ouvert au premier rejet ; protégé par this
+        private SequenceWriter rejects;
+
+        private Job(String id, Path file, Format format, long bytesTotal) {
+            super(id, Status.QUEUED);
+            this.file = file;
+            this.format = format;
+            this.bytesTotal = bytesTotal;
+        }
+
+        synchronized void reject(long offset, String reason, String line) {
+            rowsRejected.increment();
+            try {
+                if (rejects == null) {
+                    Path target = file.resolveSibling(file.getFileName() + REJECTS_SUFFIX);
+                    rejects = rejectWriter.writeValues(Files.newBufferedWriter(target));
+                    rejectFile = target;
+                }
+                rejects.write(new Rejected(offset, reason, line));
+            } catch (RuntimeException ex) {
+                log.warn("Unable to write rejected row at offset {} of {}", offset, file, ex);
+            } catch (IOException ex) {
+                log.warn("Unable to open reject file for {}", file, ex);
+            }
+        }
+
+        synchronized void closeRejects() {
+            if (rejects != null) {
+                rejects.close();
+                rejects = null;
+            }
+        }
+
+        ProductImportStatus snapshot() {
+            long elapsedNanos = elapsedNanos();
+            // lignes traitées : persistées ou rejetées (les lots en cours ne sont pas comptés)
+            long rows = rowsImported.sum() + rowsRejected.sum();
+            Path rejected = rejectFile;
+            return ProductImportStatus.builder()
+                    .jobId(id())
+                    .file(directory.relativize(file).toString())
+                    .status(status())
+                    .bytesTotal(bytesTotal)
+                    .bytesRead(bytesRead.sum())
+                    .rowsRead(rows)
+                    .rowsImported(rowsImported.sum())
+                    .rowsRejected(rowsRejected.sum())
+                    .rejectFile(rejected != null ? directory.relativize(rejected).toString() : null)
+                    .elapsedMs(elapsedMs(elapsedNanos))
+                    .rowsPerSecond(rowsPerSecond(rows, elapsedNanos))
+                    .error(error())
+                    .build();
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record Rejected(long offset, String error, String line) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdown();
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,218 @@
+package albr.com.tax.service;
+
+import albr.com.tax.config.IngestProperties;
+import albr.com.tax.dto.ProductIngestStatus;
+import albr.com.tax.dto.ProductIngestStatus.Status;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Création asynchrone des produits ("write-behind") : les demandes sont mises dans une file bornée
+ * et la réponse part sans attendre le commit. Des workers vident la file par lots, une transaction par lot
+ * via {@link ProductBatchWriter}. File pleine : la demande est refusée après {@code offerTimeout}.
+ * <p>
+ * À l'arrêt, la file n'accepte plus rien et les workers persistent ce qui reste (au plus {@code drainTimeout}).
+ * Métriques : app.ingest.queue.size, app.ingest.rejected.
+ */
+@Service
+public class ProductIngestQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIngestQueue.class);
+
+    // démarré avant et arrêté après le serveur web : plus aucune demande n'arrive pendant la vidange
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long POLL_MILLIS = 200;
+
+    private final ProductMapper productMapper;
+    private final ProductBatchWriter batchWriter;
+    private final IngestProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, ProductIngestStatus> statuses;
+    private final Counter rejected;
+
+    private volatile boolean accepting = true;
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public ProductIngestQueue(ProductMapper productMapper, ProductBatchWriter batchWriter,
+                              IngestProperties properties, MeterRegistry meterRegistry) {
+        this.productMapper = productMapper;
+        this.batchWriter = batchWriter;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(properties.maxTracked())
+                .expireAfterWrite(properties.statusRetention())
+                .build();
+
+        Gauge.builder("app.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Product creations waiting to be persisted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.ingest.rejected")
+                .description("Asynchronous product creations refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Met la demande en file.
+     *
+     * @return le suivi (QUEUED), vide si la file est restée pleine ou si l'application s'arrête
+     */
+    public Optional<ProductIngestStatus> submit(ProductRequest request) {
+
+        requireNonNull(request, "ProductRequest must not be null");
+
+        if (!accepting) {
+            rejected.increment();
+            return Optional.empty();
+        }
+
+        ProductIngestStatus queued = ProductIngestStatus.builder()
+                .trackingId(UUID.randomUUID().toString())
+                .status(Status.QUEUED)
+                .build();
+        // enregistré avant la mise en file : un worker rapide trouve toujours l'entrée à mettre à jour
+        statuses.put(queued.getTrackingId(), queued);
+
+        if (!offer(new Pending(queued.getTrackingId(), request))) {
+            statuses.invalidate(queued.getTrackingId());
+            rejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(queued);
+    }
+
+    public Optional<ProductIngestStatus> status(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Attend au plus {@code timeout} une première demande puis persiste, en une transaction,
+     * celle-ci et celles déjà en file (jusqu'à {@code batchSize}).
+     *
+     * @return nombre de demandes traitées
+     */
+    public int processNext(long timeout, TimeUnit unit) throws InterruptedException {
+        Pending first = queue.poll(timeout, unit);
+        if (first == null) {
+            return 0;
+        }
+        List<Pending> batch = new ArrayList<>(Math.min(properties.batchSize(), queue.size() + 1));
+        batch.add(first);
+        queue.drainTo(batch, properties.batchSize() - 1);
+
+        try {
+            List<Product> products = new ArrayList<>(batch.size());
+            batch.forEach(p -> products.add(productMapper.toEntity(p.request())));
+            List<Product> saved = batchWriter.persist(products);
+            for (int i = 0; i < batch.size(); i++) {
+                update(batch.get(i), Status.CREATED, saved.get(i).getId(), null);
+            }
+        } catch (RuntimeException ex) {
+            // le lot entier est annulé par la transaction
+            log.warn("Unable to persist {} queued products", batch.size(), ex);
+            batch.forEach(p -> update(p, Status.FAILED, null, "Unable to create product"));
+        }
+        return batch.size();
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        AtomicInteger index = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.workers(),
+                r -> Thread.ofPlatform().name("product-ingest-" + index.getAndIncrement()).unstarted(r));
+        for (int i = 0; i < properties.workers(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(properties.drainTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Ingest queue not drained after {}, {} product creations dropped",
+                        properties.drainTimeout(), queue.size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void work() {
+        // après stop() : on continue tant qu'il reste des demandes en file
+        while (running || !queue.isEmpty()) {
+            try {
+                processNext(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Ingest worker failure", ex);
+            }
+        }
+    }
+
+    private boolean offer(Pending pending) {
+        try {
+            return queue.offer(pending, properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void update(Pending pending, Status status, Long id, String error) {
+        statuses.put(pending.trackingId(), ProductIngestStatus.builder()
+                .trackingId(pending.trackingId())
+                .status(status)
+                .id(id)
+                .error(error)
+                .build());
+    }
+
+    private record Pending(String trackingId, ProductRequest request) {
+    }
+}
@@ -0,0 +1,142 @@
+package albr.com.tax.service;
+
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.dto.ProductPage;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Listing des produits pour les synchronisations : pagination par clé sur l'id,
+ * ou flux complet lu au curseur et écrit au fil de l'eau.
+ * Avec les prix, la stratégie d'un pays est résolue une fois par page (ou une fois pour tout le flux).
+ */
+@Service
+public class ProductListingService {
+
+    private final ProductRepository repository;
+    private final ProductMapper productMapper;
+    private final TaxService taxService;
+    private final TaxQuoteCache quoteCache;
+    private final EntityManager entityManager;
+    private final PrecomputedPrices precomputedPrices;
+
+    public ProductListingService(ProductRepository repository, ProductMapper productMapper, TaxService taxService,
+                                 TaxQuoteCache quoteCache, EntityManager entityManager,
+                                 PrecomputedPrices precomputedPrices) {
+        this.repository = repository;
+        this.productMapper = productMapper;
+        this.taxService = taxService;
+        this.quoteCache = quoteCache;
+        this.entityManager = entityManager;
+        this.precomputedPrices = precomputedPrices;
+    }
+
+    /**
+     * @param afterId    dernier id de la page précédente ({@code 0} pour la première page)
+     * @param country    filtre optionnel
+     * @param withPrices calcule {@code finalPrice} comme {@code /final-price-tax-country}
+     */
+    @Transactional(readOnly = true)
+    public ProductPage page(long afterId, int limit, Country country, boolean withPrices) {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+
+        List<Product> products = country == null
+                ? repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit))
+                : repository.findByCountryAndIdGreaterThanOrderByIdAsc(country, afterId, Limit.of(limit));
+
+        Pricer pricer = withPrices ? new Pricer() : null;
+        List<ProductResponse> items = new ArrayList<>(products.size());
+        for (Product product : products) {
+            items.add(toResponse(product, pricer));
+        }
+
+        // page pleine : il peut rester des lignes après le dernier id
+        Long nextAfterId = products.size() == limit ? products.get(products.size() - 1).getId() : null;
+        return new ProductPage(items, nextAfterId);
+    }
+
+    /**
+     * Parcourt tous les produits d'id supérieur à {@code afterId}, par ordre d'id, et les passe à {@code sink}
+     * un par un. Chaque entité est détachée une fois écrite : la mémoire ne dépend pas du nombre de lignes.
+     *
+     * @return le nombre de produits écrits
+     */
+    @Transactional(readOnly = true)
+    public long stream(long afterId, Country country, boolean withPrices, Consumer<ProductResponse> sink) {
+
+        Pricer pricer = withPrices ? new Pricer() : null;
+        return scan(afterId, country, product -> sink.accept(toResponse(product, pricer)));
+    }
+
+    /**
+     * Même parcours que {@link #stream}, sur les entités : {@code sink} ne doit pas les garder au-delà
+     * de ce qu'il lui faut (elles sont détachées après l'appel, mais restent lisibles).
+     *
+     * @return le nombre de produits parcourus
+     */
+    @Transactional(readOnly = true)
+    public long scan(long afterId, Country country, Consumer<? super Product> sink) {
+
+        long read = 0;
+
+        try (Stream<Product> products = country == null
+                ? repository.streamByIdGreaterThanOrderByIdAsc(afterId)
+                : repository.streamByCountryAndIdGreaterThanOrderByIdAsc(country, afterId)) {
+
+            for (Product product : (Iterable<Product>) products::iterator) {
+                sink.accept(product);
+                entityManager.detach(product);
+                read++;
+            }
+        }
+        return read;
+    }
+
+    private ProductResponse toResponse(Product product, Pricer pricer) {
+        ProductResponse response = productMapper.toResponse(product);
+        if (pricer != null) {
+            response.setFinalPrice(pricer.price(product));
+        }
+        return response;
+    }
+
+    /**
+     * Stratégies résolues à la demande, une fois par pays, pour la durée d'une page ou d'un flux.
+     */
+    private final class Pricer {
+
+        private final Map<Country, TaxStrategy> strategies = new EnumMap<>(Country.class);
+
+        BigDecimal price(Product product) {
+            BigDecimal stored = precomputedPrices.currentTax(product);
+            if (stored != null) {
+                return stored;
+            }
+            if (product.getCountry() == null) {
+                throw new IllegalArgumentException("Product has no country, id=" + product.getId());
+            }
+            TaxStrategy strategy = strategies.computeIfAbsent(product.getCountry(),
+                    c -> taxService.findTaxStrategy(product));
+            // même valeur que getProductTTC / getProductsTTC
+            return quoteCache.quote(product, strategy).tax();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package albr.com.tax.service;
+
+import albr.com.tax.config.ReadCoalescingProperties;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Chargement des produits par id avec regroupement des lectures simultanées ("single-flight").
+ * <ul>
+ *     <li>un même id demandé par plusieurs requêtes en même temps n'est lu qu'une fois : les suivantes
+ *     attendent le chargement en cours ;</li>
+ *     <li>des ids distincts demandés dans la même fenêtre ({@code window}) partent dans une seule requête IN.</li>
+ * </ul>
+ * Pas de thread dédié : la première requête d'un lot attend la fin de la fenêtre puis exécute la requête
+ * pour tout le lot ; celle qui remplit le lot l'exécute tout de suite. Un lot d'un seul id passe par
+ * {@link ProductRepository#findSummaryById}.
+ * Métriques : app.read.coalesced, app.read.batch.size.
+ */
+@Component
+public class ProductLoader {
+
+    private final ProductRepository repository;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Counter coalesced;
+    private final DistributionSummary batchSizes;
+
+    private final ConcurrentMap<Long, CompletableFuture<Optional<ProductSummary>>> inFlight =
+            new ConcurrentHashMap<>();
+    // lot en cours de remplissage, null entre deux lots ; protégé par this
+    private Batch open;
+
+    public ProductLoader(ProductRepository repository, ReadCoalescingProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.enabled = properties.enabled();
+        this.windowNanos = properties.window().toNanos();
+        this.maxBatchSize = properties.maxBatchSize();
+
+        this.coalesced = Counter.builder("app.read.coalesced")
+                .description("Product reads served by a load already in flight for the same id")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("app.read.batch.size")
+                .description("Distinct product ids per database read")
+                .register(meterRegistry);
+    }
+
+    public Optional<ProductSummary> load(Long id) {
+
+        requireNonNull(id, "Product id must not be null");
+
+        if (!enabled) {
+            return repository.findSummaryById(id);
+        }
+
+        CompletableFuture<Optional<ProductSummary>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<ProductSummary>> existing = inFlight.putIfAbsent(id, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        Batch batch;
+        boolean leader = false;
+        boolean full = false;
+        synchronized (this) {
+            if (open == null) {
+                open = new Batch();
+                leader = true;
+            }
+            batch = open;
+            batch.futures.put(id, mine);
+            if (batch.futures.size() >= maxBatchSize) {
+                open = null;
+                full = true;
+            }
+        }
+
+        if (full) {
+            run(batch);
+        } else if (leader) {
+            awaitWindow(mine);
+            if (detach(batch)) {
+                run(batch);
+            }
+        }
+        return await(mine);
+    }
+
+    // rend la main dès que le lot a été envoyé par la requête qui l'a rempli
+    private void awaitWindow(CompletableFuture<Optional<ProductSummary>> mine) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        try {
+            mine.get(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ex) {
+            // fenêtre écoulée, ou lot déjà envoyé (erreur relancée par await)
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // true si le lot n'a pas déjà été envoyé par la requête qui l'a rempli
+    private synchronized boolean detach(Batch batch) {
+        if (open != batch) {
+            return false;
+        }
+        open = null;
+        return true;
+    }
+
+    private void run(Batch batch) {
+        Map<Long, CompletableFuture<Optional<ProductSummary>>> futures = batch.futures;
+        batchSizes.record(futures.size());
+        try {
+            Map<Long, ProductSummary> byId = new HashMap<>(futures.size() * 2);
+            if (futures.size() == 1) {
+                Long id = futures.keySet().iterator().next();
+                repository.findSummaryById(id).ifPresent(p -> byId.put(id, p));
+            } else {
+                repository.findSummariesByIdIn(futures.keySet()).forEach(p -> byId.put(p.getId(), p));
+            }
+            // retiré avant d'être complété : une lecture qui arrive ensuite relit la base
+            futures.forEach((id, future) -> {
+                inFlight.remove(id, future);
+                future.complete(Optional.ofNullable(byId.get(id)));
+            });
+        } catch (Throwable ex) {
+            // y compris les Error : un futur jamais complété bloquerait toutes les lectures suivantes de ces ids
+            futures.forEach((id, future) -> {
+                inFlight.remove(id, future);
+                future.completeExceptionally(ex);
+            });
+        }
+    }
+
+    private static Optional<ProductSummary> await(CompletableFuture<Optional<ProductSummary>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            switch (ex.getCause()) {
+                case RuntimeException cause -> throw cause;
+                case Error cause -> throw cause;
+                case null, default -> throw ex;
+            }
+        }
+    }
+
+    private static final class Batch {
+        // ordre d'arrivée conservé pour le IN (...)
+        private final Map<Long, CompletableFuture<Optional<ProductSummary>>> futures = new LinkedHashMap<>();
+    }
+}
@@ -1,15 +1,23 @@
 package albr.com.tax.service;
 
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.cache.TaxQuoteCache;
 import albr.com.tax.dto.ProductRequest;
 import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
 import albr.com.tax.exception.ProductCreationException;
 import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.metrics.PricingMetrics;
+import albr.com.tax.metrics.PricingMetrics.Stage;
 import albr.com.tax.repository.Product;
 import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.*;
 
 import static java.util.Objects.requireNonNull;
 
@@ -20,11 +28,26 @@ public class ProductService {
     private final ProductRepository repository;
     private final ProductMapper productMapper;
     private final TaxService taxService;
-
-    public ProductService(ProductRepository repository, ProductMapper productMapper, TaxService taxService) {
+    private final ProductCache productCache;
+    private final TaxQuoteCache quoteCache;
+    private final PricingMetrics pricingMetrics;
+    private final PrecomputedPrices precomputedPrices;
+    private final ProductLoader productLoader;
+    private final ColumnarProductStore columnarStore;
+
+    public ProductService(ProductRepository repository, ProductMapper productMapper, TaxService taxService,
+                          ProductCache productCache, TaxQuoteCache quoteCache, PricingMetrics pricingMetrics,
+                          PrecomputedPrices precomputedPrices, ProductLoader productLoader,
+                          ColumnarProductStore columnarStore) {
         this.repository = repository;
         this.productMapper = productMapper;
         this.taxService = taxService;
+        this.productCache = productCache;
+        this.quoteCache = quoteCache;
+        this.pricingMetrics = pricingMetrics;
+        this.precomputedPrices = precomputedPrices;
+        this.productLoader = productLoader;
+        this.columnarStore = columnarStore;
     }
 
     public ProductResponse add(ProductRequest request) throws ProductCreationException {
@@ -38,8 +61,11 @@ public class ProductService {
             if (product.getPrice().signum() < 0) {
                 throw new IllegalArgumentException("Product price cannot be negative");
             }
+            precomputedPrices.apply(product);
 
             Product savedProduct = repository.save(product);
+            productCache.invalidate(savedProduct.getId());
+            columnarStore.put(savedProduct);
 
             return productMapper.toResponse(savedProduct);
 
@@ -56,12 +82,12 @@ public class ProductService {
 
         requireNonNull(productId, "Product id must not be null");
 
-        Product product = repository.findById(productId)
+        ProductSummary product = load(productId)
                 .orElseThrow(() ->
                         new IllegalArgumentException("Product not found with id=" + productId)
                 );
 
-        return productMapper.toResponse(product);
+        return productMapper.summaryToResponse(product);
 
     }
 
@@ -69,17 +95,105 @@ public class ProductService {
 
         requireNonNull(productId, "Product id must not be null");
 
-        // verifier existence produit
-        Product productExist = repository.findById(productId)
-                .orElseThrow(() ->
-                        new IllegalArgumentException("Product not found with id=" + productId));
+        // étape en cours, pour attribuer une éventuelle erreur
+        Stage stage = Stage.LOAD;
+        long start = System.nanoTime();
+        try {
+            // verifier existence produit (lectures simultanées regroupées par le loader)
+            ProductSummary productExist = load(productId)
+                    .orElseThrow(() ->
+                            new IllegalArgumentException("Product not found with id=" + productId));
+            long loaded = System.nanoTime();
+
+            // cotation précalculée à jour : simple lecture, ni stratégie ni calcul
+            BigDecimal total = precomputedPrices.currentTax(productExist);
+            long resolved = loaded;
+            if (total == null) {
+                stage = Stage.RESOLVE;
+                TaxStrategy taxStrategy = taxService.findTaxStrategy(productExist);
+                resolved = System.nanoTime();
+
+                stage = Stage.COMPUTE;
+                total = quoteCache.quote(productExist, taxStrategy).tax();
+            }
+            long computed = System.nanoTime();
+
+            // map product
+            stage = Stage.MAP;
+            ProductResponse response = productMapper.summaryToResponse(productExist);
+            response.setFinalPrice(total);
+
+            pricingMetrics.recordQuote(productExist.getCountry(), start, loaded, resolved, computed, System.nanoTime());
+            return response;
+        } catch (RuntimeException ex) {
+            pricingMetrics.recordError(stage, ex);
+            throw ex;
+        }
+    }
+
+    // modèle en colonnes s'il est actif et contient l'id, sinon cache produits puis base
+    private Optional<ProductSummary> load(Long productId) {
+        return columnarStore.find(productId).or(() -> productCache.get(productId, productLoader::load));
+    }
+
+    /* =========================
+     BATCH QUOTE (panier)
+     ========================= */
+
+    /**
+     * Calcule le prix de plusieurs produits en un seul appel :
+     * une requête pour charger les produits absents du cache, une résolution de stratégie par pays.
+     * Les réponses sont rendues dans l'ordre des ids demandés (doublons compris).
+     */
+    public List<ProductResponse> getProductsTTC(List<Long> productIds) {
 
-        TaxStrategy taxStrategy = taxService.findTaxStrategy(productExist);
-        BigDecimal total = taxStrategy.calculateTax(productExist);
-        // map product
+        requireNonNull(productIds, "Product ids must not be null");
 
-        ProductResponse response = productMapper.toResponse(productExist);
-        response.setFinalPrice(total);
-        return response;
+        Set<Long> distinctIds = new LinkedHashSet<>(productIds);
+        if (distinctIds.contains(null)) {
+            throw new NullPointerException("Product id must not be null");
+        }
+
+        // les produits déjà en cache ne sont pas relus ; les autres sont chargés en une requête
+        Map<Long, ProductSummary> productsById = productCache.getAll(distinctIds, repository::findSummariesByIdIn);
+
+        if (productsById.size() != distinctIds.size()) {
+            Set<Long> missing = new LinkedHashSet<>(distinctIds);
+            missing.removeAll(productsById.keySet());
+            throw new IllegalArgumentException("Product not found with id=" + missing);
+        }
+        Collection<ProductSummary> products = productsById.values();
+
+        // regroupement par pays : la stratégie n'est résolue qu'une fois par groupe
+        Map<Country, List<ProductSummary>> productsByCountry = new EnumMap<>(Country.class);
+        for (ProductSummary product : products) {
+            if (product.getCountry() == null) {
+                throw new IllegalArgumentException("Product has no country, id=" + product.getId());
+            }
+            productsByCountry.computeIfAbsent(product.getCountry(), c -> new ArrayList<>()).add(product);
+        }
+
+        Map<Long, ProductResponse> responsesById = new HashMap<>(products.size() * 2);
+        productsByCountry.forEach((country, group) -> {
+            TaxStrategy taxStrategy = null;
+            for (ProductSummary product : group) {
+                BigDecimal tax = precomputedPrices.currentTax(product);
+                if (tax == null) {
+                    if (taxStrategy == null) {
+                        taxStrategy = taxService.findTaxStrategy(product);
+                    }
+                    tax = quoteCache.quote(product, taxStrategy).tax();
+                }
+                ProductResponse response = productMapper.summaryToResponse(product);
+                response.setFinalPrice(tax);
+                responsesById.put(product.getId(), response);
+            }
+        });
+
+        List<ProductResponse> responses = new ArrayList<>(productIds.size());
+        for (Long id : productIds) {
+            responses.add(responsesById.get(id));
+        }
+        return responses;
     }
 }
@@ -0,0 +1,403 @@
+package albr.com.tax.service;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.BulkProperties;
+import albr.com.tax.config.ReactiveProperties;
+import albr.com.tax.dto.ProductBulkResult;
+import albr.com.tax.dto.ProductBulkResult.Status;
+import albr.com.tax.dto.ProductPage;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.exception.ProductCreationException;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.metrics.PricingMetrics;
+import albr.com.tax.metrics.PricingMetrics.Stage;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.repository.ReactiveProductRepository;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Équivalent non bloquant de {@link ProductService}, {@link ProductListingService} et {@link ProductBulkService}
+ * pour la pile réactive : lectures et écritures par {@link ReactiveProductRepository}, cotation par la
+ * {@link TaxStrategy} du pays dans le pipeline (calcul en mémoire, sans I/O).
+ * <p>
+ * Mêmes résultats que la pile servlet : cache produits et modèle en colonnes consultés avant la base,
+ * cotation précalculée servie si elle est à jour, une résolution de stratégie par pays et par lot.
+ * Les flux (cotation en lot, listing, import en masse) avancent à la demande du client :
+ * au plus une page de {@code app.reactive.page-size} lignes est lue d'avance.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository repository;
+    private final ProductMapper productMapper;
+    private final TaxService taxService;
+    private final ProductCache productCache;
+    private final TaxQuoteCache quoteCache;
+    private final ColumnarProductStore columnarStore;
+    private final PrecomputedPrices precomputedPrices;
+    private final PricingMetrics pricingMetrics;
+    private final TaxRuleRegistry registry;
+    private final Validator validator;
+    private final int pageSize;
+    private final int batchSize;
+
+    public ReactiveProductService(ReactiveProductRepository repository, ProductMapper productMapper,
+                                  TaxService taxService, ProductCache productCache, TaxQuoteCache quoteCache,
+                                  ColumnarProductStore columnarStore, PrecomputedPrices precomputedPrices,
+                                  PricingMetrics pricingMetrics, TaxRuleRegistry registry, Validator validator,
+                                  ReactiveProperties properties, BulkProperties bulkProperties) {
+        this.repository = repository;
+        this.productMapper = productMapper;
+        this.taxService = taxService;
+        this.productCache = productCache;
+        this.quoteCache = quoteCache;
+        this.columnarStore = columnarStore;
+        this.precomputedPrices = precomputedPrices;
+        this.pricingMetrics = pricingMetrics;
+        this.registry = registry;
+        this.validator = validator;
+        this.pageSize = properties.pageSize();
+        this.batchSize = bulkProperties.batchSize();
+    }
+
+    /* =========================
+     ADD
+     ========================= */
+
+    public Mono<ProductResponse> add(ProductRequest request) {
+
+        requireNonNull(request, "ProductRequest must not be null");
+
+        return Mono.fromCallable(() -> {
+                    Product product = productMapper.toEntity(request);
+                    if (product.getPrice().signum() < 0) {
+                        throw new IllegalArgumentException("Product price cannot be negative");
+                    }
+                    precomputedPrices.apply(product);
+                    return product;
+                })
+                .flatMap(repository::insert)
+                .doOnNext(columnarStore::put)
+                .map(productMapper::toResponse)
+                .onErrorMap(DataAccessException.class,
+                        ex -> new ProductCreationException("Unable to create product", ex));
+    }
+
+    /* =========================
+     GET PRODUCT + TAX
+     ========================= */
+
+    public Mono<ProductResponse> getProduct(Long productId) {
+
+        requireNonNull(productId, "Product id must not be null");
+
+        return load(productId).map(productMapper::summaryToResponse);
+    }
+
+    public Mono<ProductResponse> getProductTTC(Long productId) {
+
+        requireNonNull(productId, "Product id must not be null");
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return load(productId)
+                    .doOnError(ex -> pricingMetrics.recordError(Stage.LOAD, ex))
+                    .map(product -> quote(product, start));
+        });
+    }
+
+    // même découpage en étapes que ProductService.getProductTTC, pour les mêmes métriques
+    private ProductResponse quote(ProductSummary product, long start) {
+        Stage stage = Stage.LOAD;
+        long loaded = System.nanoTime();
+        try {
+            BigDecimal total = precomputedPrices.currentTax(product);
+            long resolved = loaded;
+            if (total == null) {
+                stage = Stage.RESOLVE;
+                TaxStrategy taxStrategy = taxService.findTaxStrategy(product);
+                resolved = System.nanoTime();
+
+                stage = Stage.COMPUTE;
+                total = quoteCache.quote(product, taxStrategy).tax();
+            }
+            long computed = System.nanoTime();
+
+            stage = Stage.MAP;
+            ProductResponse response = productMapper.summaryToResponse(product);
+            response.setFinalPrice(total);
+
+            pricingMetrics.recordQuote(product.getCountry(), start, loaded, resolved, computed, System.nanoTime());
+            return response;
+        } catch (RuntimeException ex) {
+            pricingMetrics.recordError(stage, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * ETag de {@code GET /api/products/{id}/}, même valeur que {@link ProductETags#product} ; vide si inconnu.
+     */
+    public Mono<String> productETag(Long id) {
+        return version(id).map(version -> ProductETags.productTag(id, version));
+    }
+
+    /**
+     * ETag du prix TTC, même valeur que {@link ProductETags#price} ; vide si inconnu.
+     */
+    public Mono<String> priceETag(Long id) {
+        return version(id).map(version -> ProductETags.priceTag(id, version, registry.current().version()));
+    }
+
+    private Mono<Long> version(Long id) {
+        return Mono.defer(() -> Mono.justOrEmpty(cached(id).map(ProductSummary::getVersion)))
+                .switchIfEmpty(Mono.defer(() -> repository.findVersionById(id)));
+    }
+
+    // cache produits, puis modèle en colonnes, puis base ; une ligne lue en base entre dans le cache
+    private Mono<ProductSummary> load(Long productId) {
+        return Mono.defer(() -> Mono.justOrEmpty(cached(productId)))
+                .switchIfEmpty(Mono.defer(() -> repository.findSummaryById(productId)
+                        .doOnNext(product -> productCache.putAll(List.of(product)))))
+                .switchIfEmpty(Mono.error(() ->
+                        new IllegalArgumentException("Product not found with id=" + productId)));
+    }
+
+    private Optional<ProductSummary> cached(Long id) {
+        return productCache.peek(id).or(() -> columnarStore.find(id));
+    }
+
+    /* =========================
+     BATCH QUOTE (panier)
+     ========================= */
+
+    /**
+     * Cotation d'un flux d'ids, réponses dans l'ordre reçu (doublons compris).
+     * Les ids sont traités par groupes de {@code app.reactive.page-size} : une requête {@code IN (...)} pour les
+     * produits absents des caches et une résolution de stratégie par pays et par groupe.
+     * Un id inconnu arrête le flux par une {@link IllegalArgumentException}.
+     */
+    public Flux<ProductResponse> getProductsTTC(Flux<Long> productIds) {
+
+        requireNonNull(productIds, "Product ids must not be null");
+
+        return productIds
+                .buffer(pageSize)
+                .concatMap(this::quoteAll, 1);
+    }
+
+    private Flux<ProductResponse> quoteAll(List<Long> productIds) {
+        Set<Long> distinctIds = new LinkedHashSet<>(productIds);
+        Map<Long, ProductSummary> productsById = new HashMap<>(distinctIds.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            cached(id).ifPresentOrElse(product -> productsById.put(id, product), () -> missing.add(id));
+        }
+
+        return repository.findSummariesByIdIn(missing)
+                .collectList()
+                .flatMapIterable(loaded -> {
+                    productCache.putAll(loaded);
+                    loaded.forEach(product -> productsById.put(product.getId(), product));
+                    if (productsById.size() != distinctIds.size()) {
+                        Set<Long> unknown = new LinkedHashSet<>(distinctIds);
+                        unknown.removeAll(productsById.keySet());
+                        throw new IllegalArgumentException("Product not found with id=" + unknown);
+                    }
+
+                    Pricer pricer = new Pricer();
+                    Map<Long, ProductResponse> responsesById = new HashMap<>(productsById.size() * 2);
+                    productsById.forEach((id, product) -> responsesById.put(id, pricer.priced(product)));
+
+                    List<ProductResponse> responses = new ArrayList<>(productIds.size());
+                    for (Long id : productIds) {
+                        responses.add(responsesById.get(id));
+                    }
+                    return responses;
+                });
+    }
+
+    /* =========================
+     LISTING
+     ========================= */
+
+    /**
+     * Même contrat que {@link ProductListingService#page}.
+     */
+    public Mono<ProductPage> page(long afterId, int limit, Country country, boolean withPrices) {
+
+        if (limit <= 0) {
+            return Mono.error(new IllegalArgumentException("Page limit must be positive"));
+        }
+
+        return repository.findSummariesAfter(afterId, country, limit)
+                .collectList()
+                .map(products -> {
+                    Pricer pricer = withPrices ? new Pricer() : null;
+                    List<ProductResponse> items = new ArrayList<>(products.size());
+                    for (ProductSummary product : products) {
+                        items.add(toResponse(product, pricer));
+                    }
+                    Long nextAfterId = products.size() == limit ? products.get(products.size() - 1).getId() : null;
+                    return new ProductPage(items, nextAfterId);
+                });
+    }
+
+    /**
+     * Tous les produits d'id supérieur à {@code afterId}, par ordre d'id.
+     * Lus par pages de {@code app.reactive.page-size} (pagination par clé) : au plus une page d'avance sur le
+     * client, et aucune connexion n'est gardée entre deux pages.
+     */
+    public Flux<ProductResponse> stream(long afterId, Country country, boolean withPrices) {
+        return Flux.defer(() -> {
+            Pricer pricer = withPrices ? new Pricer() : null;
+            return listAfter(afterId, country)
+                    .expand(products -> products.size() < pageSize
+                            ? Mono.empty()
+                            : listAfter(products.get(products.size() - 1).getId(), country))
+                    .concatMapIterable(products -> products, 1)
+                    .map(product -> toResponse(product, pricer));
+        });
+    }
+
+    private Mono<List<ProductSummary>> listAfter(long afterId, Country country) {
+        return repository.findSummariesAfter(afterId, country, pageSize).collectList();
+    }
+
+    private ProductResponse toResponse(ProductSummary product, Pricer pricer) {
+        return pricer != null ? pricer.priced(product) : productMapper.summaryToResponse(product);
+    }
+
+    /* =========================
+     BULK
+     ========================= */
+
+    /**
+     * Import en masse, mêmes résultats que {@link ProductBulkService#ingest} : un {@link ProductBulkResult}
+     * par élément reçu, éléments valides insérés par lots de {@code app.bulk.batch-size} (un lot par transaction).
+     * Un élément illisible arrête la lecture (le décodeur ne peut pas reprendre après lui) ; les lots déjà lus
+     * sont quand même enregistrés.
+     */
+    public Flux<ProductBulkResult> ingest(Flux<ProductRequest> requests) {
+
+        requireNonNull(requests, "Bulk body must not be null");
+
+        return requests
+                .map(Item::readable)
+                // erreur du flux d'entrée = lecture impossible (le décodeur l'enveloppe selon la couche web)
+                .onErrorResume(ex -> Mono.just(Item.unreadable(ex)))
+                .index()
+                .buffer(batchSize)
+                .concatMap(this::persist, 1);
+    }
+
+    private Flux<ProductBulkResult> persist(List<Tuple2<Long, Item>> items) {
+        List<ProductBulkResult> rejected = new ArrayList<>();
+        List<Long> indexes = new ArrayList<>(items.size());
+        List<Product> products = new ArrayList<>(items.size());
+        for (Tuple2<Long, Item> indexed : items) {
+            long index = indexed.getT1();
+            Item item = indexed.getT2();
+            String error = item.error() != null ? item.error() : ProductBulkService.violations(validator, item.request());
+            if (error != null) {
+                rejected.add(result(index, Status.REJECTED, null, error));
+                continue;
+            }
+            indexes.add(index);
+            products.add(productMapper.toEntity(item.request()));
+        }
+
+        // cotation précalculée comme ProductBatchWriter : calcul hors des threads d'I/O
+        Flux<ProductBulkResult> created = Mono.fromCallable(() -> {
+                    precomputedPrices.applyAll(products);
+                    return products;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(repository::insertAll)
+                .collectList()
+                .doOnNext(columnarStore::putAll)
+                .flatMapIterable(saved -> {
+                    List<ProductBulkResult> results = new ArrayList<>(saved.size());
+                    for (int i = 0; i < saved.size(); i++) {
+                        results.add(result(indexes.get(i), Status.CREATED, saved.get(i).getId(), null));
+                    }
+                    return results;
+                })
+                // le lot entier est annulé par la transaction
+                .onErrorResume(DataAccessException.class, ex -> Flux.fromIterable(indexes)
+                        .map(index -> result(index, Status.FAILED, null, "Unable to create product")));
+        return Flux.fromIterable(rejected).concatWith(created);
+    }
+
+    private static ProductBulkResult result(long index, Status status, Long id, String error) {
+        return ProductBulkResult.builder()
+                .index(index)
+                .status(status)
+                .id(id)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Élément reçu : la demande, ou la raison pour laquelle elle n'a pas pu être lue.
+     */
+    private record Item(ProductRequest request, String error) {
+
+        static Item readable(ProductRequest request) {
+            return new Item(request, null);
+        }
+
+        static Item unreadable(Throwable ex) {
+            return new Item(null, "Malformed JSON: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        }
+    }
+
+    /**
+     * Stratégies résolues à la demande, une fois par pays, pour la durée d'un lot ou d'un flux.
+     */
+    private final class Pricer {
+
+        private final Map<Country, TaxStrategy> strategies = new EnumMap<>(Country.class);
+
+        ProductResponse priced(ProductSummary product) {
+            BigDecimal tax = precomputedPrices.currentTax(product);
+            if (tax == null) {
+                if (product.getCountry() == null) {
+                    throw new IllegalArgumentException("Product has no country, id=" + product.getId());
+                }
+                TaxStrategy strategy = strategies.computeIfAbsent(product.getCountry(),
+                        c -> taxService.findTaxStrategy(product));
+                tax = quoteCache.quote(product, strategy).tax();
+            }
+            ProductResponse response = productMapper.summaryToResponse(product);
+            response.setFinalPrice(tax);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package albr.com.tax.service;
+
+import albr.com.tax.config.TaxRulesProperties;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.engine.TaxRulesChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Table des règles de taxe en vigueur.
+ * Chargée au démarrage depuis {@code app.tax.rules.location} (échec du démarrage si elle est invalide),
+ * puis remplacée atomiquement par {@link #reload()} : une nouvelle table n'est publiée
+ * qu'une fois entièrement lue et compilée, sinon l'ancienne reste en place.
+ */
+@Service
+public class TaxRuleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TaxRuleRegistry.class);
+
+    private final Resource location;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<TaxRuleTable> current = new AtomicReference<>();
+
+    public TaxRuleRegistry(TaxRulesProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.location = properties.location();
+        this.eventPublisher = eventPublisher;
+        this.current.set(read());
+        log.info("Tax rules version {} loaded from {}", current().version(), location);
+    }
+
+    public TaxRuleTable current() {
+        return current.get();
+    }
+
+    /**
+     * Relit {@code app.tax.rules.location} et publie la nouvelle table.
+     *
+     * @throws IllegalArgumentException si le fichier est invalide (la table courante est conservée)
+     */
+    public TaxRuleTable reload() {
+        return swap(read());
+    }
+
+    /**
+     * Remplace la table courante et publie un {@link TaxRulesChangedEvent}.
+     */
+    public TaxRuleTable swap(TaxRuleTable table) {
+        requireNonNull(table, "Tax rule table must not be null");
+        TaxRuleTable previous = current.getAndSet(table);
+        log.info("Tax rules version {} replaced by {}", previous.version(), table.version());
+        eventPublisher.publishEvent(new TaxRulesChangedEvent(table.version()));
+        return table;
+    }
+
+    private TaxRuleTable read() {
+        try (InputStream in = location.getInputStream()) {
+            return TaxRuleTable.read(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read tax rules from " + location, ex);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package albr.com.tax.service;
 
-import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductView;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -12,11 +12,11 @@ public class TaxService {
         this.resolver = resolver;
     }
 
-    public TaxStrategy findTaxStrategy(Product product) {
+    public TaxStrategy findTaxStrategy(ProductView product) {
 
         if (product == null) {
             throw new IllegalArgumentException("Product must not be null");
         }
-        return resolver.resolve(product.getCountry().name());
+        return resolver.resolve(product.getCountry());
     }
 }
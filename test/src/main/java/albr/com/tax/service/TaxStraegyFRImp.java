@@ -1,23 +1,20 @@
 package albr.com.tax.service;
 
-import albr.com.tax.repository.Product;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
 @Component("FRANCE")
-public class TaxStraegyFRImp implements TaxStrategy {
-
-    private static final BigDecimal RATE = new BigDecimal("0.20");
+public class TaxStraegyFRImp extends CompiledTaxStrategy {
 
-    @Override
-    public BigDecimal calculateTax(Product product) {
-        return product.getPrice().multiply(RATE);
+    // règles livrées avec l'application (tax-rules.json)
+    public TaxStraegyFRImp() {
+        super(Country.FRANCE, TaxRuleTable::defaults);
     }
 
-    @Override
-    public BigDecimal calculateFinalPriceTTC(Product product) {
-        return product.getPrice().add(calculateTax(product));
+    @Autowired
+    public TaxStraegyFRImp(TaxRuleRegistry registry) {
+        super(Country.FRANCE, registry::current);
     }
 }
-
@@ -1,26 +1,20 @@
 package albr.com.tax.service;
 
-import albr.com.tax.repository.Product;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
 @Component("USA")
-public class TaxStraegyUSAImp implements TaxStrategy {
-
-
-    private static final BigDecimal RATE = new BigDecimal("0.07864");
-    private static final BigDecimal FIXED_FEE = new BigDecimal("3");
-
-    @Override
-    public BigDecimal calculateTax(Product product) {
-        return product.getPrice().multiply(RATE).add(FIXED_FEE);
+public class TaxStraegyUSAImp extends CompiledTaxStrategy {
 
+    // règles livrées avec l'application (tax-rules.json)
+    public TaxStraegyUSAImp() {
+        super(Country.USA, TaxRuleTable::defaults);
     }
 
-    @Override
-    public BigDecimal calculateFinalPriceTTC(Product product) {
-        return product.getPrice().add(calculateTax(product));
+    @Autowired
+    public TaxStraegyUSAImp(TaxRuleRegistry registry) {
+        super(Country.USA, registry::current);
     }
 }
-
@@ -1,16 +1,33 @@
 package albr.com.tax.service;
 
-import albr.com.tax.repository.Product;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductView;
 
 import java.math.BigDecimal;
 
 public interface TaxStrategy {
 
+    /**
+     * Pays servi par cette stratégie, utilisé par {@link TaxStrategyResolver} ;
+     * {@code null} pour une implémentation qui n'est rattachée à aucun pays (ignorée par le resolver).
+     */
+    default Country country() {
+        return null;
+    }
+
     /**
      * Calcule  le montant de la taxe
      */
-    BigDecimal calculateTax(Product product);
+    BigDecimal calculateTax(ProductView product);
 
-    BigDecimal calculateFinalPriceTTC(Product product);
+    BigDecimal calculateFinalPriceTTC(ProductView product);
+
+    /**
+     * Taxe et TTC ensemble ; les stratégies compilées les calculent en une seule passe.
+     */
+    default TaxQuote quote(ProductView product) {
+        return new TaxQuote(calculateTax(product), calculateFinalPriceTTC(product));
+    }
 
 }
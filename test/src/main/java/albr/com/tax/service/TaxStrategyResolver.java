@@ -1,20 +1,80 @@
 package albr.com.tax.service;
 
+import albr.com.tax.enumTax.Country;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Résout la stratégie d'un pays par simple accès tableau (indice = ordinal du {@link Country}).
+ * La table est construite une fois au démarrage à partir de {@link TaxStrategy#country()} :
+ * les beans qui ne déclarent pas de pays sont ignorés, et un pays sans stratégie fait échouer le boot.
+ */
 @Component
 public class TaxStrategyResolver {
 
-    private final Map<String, TaxStrategy> strategiesByCountry;
+    private static final Country[] COUNTRIES = Country.values();
+    private static final Map<String, Country> COUNTRIES_BY_NAME = Arrays.stream(COUNTRIES)
+            .collect(Collectors.toUnmodifiableMap(Country::name, Function.identity()));
 
+    private final TaxStrategy[] strategies = new TaxStrategy[COUNTRIES.length];
+
+    @Autowired
+    public TaxStrategyResolver(List<TaxStrategy> candidates) {
+        for (TaxStrategy strategy : candidates) {
+            Country country = strategy.country();
+            if (country == null) {
+                continue;
+            }
+            register(country, strategy);
+        }
+        requireComplete();
+    }
+
+    /**
+     * Table indexée par nom de pays (noms de beans) ; les clés qui ne sont pas des pays sont ignorées.
+     * Même contrôle que pour les beans : un pays sans stratégie fait échouer la construction.
+     */
     public TaxStrategyResolver(Map<String, TaxStrategy> strategiesByCountry) {
-        this.strategiesByCountry = strategiesByCountry;
+        strategiesByCountry.forEach((name, strategy) -> {
+            Country country = countryOf(name);
+            if (country != null && strategy != null) {
+                register(country, strategy);
+            }
+        });
+        requireComplete();
     }
 
-    public TaxStrategy resolve(String country) {
-        TaxStrategy strategy = strategiesByCountry.get(country);
+    private void register(Country country, TaxStrategy strategy) {
+        TaxStrategy previous = strategies[country.ordinal()];
+        if (previous != null && previous != strategy) {
+            throw new IllegalStateException("Several TaxStrategy beans for country=" + country
+                    + ": " + previous.getClass().getName() + ", " + strategy.getClass().getName());
+        }
+        strategies[country.ordinal()] = strategy;
+    }
+
+    private void requireComplete() {
+        Set<Country> missing = EnumSet.noneOf(Country.class);
+        for (Country country : COUNTRIES) {
+            if (strategies[country.ordinal()] == null) {
+                missing.add(country);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("No TaxStrategy found for countries=" + missing);
+        }
+    }
+
+    public TaxStrategy resolve(Country country) {
+        TaxStrategy strategy = country == null ? null : strategies[country.ordinal()];
 
         if (strategy == null) {
             throw new IllegalArgumentException(
@@ -24,4 +84,20 @@ public class TaxStrategyResolver {
 
         return strategy;
     }
+
+    public TaxStrategy resolve(String country) {
+        Country resolved = countryOf(country);
+
+        if (resolved == null) {
+            throw new IllegalArgumentException(
+                    "No TaxStrategy found for country=" + country
+            );
+        }
+
+        return resolve(resolved);
+    }
+
+    private static Country countryOf(String name) {
+        return name == null ? null : COUNTRIES_BY_NAME.get(name);
+    }
 }
@@ -0,0 +1,27 @@
+-- Schéma des profils sans génération DDL (prod) ; doit rester aligné sur l'entité Product
+-- (vérifié au démarrage par hibernate.ddl-auto=validate).
+create table if not exists products (
+    id                bigint not null,
+    country           enum ('CANADA', 'FRANCE', 'USA'),
+    name              varchar(255),
+    price             numeric(38, 2),
+    tax_amount        numeric(38, 8),
+    final_price       numeric(38, 8),
+    tax_rules_version varchar(32),
+    version           bigint default 0 not null,
+    primary key (id)
+);
+
+-- bases créées avant les cotations précalculées
+alter table products add column if not exists tax_amount numeric(38, 8);
+alter table products add column if not exists final_price numeric(38, 8);
+alter table products add column if not exists tax_rules_version varchar(32);
+-- bases créées avant les ETag
+alter table products add column if not exists version bigint default 0 not null;
+
+-- (country, id) : filtre par pays + pagination par clé sur l'id
+create index if not exists idx_products_country on products (country, id);
+create index if not exists idx_products_name on products (name);
+
+-- allocationSize = 50 côté JPA
+create sequence if not exists products_seq start with 1 increment by 50;
@@ -0,0 +1,95 @@
+package albr.com.benchmark;
+
+import albr.com.benchmark.BenchmarkFixtures.CountryMix;
+import albr.com.tax.engine.BatchTaxEvaluator;
+import albr.com.tax.engine.FixedPoint;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.TaxStrategy;
+import albr.com.tax.service.TaxStrategyResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taxe de {@code size} produits (pays mélangés) : stratégie par produit (BigDecimal, chemin actuel)
+ * contre évaluation par lots sur des tableaux de prix en unités mineures groupés par pays, scalaire ou vectorielle.
+ * Le mode vectoriel demande {@code --add-modules jdk.incubator.vector} (passé par le profil jmh) ;
+ * sans le module, {@code vectorBatch} mesure le chemin scalaire.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchTaxBenchmark {
+
+    private static final Country[] COUNTRIES = Country.values();
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Product> products;
+    private TaxStrategy[] strategies;
+
+    private TaxRuleTable table;
+    private long[][] pricesByCountry;
+    private long[][] taxesByCountry;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkFixtures.products(size, new BigDecimal("19.99"), CountryMix.MIXED);
+        TaxStrategyResolver resolver = BenchmarkFixtures.resolver();
+        strategies = new TaxStrategy[COUNTRIES.length];
+        for (Country country : COUNTRIES) {
+            strategies[country.ordinal()] = resolver.resolve(country);
+        }
+
+        table = TaxRuleTable.defaults();
+        int[] counts = new int[COUNTRIES.length];
+        products.forEach(p -> counts[p.getCountry().ordinal()]++);
+        pricesByCountry = new long[COUNTRIES.length][];
+        taxesByCountry = new long[COUNTRIES.length][];
+        for (Country country : COUNTRIES) {
+            pricesByCountry[country.ordinal()] = new long[counts[country.ordinal()]];
+            taxesByCountry[country.ordinal()] = new long[counts[country.ordinal()]];
+        }
+        int[] next = new int[COUNTRIES.length];
+        for (Product p : products) {
+            int c = p.getCountry().ordinal();
+            pricesByCountry[c][next[c]++] = FixedPoint.toMinor(p.getPrice(), RoundingMode.HALF_EVEN);
+        }
+        System.out.printf("%n[size=%d] vectorized=%s%n", size, BatchTaxEvaluator.best().vectorized());
+    }
+
+    @Benchmark
+    public void perObjectStrategy(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(strategies[product.getCountry().ordinal()].calculateTax(product));
+        }
+    }
+
+    @Benchmark
+    public long[][] scalarBatch() {
+        return evaluate(BatchTaxEvaluator.scalar());
+    }
+
+    @Benchmark
+    public long[][] vectorBatch() {
+        return evaluate(BatchTaxEvaluator.best());
+    }
+
+    private long[][] evaluate(BatchTaxEvaluator evaluator) {
+        for (Country country : COUNTRIES) {
+            long[] prices = pricesByCountry[country.ordinal()];
+            evaluator.taxesMinor(table, country, prices, taxesByCountry[country.ordinal()], prices.length);
+        }
+        return taxesByCountry;
+    }
+}
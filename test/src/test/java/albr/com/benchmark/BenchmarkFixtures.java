@@ -0,0 +1,121 @@
+package albr.com.benchmark;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.config.ReadCoalescingProperties;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.metrics.PricingMetrics;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mapstruct.factory.Mappers;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Câblage commun des benchmarks : vrais mapper / stratégies / services,
+ * repository simulé en mémoire (pas de base, pas de Mockito sur le chemin mesuré).
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * Répartition des pays dans un jeu de produits.
+     */
+    public enum CountryMix {
+        FRANCE_ONLY, USA_ONLY, CANADA_ONLY, MIXED;
+
+        Country countryAt(int i) {
+            return switch (this) {
+                case FRANCE_ONLY -> Country.FRANCE;
+                case USA_ONLY -> Country.USA;
+                case CANADA_ONLY -> Country.CANADA;
+                case MIXED -> Country.values()[i % Country.values().length];
+            };
+        }
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    static TaxStrategyResolver resolver() {
+        return new TaxStrategyResolver(List.of(
+                new TaxStraegyFRImp(),
+                new TaxStraegyCANImp(),
+                new TaxStraegyUSAImp()
+        ));
+    }
+
+    static ProductMapper mapper() {
+        return Mappers.getMapper(ProductMapper.class);
+    }
+
+    /**
+     * @param caches {@code false} pour mesurer le chemin de calcul complet à chaque appel
+     */
+    static ProductService productService(ProductRepository repository, boolean caches) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new ProductService(repository, mapper(), new TaxService(resolver()),
+                new ProductCache(new ProductCacheProperties(caches, 100_000, Duration.ofHours(1)), registry),
+                new TaxQuoteCache(new QuoteCacheProperties(caches, 100_000), registry),
+                new PricingMetrics(registry),
+                new PrecomputedPrices(new PrecomputeProperties(false, 500), TaxRuleTable::defaults),
+                new ProductLoader(repository, new ReadCoalescingProperties(caches, Duration.ZERO, 200), registry),
+                new ColumnarProductStore(new ColumnarReadProperties(false, 1000), repository, registry));
+    }
+
+    /**
+     * Produits d'ids 1..count, prix autour de {@code basePrice}, pays selon {@code mix}.
+     */
+    static List<Product> products(int count, BigDecimal basePrice, CountryMix mix) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product p = new Product("product-" + i, basePrice.add(BigDecimal.valueOf(i % 100, 2)), mix.countryAt(i));
+            p.setId(i + 1L);
+            products.add(p);
+        }
+        return products;
+    }
+
+    /**
+     * Repository en mémoire : seules findSummaryById et findSummariesByIdIn sont supportées.
+     */
+    @SuppressWarnings("unchecked")
+    static ProductRepository inMemoryRepository(List<Product> products) {
+        Map<Long, ProductSummary> byId = new HashMap<>();
+        products.forEach(p -> byId.put(p.getId(), new ProductSummary(p.getId(), p.getName(), p.getPrice(),
+                p.getCountry(), p.getTaxAmount(), p.getTaxRulesVersion(), p.getVersion())));
+
+        return (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findSummaryById" -> Optional.ofNullable(byId.get((Long) args[0]));
+                    case "findSummariesByIdIn" -> {
+                        List<ProductSummary> found = new ArrayList<>();
+                        for (Long id : (Iterable<Long>) args[0]) {
+                            ProductSummary p = byId.get(id);
+                            if (p != null) {
+                                found.add(p);
+                            }
+                        }
+                        yield found;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryProductRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,96 @@
+package albr.com.benchmark;
+
+import albr.com.tax.TestApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application complète (Tomcat + JPA contre Netty + R2DBC, profil "reactive") sous {@code @Threads} clients
+ * HTTP concurrents : lecture du prix TTC d'un produit et cotation d'un panier de {@value #CART_SIZE} ids.
+ * Chaque essai démarre l'application sur un port libre avec {@value #PRODUCTS} produits créés par l'API.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(128)
+@State(Scope.Benchmark)
+public class HttpStackBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int CART_SIZE = 50;
+    private static final String[] COUNTRIES = {"FRANCE", "CANADA", "USA"};
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TestApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN");
+        if ("reactive".equals(stack)) {
+            builder.profiles("reactive");
+        }
+        context = builder.run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/products";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            String body = "{\"name\":\"p" + i + "\",\"price\":" + (10 + i % 90) + ".99,\"country\":\""
+                    + COUNTRIES[i % COUNTRIES.length] + "\"}";
+            String created = send(HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            if (i == 0) {
+                firstId = Long.parseLong(created.replaceAll("(?s).*\"id\"\\s*:\\s*(\\d+).*", "$1"));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String productTTC() throws Exception {
+        long id = firstId + ThreadLocalRandom.current().nextInt(PRODUCTS);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id + "/final-price-tax-country")).GET());
+    }
+
+    @Benchmark
+    public String cartQuote() throws Exception {
+        StringJoiner ids = new StringJoiner(",", "[", "]");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < CART_SIZE; i++) {
+            ids.add(Long.toString(firstId + random.nextInt(PRODUCTS)));
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/final-price-tax-country"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ids.toString())));
+    }
+
+    private String send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = client.send(request.header("Accept", "application/json").build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
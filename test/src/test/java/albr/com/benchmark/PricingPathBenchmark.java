@@ -0,0 +1,73 @@
+package albr.com.benchmark;
+
+import albr.com.benchmark.BenchmarkFixtures.CountryMix;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemin complet de cotation (ProductService, repository en mémoire) :
+ * N appels getProductTTC contre un appel getProductsTTC pour le même panier.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingPathBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int cartSize;
+
+    @Param({"FRANCE_ONLY", "MIXED"})
+    public CountryMix countryMix;
+
+    @Param({"19.99", "12499.00"})
+    public String basePrice;
+
+    // caches produits et cotations
+    @Param({"false", "true"})
+    public boolean caches;
+
+    private ProductService productService;
+    private ProductMapper mapper;
+    private List<Product> products;
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkFixtures.products(cartSize, new BigDecimal(basePrice), countryMix);
+        productService = BenchmarkFixtures.productService(BenchmarkFixtures.inMemoryRepository(products), caches);
+        mapper = BenchmarkFixtures.mapper();
+        ids = new ArrayList<>(cartSize);
+        products.forEach(p -> ids.add(p.getId()));
+    }
+
+    @Benchmark
+    public void singleQuotes(Blackhole bh) {
+        for (Long id : ids) {
+            bh.consume(productService.getProductTTC(id));
+        }
+    }
+
+    @Benchmark
+    public List<ProductResponse> batchQuote() {
+        return productService.getProductsTTC(ids);
+    }
+
+    @Benchmark
+    public void mapperToResponse(Blackhole bh) {
+        for (Product product : products) {
+            bh.consume(mapper.toResponse(product));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package albr.com.benchmark;
+
+import albr.com.benchmark.BenchmarkFixtures.CountryMix;
+import albr.com.tax.config.CborConfig;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodage d'une réponse de cotation (panier de {@code cartSize} produits) : JSON, CBOR avec les montants
+ * en fractions décimales (encodage Jackson par défaut) et CBOR avec les montants en entiers à l'échelle fixe
+ * (application/cbor de l'API). Les tailles des trois charges utiles sont affichées au démarrage de chaque fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+    @Param({"1", "100"})
+    public int cartSize;
+
+    private ObjectMapper json;
+    private ObjectMapper cborDecimal;
+    private ObjectMapper cborScaled;
+    private JavaType responseList;
+
+    private List<ProductResponse> responses;
+    private byte[] jsonPayload;
+    private byte[] cborDecimalPayload;
+    private byte[] cborScaledPayload;
+
+    @Setup
+    public void setUp() {
+        json = JsonMapper.builder().build();
+        cborDecimal = CBORMapper.builder().build();
+        cborScaled = CBORMapper.builder().addModule(CborConfig.scaledDecimalModule()).build();
+        responseList = json.getTypeFactory().constructCollectionType(List.class, ProductResponse.class);
+
+        ProductMapper mapper = BenchmarkFixtures.mapper();
+        List<Product> products = BenchmarkFixtures.products(cartSize, new BigDecimal("19.99"), CountryMix.MIXED);
+        responses = new ArrayList<>(cartSize);
+        for (Product product : products) {
+            ProductResponse response = mapper.toResponse(product);
+            response.setFinalPrice(product.getPrice().multiply(new BigDecimal("0.20")));
+            responses.add(response);
+        }
+
+        jsonPayload = json.writeValueAsBytes(responses);
+        cborDecimalPayload = cborDecimal.writeValueAsBytes(responses);
+        cborScaledPayload = cborScaled.writeValueAsBytes(responses);
+        System.out.printf("%n[cartSize=%d] payload bytes: json=%d cbor(decimal)=%d cbor(scaled long)=%d%n",
+                cartSize, jsonPayload.length, cborDecimalPayload.length, cborScaledPayload.length);
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        return json.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] writeCborDecimal() {
+        return cborDecimal.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] writeCborScaled() {
+        return cborScaled.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public List<ProductResponse> readJson() {
+        return json.readValue(jsonPayload, responseList);
+    }
+
+    @Benchmark
+    public List<ProductResponse> readCborDecimal() {
+        return cborDecimal.readValue(cborDecimalPayload, responseList);
+    }
+
+    @Benchmark
+    public List<ProductResponse> readCborScaled() {
+        return cborScaled.readValue(cborScaledPayload, responseList);
+    }
+}
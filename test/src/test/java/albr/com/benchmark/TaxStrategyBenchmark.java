@@ -0,0 +1,66 @@
+package albr.com.benchmark;
+
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.TaxStrategy;
+import albr.com.tax.service.TaxStrategyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la résolution de stratégie et du calcul de taxe, par pays et par ordre de grandeur de prix.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaxStrategyBenchmark {
+
+    @Param({"9.99", "1249.50", "987654.32"})
+    public String price;
+
+    @Param({"FRANCE", "USA", "CANADA"})
+    public Country country;
+
+    private TaxStrategyResolver resolver;
+    private TaxStrategy strategy;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        resolver = BenchmarkFixtures.resolver();
+        strategy = resolver.resolve(country);
+        product = new Product("bench", new BigDecimal(price), country);
+    }
+
+    @Benchmark
+    public TaxStrategy resolve() {
+        return resolver.resolve(country);
+    }
+
+    // ancien chemin, par nom de pays, gardé pour comparaison
+    @Benchmark
+    public TaxStrategy resolveByName() {
+        return resolver.resolve(country.name());
+    }
+
+    @Benchmark
+    public BigDecimal calculateTax() {
+        return strategy.calculateTax(product);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFinalPriceTTC() {
+        return strategy.calculateFinalPriceTTC(product);
+    }
+
+    @Benchmark
+    public TaxQuote quote() {
+        return strategy.quote(product);
+    }
+}
@@ -0,0 +1,113 @@
+package albr.com.cache;
+
+import albr.com.tax.cache.CacheWarmup;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.config.WarmupProperties;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.service.TaxService;
+import albr.com.tax.service.TaxStraegyCANImp;
+import albr.com.tax.service.TaxStraegyFRImp;
+import albr.com.tax.service.TaxStraegyUSAImp;
+import albr.com.tax.service.TaxStrategyResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CacheWarmupTest {
+
+    @TempDir
+    Path dir;
+
+    private ProductRepository repository;
+    private ProductCache productCache;
+    private TaxQuoteCache quoteCache;
+    private TaxService taxService;
+
+    private static ProductSummary product(long id) {
+        return new ProductSummary(id, "p" + id, BigDecimal.valueOf(id), Country.FRANCE, null, null, 0L);
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductRepository.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productCache = new ProductCache(new ProductCacheProperties(true, 100, Duration.ofMinutes(1)), registry);
+        quoteCache = new TaxQuoteCache(new QuoteCacheProperties(true, 100), registry);
+        taxService = new TaxService(new TaxStrategyResolver(List.of(
+                new TaxStraegyFRImp(), new TaxStraegyCANImp(), new TaxStraegyUSAImp())));
+    }
+
+    private CacheWarmup warmup(int maxProducts, Path hotIdsFile) {
+        return new CacheWarmup(new WarmupProperties(true, maxProducts, hotIdsFile),
+                repository, productCache, quoteCache, taxService);
+    }
+
+    @Test
+    void withoutHotIds_loadsFirstProductsByPages() {
+        when(repository.findSummariesAfter(0L, Limit.of(3)))
+                .thenReturn(List.of(product(1), product(2), product(3)));
+
+        int loaded = warmup(3, dir.resolve("absent")).warmUp();
+
+        assertThat(loaded).isEqualTo(3);
+        // servis par le cache, sans relecture
+        assertThat(productCache.get(2L, id -> Optional.empty())).isPresent();
+        assertThat(quoteCache.stats().loadCount()).isEqualTo(3);
+        verify(repository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void hotIds_savedAtShutdown_areReloadedAtStartup() throws IOException {
+        Path file = dir.resolve("taxdb.hot-ids");
+        productCache.get(42L, id -> Optional.of(product(id)));
+        productCache.get(7L, id -> Optional.of(product(id)));
+
+        warmup(10, file).saveHotIds();
+        assertThat(Files.readAllLines(file)).containsExactlyInAnyOrder("42", "7");
+
+        productCache.invalidateAll();
+        when(repository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(product(42), product(7)));
+
+        assertThat(warmup(10, file).warmUp()).isEqualTo(2);
+        verify(repository).findSummariesByIdIn(argThat(ids -> ((List<?>) ids).containsAll(List.of(42L, 7L))));
+        verify(repository, never()).findSummariesAfter(anyLong(), any());
+    }
+
+    @Test
+    void corruptLines_areSkipped() throws IOException {
+        Path file = dir.resolve("hot-ids");
+        Files.writeString(file, "5\n\nnot-a-number\n9\n");
+        when(repository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(product(5), product(9)));
+
+        assertThat(warmup(10, file).warmUp()).isEqualTo(2);
+        verify(repository).findSummariesByIdIn(List.of(5L, 9L));
+    }
+
+    @Test
+    void disabledProductCache_skipsWarmup() {
+        productCache = new ProductCache(new ProductCacheProperties(false, 0, Duration.ZERO), new SimpleMeterRegistry());
+
+        assertThat(warmup(10, null).warmUp()).isZero();
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,143 @@
+package albr.com.cache;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ColumnarProductStoreTest {
+
+    private ProductRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private ColumnarProductStore store;
+
+    private static ProductSummary summary(long id, String name, String price, Country country, long version) {
+        return new ProductSummary(id, name, price != null ? new BigDecimal(price) : null, country, null, null, version);
+    }
+
+    private static Product product(long id, String name, String price, Country country) {
+        Product p = new Product(name, new BigDecimal(price), country);
+        p.setId(id);
+        return p;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        store = new ColumnarProductStore(new ColumnarReadProperties(true, 2), repository, meterRegistry);
+    }
+
+    @Test
+    void build_readsAllPages_thenServesProductsFromColumns() {
+        when(repository.findSummariesAfter(0L, Limit.of(2))).thenReturn(List.of(
+                summary(3, "Chaise", "100.00", Country.FRANCE, 1),
+                summary(7, "Érable ☃", "19.5", Country.CANADA, 4)));
+        when(repository.findSummariesAfter(7L, Limit.of(2))).thenReturn(List.of(
+                summary(9, null, null, null, 0)));
+
+        assertThat(store.find(3L)).isEmpty();   // pas encore construit
+
+        assertThat(store.build()).isEqualTo(3);
+
+        assertThat(store.find(3L)).contains(summary(3, "Chaise", "100.00", Country.FRANCE, 1));
+        ProductSummary maple = store.find(7L).orElseThrow();
+        assertThat(maple.getName()).isEqualTo("Érable ☃");
+        assertThat(maple.getPrice()).isEqualTo(new BigDecimal("19.5"));   // échelle d'origine conservée
+        assertThat(store.find(9L)).contains(summary(9, null, null, null, 0));
+        assertThat(store.find(4L)).isEmpty();
+        verify(repository, times(2)).findSummariesAfter(anyLong(), eq(Limit.of(2)));
+    }
+
+    @Test
+    void writes_growColumns_andReplaceExistingRows() {
+        store.build();
+        List<Product> products = new ArrayList<>();
+        LongStream.rangeClosed(1, 5000).forEach(id ->
+                products.add(product(id * 50, "product-" + "x".repeat((int) (id % 40)) + id, id + ".25", Country.USA)));
+        store.putAll(products);
+
+        assertThat(store.size()).isEqualTo(5000);
+        assertThat(store.find(50L * 4321).orElseThrow().getName()).isEqualTo("product-" + "x".repeat(1) + 4321);
+        assertThat(store.find(50L * 4321).orElseThrow().getPrice()).isEqualByComparingTo("4321.25");
+
+        Product renamed = product(100, "renamed", "1.00", Country.FRANCE);
+        renamed.setVersion(2);
+        store.put(renamed);
+
+        assertThat(store.size()).isEqualTo(5000);
+        assertThat(store.find(100L)).contains(summary(100, "renamed", "1.00", Country.FRANCE, 2));
+    }
+
+    @Test
+    void unrepresentablePrice_isNotServed() {
+        store.build();
+        store.put(product(1, "a", "10.00", Country.FRANCE));
+        store.put(product(1, "a", "10.123456789", Country.FRANCE));
+
+        assertThat(store.find(1L)).isEmpty();
+
+        store.put(product(1, "a", "10.12", Country.FRANCE));
+        assertThat(store.find(1L).orElseThrow().getPrice()).isEqualTo(new BigDecimal("10.12"));
+    }
+
+    @Test
+    void writesInTransaction_areAppliedAfterCommitOnly() {
+        store.build();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.put(product(1, "committed", "1.00", Country.USA));
+            store.put(product(2, "rolled back", "1.00", Country.USA));
+            assertThat(store.find(1L)).isEmpty();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(store.find(1L)).isPresent();
+        assertThat(store.find(2L)).isEmpty();
+    }
+
+    @Test
+    void footprint_isReportedPerProduct() {
+        store.build();
+        LongStream.rangeClosed(1, 1000).forEach(id -> store.put(product(id, "product-" + id, "9.99", Country.USA)));
+
+        assertThat(store.footprintBytes()).isPositive();
+        assertThat(store.bytesPerProduct()).isEqualTo(store.footprintBytes() / 1000);
+        assertThat(meterRegistry.get("app.read.columnar.products").gauge().value()).isEqualTo(1000);
+        assertThat(meterRegistry.get("app.read.columnar.bytes.per.product").gauge().value())
+                .isEqualTo(store.bytesPerProduct());
+    }
+
+    @Test
+    void disabled_neverServesNorStores() {
+        ColumnarProductStore disabled = new ColumnarProductStore(new ColumnarReadProperties(false, 2), repository,
+                new SimpleMeterRegistry());
+        disabled.put(product(1, "a", "1.00", Country.USA));
+
+        assertThat(disabled.find(1L)).isEmpty();
+        assertThat(disabled.size()).isZero();
+        verifyNoInteractions(repository);
+    }
+}
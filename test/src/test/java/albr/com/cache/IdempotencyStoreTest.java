@@ -0,0 +1,178 @@
+package albr.com.cache;
+
+import albr.com.tax.cache.IdempotencyStore;
+import albr.com.tax.config.IdempotencyProperties;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.exception.ProductCreationException;
+import albr.com.tax.exception.RequestInProgressException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger creations = new AtomicInteger();
+
+    private static final ProductRequest REQUEST = new ProductRequest("Chaise", new BigDecimal("100.00"), Country.FRANCE);
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(1), Duration.ofSeconds(5)), registry);
+    }
+
+    private ProductResponse create() {
+        long id = creations.incrementAndGet();
+        return new ProductResponse(id, "Chaise", new BigDecimal("100.00"), null, "EUR");
+    }
+
+    // ProductCreationException n'est pas une Exception : inutilisable telle quelle dans un Callable
+    private ProductResponse executeUnchecked(String key, IdempotencyStore.Creation creation) {
+        try {
+            return store.execute(key, REQUEST, creation);
+        } catch (ProductCreationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // le doublon a rejoint la requête d'origine
+    private void awaitReplayed() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.counter("app.idempotency.replayed").count() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void sameKey_replaysStoredResponse_withoutCreatingAgain() throws ProductCreationException {
+        ProductResponse first = store.execute("k1", REQUEST, this::create);
+        ProductResponse retry = store.execute("k1", REQUEST, this::create);
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(creations).hasValue(1);
+        assertThat(store.execute("k2", REQUEST, this::create).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void sameKey_withDifferentBody_isRefused() throws ProductCreationException {
+        store.execute("k1", REQUEST, this::create);
+        ProductRequest other = new ProductRequest("Table", new BigDecimal("50.00"), Country.USA);
+
+        assertThatThrownBy(() -> store.execute("k1", other, this::create))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void failedCreation_releasesKey_forTheNextRetry() throws ProductCreationException {
+        assertThatThrownBy(() -> store.execute("k1", REQUEST, () -> {
+            throw new ProductCreationException("Unable to create product", null);
+        })).isInstanceOf(ProductCreationException.class);
+
+        assertThat(store.execute("k1", REQUEST, this::create).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void sameKey_withPriceWrittenWithAnotherScale_isReplayed() throws ProductCreationException {
+        ProductResponse first = store.execute("k1", REQUEST, this::create);
+        ProductRequest retry = new ProductRequest("Chaise", new BigDecimal("100.0"), Country.FRANCE);
+
+        assertThat(store.execute("k1", retry, this::create)).isEqualTo(first);
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void creationFailingWithAnError_releasesKey_andFailsWaiters() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProductResponse> original = pool.submit(() -> executeUnchecked("k1", () -> {
+                inFlight.countDown();
+                awaitQuietly(release);
+                throw new StackOverflowError();
+            }));
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<ProductResponse> duplicate = pool.submit(() -> executeUnchecked("k1", this::create));
+            awaitReplayed();
+
+            release.countDown();
+
+            assertThatThrownBy(() -> original.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+            assertThatThrownBy(() -> duplicate.get(5, TimeUnit.SECONDS))
+                    .rootCause().isInstanceOf(StackOverflowError.class);
+            assertThat(executeUnchecked("k1", this::create).getId()).isEqualTo(1L);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicate_stopsWaitingAfterTheTimeout() throws Exception {
+        store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(1), Duration.ofMillis(100)),
+                new SimpleMeterRegistry());
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> executeUnchecked("k1", () -> {
+                inFlight.countDown();
+                awaitQuietly(release);
+                return create();
+            }));
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> store.execute("k1", REQUEST, this::create))
+                    .isInstanceOf(RequestInProgressException.class);
+            release.countDown();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentDuplicates_coalesceOntoOneCreation() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProductResponse> original = pool.submit(() -> executeUnchecked("k1", () -> {
+                inFlight.countDown();
+                awaitQuietly(release);
+                return create();
+            }));
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<ProductResponse> duplicate = pool.submit(() -> executeUnchecked("k1", this::create));
+
+            release.countDown();
+
+            assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(original.get(5, TimeUnit.SECONDS));
+            assertThat(creations).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package albr.com.cache;
+
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    private final ProductCache cache = new ProductCache(new ProductCacheProperties(true, 100, Duration.ofMinutes(1)),
+            new SimpleMeterRegistry());
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    private static ProductSummary summary(long id, long version) {
+        return new ProductSummary(id, "p" + id, new BigDecimal("10.00"), Country.FRANCE, null, null, version);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void slowLoad_doesNotBlockOtherKeys() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Optional<ProductSummary>> slow = pool.submit(() -> cache.get(1L, id -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return Optional.of(summary(id, 0));
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // servi pendant que le chargement de l'id 1 est en cours
+        assertThat(cache.get(2L, id -> Optional.of(summary(id, 0)))).contains(summary(2, 0));
+        assertThat(cache.peek(1L)).isEmpty();
+
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).contains(summary(1, 0));
+        assertThat(cache.peek(1L)).contains(summary(1, 0));
+    }
+
+    @Test
+    void invalidationDuringLoad_keepsTheLoadedValueOutOfTheCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Optional<ProductSummary>> stale = pool.submit(() -> cache.get(1L, id -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return Optional.of(summary(id, 0));
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // écriture commitée pendant la lecture
+        cache.invalidate(1L);
+        release.countDown();
+
+        assertThat(stale.get(5, TimeUnit.SECONDS)).contains(summary(1, 0));
+        assertThat(cache.get(1L, id -> Optional.of(summary(id, 1)))).contains(summary(1, 1));
+    }
+
+    @Test
+    void failedOrEmptyLoad_isNotCached() {
+        try {
+            cache.get(1L, id -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException expected) {
+            // relancée telle quelle
+        }
+
+        assertThat(cache.get(1L, id -> Optional.empty())).isEmpty();
+        assertThat(cache.get(1L, id -> Optional.of(summary(id, 0)))).contains(summary(1, 0));
+    }
+}
@@ -0,0 +1,111 @@
+package albr.com.cache;
+
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.engine.TaxRule;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.engine.TaxRulesChangedEvent;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.CompiledTaxStrategy;
+import albr.com.tax.service.TaxStraegyFRImp;
+import albr.com.tax.service.TaxStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TaxQuoteCacheTest {
+
+    private final TaxQuoteCache cache = new TaxQuoteCache(new QuoteCacheProperties(true, 100), new SimpleMeterRegistry());
+    private final TaxStrategy strategy = spy(new TaxStraegyFRImp());
+
+    private static Product product(String price, Country country) {
+        return new Product("p", new BigDecimal(price), country);
+    }
+
+    @Test
+    void samePricePoint_isComputedOnce_whateverTheScale() {
+        TaxQuote first = cache.quote(product("10.00", Country.FRANCE), strategy);
+        TaxQuote second = cache.quote(product("10.0", Country.FRANCE), strategy);
+
+        assertThat(first.tax()).isEqualByComparingTo("2.00");
+        assertThat(first.finalPrice()).isEqualByComparingTo("12.00");
+        assertThat(second.tax()).isEqualByComparingTo(first.tax());
+        assertThat(cache.stats().loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedQuote_isRenderedAtTheRequestedPriceScale() {
+        cache.quote(product("10.0", Country.FRANCE), strategy);
+
+        TaxQuote quote = cache.quote(product("10.00", Country.FRANCE), strategy);
+
+        assertThat(quote.tax()).isEqualTo(new BigDecimal("2.00"));
+        assertThat(quote.finalPrice()).isEqualTo(new BigDecimal("12.00"));
+        assertThat(cache.quote(product("10.0", Country.FRANCE), strategy).tax()).isEqualTo(new BigDecimal("2.0"));
+        assertThat(cache.stats().loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void country_isPartOfTheKey() {
+        cache.quote(product("10.00", Country.FRANCE), strategy);
+        cache.quote(product("10.00", Country.USA), strategy);
+
+        assertThat(cache.stats().loadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void taxRulesChange_flushesTheCache() {
+        cache.quote(product("10.00", Country.FRANCE), strategy);
+        cache.onTaxRulesChanged(new TaxRulesChangedEvent("v2"));
+        cache.quote(product("10.00", Country.FRANCE), strategy);
+
+        assertThat(cache.stats().loadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void entryOfThePreviousTable_isNeverServedAfterASwap() {
+        // ni invalidation ni événement : cas d'un calcul encore en cours pendant le rechargement
+        AtomicReference<TaxRuleTable> tables = new AtomicReference<>(TaxRuleTable.defaults());
+        TaxStrategy reloadable = new CompiledTaxStrategy(Country.FRANCE, tables::get) {
+        };
+        cache.quote(product("10.00", Country.FRANCE), reloadable);
+
+        tables.set(TaxRuleTable.of("v2", Map.of(
+                Country.FRANCE, TaxRule.builder().rate(new BigDecimal("0.5")).build(),
+                Country.USA, TaxRule.builder().rate(BigDecimal.ZERO).build(),
+                Country.CANADA, TaxRule.builder().rate(BigDecimal.ZERO).build())));
+
+        assertThat(cache.quote(product("10.00", Country.FRANCE), reloadable).tax()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void incompleteProduct_bypassesTheCache() {
+        TaxStrategy mocked = mock(TaxStrategy.class);
+        when(mocked.calculateTax(any())).thenReturn(BigDecimal.ONE);
+        Product noCountry = product("10.00", null);
+
+        cache.quote(noCountry, mocked);
+        cache.quote(noCountry, mocked);
+
+        verify(mocked, times(2)).calculateTax(noCountry);
+        assertThat(cache.stats().requestCount()).isZero();
+    }
+
+    @Test
+    void disabledCache_alwaysComputes() {
+        TaxQuoteCache disabled = new TaxQuoteCache(new QuoteCacheProperties(false, 0), new SimpleMeterRegistry());
+
+        disabled.quote(product("10.00", Country.FRANCE), strategy);
+        disabled.quote(product("10.00", Country.FRANCE), strategy);
+
+        verify(strategy, times(2)).calculateTax(any());
+    }
+}
@@ -0,0 +1,38 @@
+package albr.com.config;
+
+import albr.com.tax.config.CborConfig;
+import albr.com.tax.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborConfigTest {
+
+    private final CBORMapper cbor = CBORMapper.builder().addModule(CborConfig.scaledDecimalModule()).build();
+
+    private static ProductResponse response() {
+        return new ProductResponse(1L, "Chaise", new BigDecimal("100.00"), new BigDecimal("20.125"), "EUR");
+    }
+
+    @Test
+    void prices_areWrittenAsScaledLongs() {
+        JsonNode tree = cbor.readTree(cbor.writeValueAsBytes(response()));
+
+        assertThat(tree.get("basePrice").isIntegralNumber()).isTrue();
+        assertThat(tree.get("basePrice").longValue()).isEqualTo(10_000_000_000L);
+        assertThat(tree.get("finalPrice").longValue()).isEqualTo(2_012_500_000L);
+    }
+
+    @Test
+    void scaledLongs_areReadBackAsDecimals() {
+        ProductResponse read = cbor.readValue(cbor.writeValueAsBytes(response()), ProductResponse.class);
+
+        assertThat(read.getBasePrice()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(read.getFinalPrice()).isEqualTo(new BigDecimal("20.125"));
+        assertThat(read).isEqualTo(response());
+    }
+}
@@ -0,0 +1,148 @@
+package albr.com.engine;
+
+import albr.com.tax.engine.BatchTaxEvaluator;
+import albr.com.tax.engine.CompiledTaxRule;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.engine.TaxRule;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * L'évaluation par lots (vectorielle quand le module est présent) doit donner exactement
+ * {@link CompiledTaxRule#taxMinor(long)} pour chaque prix.
+ */
+class BatchTaxEvaluatorTest {
+
+    private static final int LENGTH = 1_003;   // pas un multiple du nombre de voies : la fin passe en scalaire
+
+    private final BatchTaxEvaluator evaluator = BatchTaxEvaluator.best();
+
+    private static long[] prices(long seed) {
+        Random random = new Random(seed);
+        long[] prices = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            prices[i] = switch (i % 4) {
+                case 0 -> random.nextLong(100_000_00L) * 1_000_000L;          // au centime, jusqu'à 100 000
+                case 1 -> random.nextLong(-1_000_00000000L, 1_000_00000000L); // 8 décimales, signe quelconque
+                case 2 -> random.nextLong(1_000_000_00000000L);                // grands montants
+                default -> (random.nextInt(40) - 20) * 50_000_000L;           // multiples de 0.5 : arrondis à égalité
+            };
+        }
+        return prices;
+    }
+
+    private static void assertSameAsScalar(CompiledTaxRule rule, long[] prices) {
+        long[] taxes = new long[prices.length];
+        BatchTaxEvaluator.best().taxesMinor(rule, prices, taxes, prices.length);
+        for (int i = 0; i < prices.length; i++) {
+            assertThat(taxes[i]).as("price %d", prices[i]).isEqualTo(rule.taxMinor(prices[i]));
+        }
+    }
+
+    @Test
+    void defaultRules_matchScalarEvaluation_forEachCountry() {
+        TaxRuleTable table = TaxRuleTable.defaults();
+        for (Country country : Country.values()) {
+            long[] prices = prices(country.ordinal());
+            long[] taxes = new long[LENGTH];
+
+            evaluator.taxesMinor(table, country, prices, taxes, LENGTH);
+
+            for (int i = 0; i < LENGTH; i++) {
+                assertThat(taxes[i]).isEqualTo(table.rule(country).taxMinor(prices[i]));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = RoundingMode.class, names = "UNNECESSARY", mode = EnumSource.Mode.EXCLUDE)
+    void everyRoundingMode_matchesScalarEvaluation(RoundingMode roundingMode) {
+        // 1/8 : restes à égalité (0.5) fréquents ; taux négatif : produit de signe opposé au prix
+        assertSameAsScalar(TaxRule.builder().rate(new BigDecimal("0.125")).roundingMode(roundingMode)
+                .build().compile(), prices(7));
+        assertSameAsScalar(TaxRule.builder().rate(new BigDecimal("-0.0000000375")).roundingMode(roundingMode)
+                .build().compile(), prices(8));
+    }
+
+    @Test
+    void threshold_isStrict() {
+        CompiledTaxRule canada = TaxRuleTable.defaults().rule(Country.CANADA);
+        long threshold = 10_00000000L;
+        long[] prices = {threshold - 1, threshold, threshold + 1, 0, threshold, threshold + 1, -threshold, 1};
+
+        assertSameAsScalar(canada, prices);
+    }
+
+    @Test
+    void inPlace_overwritesPrices() {
+        CompiledTaxRule france = TaxRuleTable.defaults().rule(Country.FRANCE);
+        long[] values = prices(3);
+        long[] expected = values.clone();
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = france.taxMinor(expected[i]);
+        }
+
+        evaluator.taxesMinor(france, values, values, values.length);
+
+        assertThat(values).containsExactly(expected);
+    }
+
+    @Test
+    void overflow_isReported() {
+        CompiledTaxRule usa = TaxRuleTable.defaults().rule(Country.USA);
+        long[] prices = new long[16];
+        prices[9] = Long.MAX_VALUE / 2;
+
+        assertThatThrownBy(() -> evaluator.taxesMinor(usa, prices, new long[16], 16))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void unnecessaryRounding_failsOnlyWhenNeeded() {
+        CompiledTaxRule exact = TaxRule.builder().rate(new BigDecimal("0.5")).roundingMode(RoundingMode.UNNECESSARY)
+                .build().compile();
+        long[] even = new long[16];
+        for (int i = 0; i < even.length; i++) {
+            even[i] = 2L * i;
+        }
+        assertSameAsScalar(exact, even);
+
+        even[5] = 11;
+        assertThatThrownBy(() -> evaluator.taxesMinor(exact, even, new long[16], 16))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void quotes_matchRuleQuote_atEachPriceScale_includingOverflow() {
+        CompiledTaxRule rule = TaxRuleTable.defaults().rule(Country.FRANCE);
+        BigDecimal[] prices = {new BigDecimal("100.00"), new BigDecimal("19.9"), new BigDecimal("0"),
+                new BigDecimal("12.345678"), new BigDecimal("99999999999999999999.99"), new BigDecimal("-5.50")};
+        TaxQuote[] quotes = new TaxQuote[prices.length];
+
+        evaluator.quotes(rule, prices, quotes, prices.length);
+
+        for (int i = 0; i < prices.length; i++) {
+            assertThat(quotes[i]).as("price %s", prices[i]).isEqualTo(rule.quote(prices[i]));
+        }
+    }
+
+    @Test
+    void vectorModule_enablesSimdLanes() {
+        // profil Maven vector : module ajouté et noyau compilé
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+
+        assertThat(evaluator.vectorized()).isTrue();
+        assertThat(BatchTaxEvaluator.scalar().vectorized()).isFalse();
+    }
+}
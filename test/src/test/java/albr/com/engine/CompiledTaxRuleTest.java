@@ -0,0 +1,109 @@
+package albr.com.engine;
+
+import albr.com.tax.engine.CompiledTaxRule;
+import albr.com.tax.engine.FixedPoint;
+import albr.com.tax.engine.TaxQuote;
+import albr.com.tax.engine.TaxRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires du moteur de taxe en unités mineures.
+ */
+class CompiledTaxRuleTest {
+
+    private final CompiledTaxRule usa = TaxRule.builder()
+            .rate(new BigDecimal("0.07864"))
+            .fixedFee(new BigDecimal("3"))
+            .build()
+            .compile();
+
+    @Test
+    void quote_computesTaxAndFinalPrice_exactly() {
+        TaxQuote quote = usa.quote(new BigDecimal("19.99"));
+
+        // 19.99 * 0.07864 = 1.5720136 (+3)
+        assertThat(quote.tax()).isEqualByComparingTo("4.5720136");
+        assertThat(quote.finalPrice()).isEqualByComparingTo("24.5620136");
+    }
+
+    @Test
+    void result_keepsAtLeastThePriceScale_withoutTrailingZeros() {
+        CompiledTaxRule fr = TaxRule.builder().rate(new BigDecimal("0.20")).build().compile();
+
+        assertThat(fr.finalPrice(new BigDecimal("100.00"))).hasToString("120.00");
+        assertThat(fr.tax(new BigDecimal("19.99"))).hasToString("3.998");
+    }
+
+    @Test
+    void threshold_isStrict() {
+        CompiledTaxRule can = TaxRule.builder()
+                .rate(new BigDecimal("0.10"))
+                .threshold(new BigDecimal("10"))
+                .thresholdFee(new BigDecimal("10"))
+                .build()
+                .compile();
+
+        assertThat(can.tax(new BigDecimal("10.00"))).isEqualByComparingTo("1.00");
+        assertThat(can.tax(new BigDecimal("10.01"))).isEqualByComparingTo("11.001");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "HALF_EVEN, 0.00000002",
+            "HALF_UP,   0.00000003",
+            "DOWN,      0.00000002",
+            "CEILING,   0.00000003"
+    })
+    void roundingMode_isAppliedBeyondEngineScale(RoundingMode mode, String expectedTax) {
+        // 0.00000025 * 0.1 = 0.000000025 -> 9 décimales, arrondi à 8
+        CompiledTaxRule rule = TaxRule.builder().rate(new BigDecimal("0.1")).roundingMode(mode).build().compile();
+
+        assertThat(rule.tax(new BigDecimal("0.00000025"))).isEqualByComparingTo(expectedTax);
+    }
+
+    @Test
+    void overflow_fallsBackToBigDecimal() {
+        BigDecimal huge = new BigDecimal("123456789012345.67");
+
+        assertThat(usa.tax(huge)).isEqualByComparingTo(huge.multiply(new BigDecimal("0.07864")).add(new BigDecimal("3")));
+        assertThat(usa.quote(huge).finalPrice()).isEqualByComparingTo(huge.add(usa.tax(huge)));
+    }
+
+    @Test
+    void overflow_rendersAmountsLikeTheFastPath() {
+        // prix * 7864 dépasse un long au-delà d'environ 11 728 690 en unités de 10^-8
+        assertThat(usa.tax(new BigDecimal("11000000.00"))).hasToString("865043.00");
+        assertThat(usa.tax(new BigDecimal("12000000.00"))).hasToString("943683.00");
+        assertThat(usa.finalPrice(new BigDecimal("12000000.00"))).hasToString("12943683.00");
+
+        TaxQuote quote = usa.quote(new BigDecimal("12000000.01"));
+        assertThat(quote.tax()).hasToString("943683.0007864");
+        assertThat(quote.finalPrice()).hasToString("12943683.0107864");
+    }
+
+    @Test
+    void nullPrice_throwsNPE() {
+        assertThatThrownBy(() -> usa.tax(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "7,  2, HALF_EVEN, 4",
+            "5,  2, HALF_EVEN, 2",
+            "-5, 2, HALF_EVEN, -2",
+            "-7, 2, HALF_UP,   -4",
+            "-7, 2, FLOOR,     -4",
+            "-7, 2, CEILING,   -3"
+    })
+    void fixedPointDivide_followsRoundingMode(long dividend, long divisor, RoundingMode mode, long expected) {
+        assertThat(FixedPoint.divide(dividend, divisor, mode)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,99 @@
+package albr.com.engine;
+
+import albr.com.tax.engine.TaxRule;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaxRuleTableTest {
+
+    private static TaxRuleTable read(String json) {
+        return TaxRuleTable.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void defaults_coverEveryCountry_withTheShippedRates() {
+        TaxRuleTable table = TaxRuleTable.defaults();
+
+        assertThat(table.definitions()).containsOnlyKeys(Country.values());
+        assertThat(table.rule(Country.FRANCE).tax(new BigDecimal("100.00"))).isEqualByComparingTo("20.00");
+        assertThat(table.rule(Country.USA).tax(new BigDecimal("100.00"))).isEqualByComparingTo("10.864");
+        assertThat(table.rule(Country.CANADA).tax(new BigDecimal("10.01"))).isEqualByComparingTo("11.001");
+    }
+
+    @Test
+    void read_parsesVersionAndRules() {
+        TaxRuleTable table = read("""
+                { "version": "2026.2",
+                  "rules": {
+                    "FRANCE": { "rate": "0.055" },
+                    "USA":    { "rate": "0.05", "fixedFee": "1" },
+                    "CANADA": { "rate": "0.13", "threshold": "100", "thresholdFee": "5", "roundingMode": "HALF_UP" } } }
+                """);
+
+        assertThat(table.version()).isEqualTo("2026.2");
+        assertThat(table.definitions().get(Country.CANADA).roundingMode()).isEqualTo(RoundingMode.HALF_UP);
+        assertThat(table.rule(Country.FRANCE).tax(new BigDecimal("100"))).isEqualByComparingTo("5.5");
+    }
+
+    @Test
+    void missingCountry_isRejected() {
+        assertThatThrownBy(() -> TaxRuleTable.of("v1", Map.of(Country.FRANCE, TaxRule.builder().rate(BigDecimal.ONE).build())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("USA")
+                .hasMessageContaining("CANADA");
+    }
+
+    @Test
+    void unknownCountryOrField_isRejected() {
+        assertThatThrownBy(() -> read("""
+                { "version": "x", "rules": { "MARS": { "rate": "0.1" } } }
+                """)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("""
+                { "version": "x", "rules": { "FRANCE": { "rate": "0.1", "rat": "0.2" } } }
+                """)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String file(String version, String franceRule) {
+        return "{ \"version\": " + version + ", \"rules\": { \"FRANCE\": " + franceRule
+                + ", \"USA\": { \"rate\": \"0.1\" }, \"CANADA\": { \"rate\": \"0.1\" } } }";
+    }
+
+    @Test
+    void invalidVersion_isRejected() {
+        assertThatThrownBy(() -> read(file("null", "{ \"rate\": \"0.1\" }")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> read(file("\"" + "v".repeat(TaxRuleTable.MAX_VERSION_LENGTH + 1) + "\"",
+                "{ \"rate\": \"0.1\" }")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("32");
+        assertThat(read(file("\"" + "v".repeat(TaxRuleTable.MAX_VERSION_LENGTH) + "\"", "{ \"rate\": \"0.1\" }"))
+                .version()).hasSize(TaxRuleTable.MAX_VERSION_LENGTH);
+    }
+
+    @Test
+    void negativeOrOutOfRangeRule_isRejectedAsInvalidContent() {
+        for (String rule : new String[]{
+                "{ \"rate\": \"-0.1\" }",
+                "{ \"rate\": \"0.1\", \"fixedFee\": \"-1\" }",
+                "{ \"rate\": \"0.1\", \"threshold\": \"10\", \"thresholdFee\": \"-1\" }",
+                "{ \"rate\": \"0.1234567890123456789\" }",
+                "{ \"rate\": \"99999999999999999999\" }",
+                "{ \"rate\": \"0.1\", \"fixedFee\": \"1e30\" }"}) {
+            assertThatThrownBy(() -> read(file("\"v\"", rule)))
+                    .as(rule)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("FRANCE");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package albr.com.execution;
+
+import albr.com.tax.config.ExecutionProperties;
+import albr.com.tax.execution.InFlightRequestFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightRequestFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private double inFlight(String thread) {
+        return registry.get("app.requests.inflight").tag("thread", thread).gauge().value();
+    }
+
+    @Test
+    void countsRequests_byThreadKind() throws Exception {
+        InFlightRequestFilter filter = new InFlightRequestFilter(new ExecutionProperties(0, Duration.ZERO), registry);
+        AtomicInteger seenVirtual = new AtomicInteger(-1);
+        FilterChain chain = (req, res) -> seenVirtual.set((int) inFlight("virtual"));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1/"), new MockHttpServletResponse(), chain);
+                return null;
+            }).get();
+        }
+
+        assertThat(seenVirtual.get()).isEqualTo(1);
+        assertThat(inFlight("virtual")).isZero();
+        assertThat(inFlight("platform")).isZero();
+    }
+
+    @Test
+    void rejectsWith503_whenMaxInFlightIsReached() throws Exception {
+        InFlightRequestFilter filter = new InFlightRequestFilter(new ExecutionProperties(1, Duration.ofMillis(10)), registry);
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+
+        // pendant le traitement de la première requête, une seconde arrive
+        FilterChain chain = (req, res) -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/products/2/"), nested, new MockFilterChain());
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1/"), first, chain);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(nested.getStatus()).isEqualTo(503);
+        assertThat(nested.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(registry.get("app.requests.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void actuatorRequests_areNotLimited() throws Exception {
+        InFlightRequestFilter filter = new InFlightRequestFilter(new ExecutionProperties(1, Duration.ZERO), registry);
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+
+        FilterChain chain = (req, res) -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/actuator/health"), nested, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1/"), new MockHttpServletResponse(), chain);
+
+        assertThat(nested.getStatus()).isEqualTo(200);
+    }
+}
@@ -1,12 +1,23 @@
 package albr.com.integration;
 
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.config.ReadCoalescingProperties;
 import albr.com.tax.dto.ProductRequest;
 import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.engine.TaxRuleTable;
 import albr.com.tax.enumTax.Country;
 import albr.com.tax.exception.ProductCreationException;
 import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.metrics.PricingMetrics;
 import albr.com.tax.repository.Product;
 import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
 import albr.com.tax.service.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,9 +29,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import tools.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.math.BigDecimal;
 import java.net.URI;
-import java.util.Map;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.containsString;
@@ -64,16 +78,25 @@ class ProductApiStandaloneIT {
         mapper = Mappers.getMapper(ProductMapper.class);
 
         // 3) vraies stratégies + resolver + service
-        Map<String, TaxStrategy> strategies = Map.of(
-                "FRANCE", new TaxStraegyFRImp(),
-                "CANADA", new TaxStraegyCANImp(),
-                "USA", new TaxStraegyUSAImp()
+        List<TaxStrategy> strategies = List.of(
+                new TaxStraegyFRImp(),
+                new TaxStraegyCANImp(),
+                new TaxStraegyUSAImp()
         );
         TaxStrategyResolver resolver = new TaxStrategyResolver(strategies);
         taxService = new TaxService(resolver);
 
         // 4) vrai ProductService (repo mocké)
-        ProductService productService = new ProductService(repository, mapper, taxService);
+        ProductCache productCache = new ProductCache(
+                new ProductCacheProperties(false, 0, Duration.ZERO), new SimpleMeterRegistry());
+        TaxQuoteCache quoteCache = new TaxQuoteCache(new QuoteCacheProperties(false, 0), new SimpleMeterRegistry());
+        ProductService productService = new ProductService(repository, mapper, taxService, productCache, quoteCache,
+                new PricingMetrics(new SimpleMeterRegistry()),
+                new PrecomputedPrices(new PrecomputeProperties(false, 500), TaxRuleTable::defaults),
+                new ProductLoader(repository, new ReadCoalescingProperties(false, Duration.ZERO, 200),
+                        new SimpleMeterRegistry()),
+                new ColumnarProductStore(new ColumnarReadProperties(false, 1000), repository,
+                        new SimpleMeterRegistry()));
 
         // 5) contrôleur réel
         controller = new ProductController(productService);
@@ -192,13 +215,9 @@ class ProductApiStandaloneIT {
         @Test
         @DisplayName("200 OK avec payload mapé")
         void get_should_return200_with_body() throws Exception {
-            Product entity = new Product();
-            entity.setId(7L);
-            entity.setName("Mouse");
-            entity.setPrice(new BigDecimal("10.00"));
-            entity.setCountry(Country.CANADA);
+            ProductSummary entity = new ProductSummary(7L, "Mouse", new BigDecimal("10.00"), Country.CANADA, null, null, 0L);
 
-            when(repository.findById(7L)).thenReturn(Optional.of(entity));
+            when(repository.findSummaryById(7L)).thenReturn(Optional.of(entity));
 
             mvc.perform(get("/api/products/7"))
                     .andExpect(status().isOk())
@@ -212,7 +231,7 @@ class ProductApiStandaloneIT {
         @Test
         @DisplayName("404 Not Found si id inconnu")
         void get_should_return404_when_not_found() throws Exception {
-            when(repository.findById(404L)).thenReturn(Optional.empty());
+            when(repository.findSummaryById(404L)).thenReturn(Optional.empty());
 
             mvc.perform(get("/api/products/404"))
                     .andExpect(status().isNotFound());
@@ -226,13 +245,9 @@ class ProductApiStandaloneIT {
         @Test
         @DisplayName("200 OK avec finalPrice calculé (FR)")
         void ttc_should_compute_fr() throws Exception {
-            Product entity = new Product();
-            entity.setId(5L);
-            entity.setName("Headset");
-            entity.setPrice(new BigDecimal("100.00"));
-            entity.setCountry(Country.FRANCE);
+            ProductSummary entity = new ProductSummary(5L, "Headset", new BigDecimal("100.00"), Country.FRANCE, null, null, 0L);
 
-            when(repository.findById(5L)).thenReturn(Optional.of(entity));
+            when(repository.findSummaryById(5L)).thenReturn(Optional.of(entity));
 
             mvc.perform(get("/api/products/5/ttc"))
                     .andExpect(status().isOk())
@@ -245,13 +260,9 @@ class ProductApiStandaloneIT {
         @Test
         @DisplayName("200 OK avec règles Canada (seuil)")
         void ttc_should_compute_canada_threshold() throws Exception {
-            Product entity = new Product();
-            entity.setId(6L);
-            entity.setName("Item");
-            entity.setPrice(new BigDecimal("10.01"));
-            entity.setCountry(Country.CANADA);
+            ProductSummary entity = new ProductSummary(6L, "Item", new BigDecimal("10.01"), Country.CANADA, null, null, 0L);
 
-            when(repository.findById(6L)).thenReturn(Optional.of(entity));
+            when(repository.findSummaryById(6L)).thenReturn(Optional.of(entity));
 
             mvc.perform(get("/api/products/6/ttc"))
                     .andExpect(status().isOk())
@@ -262,7 +273,7 @@ class ProductApiStandaloneIT {
         @Test
         @DisplayName("404 Not Found si id inconnu (ttc)")
         void ttc_should_return404_when_not_found() throws Exception {
-            when(repository.findById(999L)).thenReturn(Optional.empty());
+            when(repository.findSummaryById(999L)).thenReturn(Optional.empty());
 
             mvc.perform(get("/api/products/999/ttc"))
                     .andExpect(status().isNotFound());
@@ -3,11 +3,15 @@ package albr.com.mapper;
 import albr.com.tax.dto.ProductRequest;
 import albr.com.tax.dto.ProductResponse;
 import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.enumTax.Country;
 import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductSummary;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
+import java.math.BigDecimal;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ProductMapperTest {
@@ -50,6 +54,19 @@ class ProductMapperTest {
         });
     }
 
+    @Test
+    void summaryToResponse_mapsProjection_likeEntity() {
+        ProductSummary summary = new ProductSummary(3L, "Desk", new BigDecimal("99.90"), Country.USA, null, null, 0L);
+
+        ProductResponse resp = mapper.summaryToResponse(summary);
+
+        assertEquals(3L, resp.getId());
+        assertEquals("Desk", resp.getName());
+        assertEquals(new BigDecimal("99.90"), resp.getBasePrice());
+        assertEquals("USD", resp.getCurrency());
+        assertNull(resp.getFinalPrice());
+    }
+
     @Test
     void apiSurface_hasExpectedMethods() throws NoSuchMethodException {
         // Vérifie que les deux méthodes existent bien (signature)
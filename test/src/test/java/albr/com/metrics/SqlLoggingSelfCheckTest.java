@@ -0,0 +1,56 @@
+package albr.com.metrics;
+
+import albr.com.tax.metrics.SqlLoggingSelfCheck;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlLoggingSelfCheckTest {
+
+    private final Logger sqlLogger = (Logger) LoggerFactory.getLogger("org.hibernate.SQL");
+    private final Logger bindLogger = (Logger) LoggerFactory.getLogger("org.hibernate.orm.jdbc.bind");
+    private Level sqlLevel;
+    private Level bindLevel;
+
+    @BeforeEach
+    void quietLoggers() {
+        sqlLevel = sqlLogger.getLevel();
+        bindLevel = bindLogger.getLevel();
+        sqlLogger.setLevel(Level.WARN);
+        bindLogger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void restoreLoggers() {
+        sqlLogger.setLevel(sqlLevel);
+        bindLogger.setLevel(bindLevel);
+    }
+
+    @Test
+    void nothingReported_whenSqlLoggingIsOff() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.jpa.show-sql", "false");
+
+        assertThat(new SqlLoggingSelfCheck(environment).activeSqlLogging()).isEmpty();
+    }
+
+    @Test
+    void reportsEverySqlTraceSetting() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.show-sql", "true")
+                .withProperty("spring.jpa.properties.hibernate.format_sql", "true");
+        sqlLogger.setLevel(Level.DEBUG);
+        bindLogger.setLevel(Level.TRACE);
+
+        assertThat(new SqlLoggingSelfCheck(environment).activeSqlLogging()).containsExactly(
+                "spring.jpa.show-sql",
+                "hibernate.format_sql",
+                "org.hibernate.SQL=debug",
+                "org.hibernate.orm.jdbc.bind=trace");
+    }
+}
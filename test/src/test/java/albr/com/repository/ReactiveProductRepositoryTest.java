@@ -0,0 +1,162 @@
+package albr.com.repository;
+
+import albr.com.tax.config.ReactiveProperties;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.repository.ReactiveProductRepository;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repository R2DBC contre une vraie base H2 en mémoire (schéma db/schema.sql),
+ * gardée ouverte par une connexion JDBC comme le fait le pool de l'application.
+ */
+class ReactiveProductRepositoryTest {
+
+    private Connection jdbc;
+    private ReactiveProductRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String url = "mem:" + UUID.randomUUID();
+        jdbc = DriverManager.getConnection("jdbc:h2:" + url, "admin", "admin");
+        try (InputStreamReader schema = new InputStreamReader(Objects.requireNonNull(
+                getClass().getResourceAsStream("/db/schema.sql")), StandardCharsets.UTF_8)) {
+            RunScript.execute(jdbc, schema);
+        }
+        repository = new ReactiveProductRepository(new ReactiveProperties(url, "admin", "admin", 4, 500));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        repository.close();
+        jdbc.close();
+    }
+
+    private static Product product(String name, String price, Country country) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setCountry(country);
+        return product;
+    }
+
+    @Test
+    void insert_thenFindSummary() {
+        Product saved = repository.insert(product("Sirop d'érable", "12.50", Country.CANADA)).block();
+
+        assertThat(saved.getId()).isPositive();
+        StepVerifier.create(repository.findSummaryById(saved.getId()))
+                .assertNext(summary -> {
+                    assertThat(summary.getName()).isEqualTo("Sirop d'érable");
+                    assertThat(summary.getPrice()).isEqualByComparingTo("12.50");
+                    assertThat(summary.getCountry()).isEqualTo(Country.CANADA);
+                    assertThat(summary.getTaxAmount()).isNull();
+                    assertThat(summary.getVersion()).isZero();
+                })
+                .verifyComplete();
+        StepVerifier.create(repository.findVersionById(saved.getId())).expectNext(0L).verifyComplete();
+        StepVerifier.create(repository.findSummaryById(saved.getId() + 1000)).verifyComplete();
+    }
+
+    @Test
+    void insertAll_allocatesDistinctIdsAcrossSequenceBlocks_inOrder() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            products.add(product("p" + i, "1.00", Country.values()[i % 3]));
+        }
+
+        List<Product> saved = repository.insertAll(products).collectList().block();
+
+        assertThat(saved).extracting(Product::getName).containsExactly(
+                products.stream().map(Product::getName).toArray(String[]::new));
+        assertThat(saved).extracting(Product::getId).doesNotHaveDuplicates().allMatch(id -> id > 0);
+        // ids croissants dans un bloc de 50 : même répartition que l'optimiseur pooled d'Hibernate
+        assertThat(saved.get(1).getId()).isEqualTo(saved.get(0).getId() + 1);
+    }
+
+    @Test
+    void idsDoNotOverlapSequenceValuesTakenByOthers() throws Exception {
+        Product first = repository.insert(product("a", "1.00", Country.USA)).block();
+        long sequence;
+        try (Statement statement = jdbc.createStatement();
+             ResultSet rs = statement.executeQuery("select next value for products_seq")) {
+            rs.next();
+            sequence = rs.getLong(1);
+        }
+
+        // l'autre allocateur possède (sequence - 50, sequence]
+        List<Product> saved = repository.insertAll(List.of(
+                product("b", "1.00", Country.USA), product("c", "1.00", Country.USA))).collectList().block();
+
+        assertThat(first.getId()).isLessThanOrEqualTo(sequence - 50);
+        assertThat(saved).extracting(Product::getId).allMatch(id -> id <= sequence - 50 || id > sequence);
+    }
+
+    @Test
+    void findSummariesAfter_pagesByKey_withCountryFilter() {
+        List<Product> saved = repository.insertAll(List.of(
+                product("f1", "1.00", Country.FRANCE),
+                product("u1", "2.00", Country.USA),
+                product("f2", "3.00", Country.FRANCE),
+                product("f3", "4.00", Country.FRANCE))).collectList().block();
+
+        StepVerifier.create(repository.findSummariesAfter(0, Country.FRANCE, 2).map(ProductSummary::getName))
+                .expectNext("f1", "f2")
+                .verifyComplete();
+        StepVerifier.create(repository.findSummariesAfter(saved.get(2).getId(), Country.FRANCE, 2)
+                        .map(ProductSummary::getName))
+                .expectNext("f3")
+                .verifyComplete();
+        StepVerifier.create(repository.findSummariesAfter(saved.get(0).getId(), null, 10)
+                        .map(ProductSummary::getName))
+                .expectNext("u1", "f2", "f3")
+                .verifyComplete();
+    }
+
+    @Test
+    void findSummariesByIdIn_returnsOnlyExistingIds() {
+        List<Product> saved = repository.insertAll(List.of(
+                product("x", "1.00", Country.USA), product("y", "2.00", Country.CANADA))).collectList().block();
+
+        StepVerifier.create(repository.findSummariesByIdIn(List.of(saved.get(1).getId(), 999_999L))
+                        .map(ProductSummary::getName))
+                .expectNext("y")
+                .verifyComplete();
+        StepVerifier.create(repository.findSummariesByIdIn(List.of())).verifyComplete();
+    }
+
+    @Test
+    void insertAll_rollsBackTheWholeBatchOnFailure() throws Exception {
+        Product valid = product("ok", "1.00", Country.USA);
+        Product tooLong = product("x".repeat(300), "1.00", Country.USA);
+
+        StepVerifier.create(repository.insertAll(List.of(valid, tooLong)))
+                .expectError()
+                .verify();
+
+        try (Statement statement = jdbc.createStatement();
+             ResultSet rs = statement.executeQuery("select count(*) from products")) {
+            rs.next();
+            assertThat(rs.getLong(1)).isZero();
+        }
+    }
+}
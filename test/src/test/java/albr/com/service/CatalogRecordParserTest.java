@@ -0,0 +1,122 @@
+package albr.com.service;
+
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.service.CatalogRecordParser;
+import albr.com.tax.service.CatalogRecordParser.Format;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogRecordParserTest {
+
+    private final List<ProductRequest> accepted = new ArrayList<>();
+    private final List<String> rejected = new ArrayList<>();
+    private final List<Long> offsets = new ArrayList<>();
+
+    private final CatalogRecordParser.Sink sink = new CatalogRecordParser.Sink() {
+        @Override
+        public String accept(long offset, ProductRequest request) {
+            offsets.add(offset);
+            accepted.add(request);
+            return null;
+        }
+
+        @Override
+        public void reject(long offset, String error, String line) {
+            rejected.add(line + " -> " + error);
+        }
+    };
+
+    private long parse(Format format, String content, long baseOffset) {
+        CatalogRecordParser parser = new CatalogRecordParser(format,
+                JsonMapper.builder().build().readerFor(ProductRequest.class));
+        return parser.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), baseOffset, sink);
+    }
+
+    @Test
+    void csv_parsesPricesAndCountries_andSkipsHeader() {
+        long lines = parse(Format.CSV, """
+                name,price,country
+                Chaise,100.00,FRANCE
+                "Table, ronde",12.5,USA\r
+                "Lampe ""LED""\", 0 ,CANADA
+
+                """, 0);
+
+        assertThat(lines).isEqualTo(3);
+        assertThat(rejected).isEmpty();
+        assertThat(accepted).containsExactly(
+                new ProductRequest("Chaise", new BigDecimal("100.00"), Country.FRANCE),
+                new ProductRequest("Table, ronde", new BigDecimal("12.5"), Country.USA),
+                new ProductRequest("Lampe \"LED\"", new BigDecimal("0"), Country.CANADA));
+        // offset = début de la ligne dans le fichier
+        assertThat(offsets.get(0)).isEqualTo("name,price,country\n".length());
+    }
+
+    @Test
+    void csv_headerIsOnlySkippedAtStartOfFile() {
+        parse(Format.CSV, "name,1.00,FRANCE\n", 1000);
+
+        assertThat(accepted).extracting(ProductRequest::getName).containsExactly("name");
+    }
+
+    @Test
+    void csv_onlyTheExactHeaderIsSkipped() {
+        parse(Format.CSV, "NAME,Price,Country\r\nName tag,1.00,FRANCE\n", 0);
+        accepted.clear();
+        parse(Format.CSV, "Name tag,2.00,USA\n", 0);
+
+        assertThat(accepted).extracting(ProductRequest::getName).containsExactly("Name tag");
+        assertThat(rejected).isEmpty();
+    }
+
+    @Test
+    void csv_badRowsAreRejectedWithTheirLine() {
+        parse(Format.CSV, """
+                A,1.2.3,FRANCE
+                B,10,MARS
+                C,10
+                D,10,USA,extra
+                "E,10,USA
+                F,-3,FRANCE
+                """, 100);
+
+        assertThat(rejected).containsExactly(
+                "A,1.2.3,FRANCE -> price: not a decimal number",
+                "B,10,MARS -> country: unknown value",
+                "C,10 -> Expected 3 fields: name,price,country",
+                "D,10,USA,extra -> Expected 3 fields: name,price,country",
+                "\"E,10,USA -> name: unterminated quote");
+        // syntaxe correcte : la validation (prix >= 0) revient au sink
+        assertThat(accepted).containsExactly(new ProductRequest("F", new BigDecimal("-3"), Country.FRANCE));
+    }
+
+    @Test
+    void ndjson_readsOneRequestPerLine() {
+        parse(Format.NDJSON, """
+                {"name":"A","price":1.50,"country":"FRANCE"}
+                {"name":"B","price":2,"country":"MARS"}
+                {"name":"C","price":3,"country":"USA"}
+                """, 0);
+
+        assertThat(accepted).extracting(ProductRequest::getName).containsExactly("A", "C");
+        assertThat(accepted.get(0).getPrice()).isEqualByComparingTo("1.50");
+        assertThat(rejected).singleElement().asString().startsWith("{\"name\":\"B\"");
+    }
+
+    @Test
+    void format_isChosenFromExtension() {
+        assertThat(Format.of("catalog.CSV")).isEqualTo(Format.CSV);
+        assertThat(Format.of("catalog.jsonl")).isEqualTo(Format.NDJSON);
+        assertThatThrownBy(() -> Format.of("catalog.xlsx")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
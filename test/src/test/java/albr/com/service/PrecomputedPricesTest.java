@@ -0,0 +1,71 @@
+package albr.com.service;
+
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.PrecomputedPrices;
+import albr.com.tax.service.TaxStraegyUSAImp;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecomputedPricesTest {
+
+    private final AtomicReference<TaxRuleTable> table = new AtomicReference<>(TaxRuleTable.defaults());
+
+    private PrecomputedPrices prices(boolean enabled) {
+        return new PrecomputedPrices(new PrecomputeProperties(enabled, 500), table::get);
+    }
+
+    private static Product usa(String price) {
+        return new Product("p", new BigDecimal(price), Country.USA);
+    }
+
+    @Test
+    void apply_storesQuoteAndRuleVersion() {
+        Product product = usa("100.00");
+
+        prices(true).apply(product);
+
+        assertThat(product.getTaxAmount()).isEqualByComparingTo("10.864");
+        assertThat(product.getFinalPrice()).isEqualByComparingTo("110.864");
+        assertThat(product.getTaxRulesVersion()).isEqualTo(TaxRuleTable.defaults().version());
+    }
+
+    @Test
+    void currentTax_matchesLiveComputation_onceReadBackAtColumnScale() {
+        Product product = usa("100.00");
+        prices(true).apply(product);
+        // relu de la colonne numeric(38, 8)
+        product.setTaxAmount(product.getTaxAmount().setScale(8));
+
+        BigDecimal stored = prices(true).currentTax(product);
+
+        assertThat(stored).isEqualTo(new TaxStraegyUSAImp().calculateTax(product));
+        assertThat(stored.toPlainString()).isEqualTo("10.864");
+    }
+
+    @Test
+    void currentTax_ignoresValuesFromAnotherRuleVersion() {
+        Product product = usa("100.00");
+        prices(true).apply(product);
+
+        product.setTaxRulesVersion("older");
+
+        assertThat(prices(true).currentTax(product)).isNull();
+    }
+
+    @Test
+    void disabled_neitherStoresNorServes() {
+        Product product = usa("100.00");
+        prices(false).apply(product);
+        assertThat(product.getTaxRulesVersion()).isNull();
+
+        prices(true).apply(product);
+        assertThat(prices(false).currentTax(product)).isNull();
+    }
+}
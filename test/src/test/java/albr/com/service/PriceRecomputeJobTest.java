@@ -0,0 +1,92 @@
+package albr.com.service;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.config.TaxRulesProperties;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.service.PrecomputedPrices;
+import albr.com.tax.service.PriceRecomputeJob;
+import albr.com.tax.service.TaxRuleRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PriceRecomputeJobTest {
+
+    private ProductRepository repository;
+    private TaxRuleRegistry registry;
+    private ProductCache productCache;
+    private PriceRecomputeJob job;
+
+    private static Product product(long id, String version) {
+        Product p = new Product("p" + id, new BigDecimal("100.00"), Country.FRANCE);
+        p.setId(id);
+        p.setTaxRulesVersion(version);
+        return p;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductRepository.class);
+        registry = new TaxRuleRegistry(new TaxRulesProperties(new ClassPathResource("tax-rules.json")),
+                mock(ApplicationEventPublisher.class));
+        productCache = spy(new ProductCache(new ProductCacheProperties(true, 100, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry()));
+        PrecomputeProperties properties = new PrecomputeProperties(true, 2);
+        job = new PriceRecomputeJob(repository, new PrecomputedPrices(properties, registry), registry, productCache,
+                new ColumnarProductStore(new ColumnarReadProperties(false, 1000), repository, new SimpleMeterRegistry()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties);
+    }
+
+    @Test
+    void recompute_walksStaleRowsInBatches_andInvalidatesThem() {
+        String version = registry.current().version();
+        Product a = product(1, null);
+        Product b = product(4, "older");
+        Product c = product(9, "older");
+        when(repository.findStalePrices(0L, version, Limit.of(2))).thenReturn(List.of(a, b));
+        when(repository.findStalePrices(4L, version, Limit.of(2))).thenReturn(List.of(c));
+        when(repository.findStalePrices(9L, version, Limit.of(2))).thenReturn(List.of());
+
+        assertThat(job.recompute()).isEqualTo(3);
+
+        assertThat(List.of(a, b, c)).allSatisfy(p -> {
+            assertThat(p.getTaxRulesVersion()).isEqualTo(version);
+            assertThat(p.getTaxAmount()).isEqualByComparingTo("20.00");
+        });
+        verify(productCache).invalidate(1L);
+        verify(productCache).invalidate(4L);
+        verify(productCache).invalidate(9L);
+    }
+
+    @Test
+    void recompute_stopsWhenRulesChangeMidWalk() {
+        String version = registry.current().version();
+        when(repository.findStalePrices(0L, version, Limit.of(2))).thenAnswer(inv -> {
+            registry.swap(TaxRuleTable.of("next", TaxRuleTable.defaults().definitions()));
+            return List.of(product(1, null), product(2, null));
+        });
+
+        assertThat(job.recompute()).isEqualTo(2);
+        verify(repository, times(1)).findStalePrices(anyLong(), anyString(), any());
+    }
+}
@@ -0,0 +1,129 @@
+package albr.com.service;
+
+import albr.com.tax.config.BulkProperties;
+import albr.com.tax.dto.ProductBulkResult;
+import albr.com.tax.dto.ProductBulkResult.Status;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.ProductBatchWriter;
+import albr.com.tax.service.ProductBulkService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DataIntegrityViolationException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProductBulkServiceTest {
+
+    private ProductBatchWriter batchWriter;
+    private ProductBulkService service;
+    private final List<ProductBulkResult> results = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = mock(ProductBatchWriter.class);
+        // simule les ids attribués par la séquence
+        AtomicLong ids = new AtomicLong(100);
+        when(batchWriter.persist(anyList())).thenAnswer(inv -> {
+            List<Product> products = inv.getArgument(0);
+            products.forEach(p -> p.setId(ids.incrementAndGet()));
+            return products;
+        });
+
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        service = new ProductBulkService(JsonMapper.builder().build(), validator,
+                Mappers.getMapper(ProductMapper.class), batchWriter, new BulkProperties(2));
+    }
+
+    private long ingest(String body) {
+        return service.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), results::add);
+    }
+
+    @Test
+    void jsonArray_isPersistedInBatches() {
+        long read = ingest("""
+                [ { "name": "A", "price": 1.00, "country": "FRANCE" },
+                  { "name": "B", "price": 2.00, "country": "USA" },
+                  { "name": "C", "price": 3.00, "country": "CANADA" } ]
+                """);
+
+        assertThat(read).isEqualTo(3);
+        assertThat(results).extracting(ProductBulkResult::getStatus).containsOnly(Status.CREATED);
+        assertThat(results).extracting(ProductBulkResult::getIndex).containsExactly(0L, 1L, 2L);
+        assertThat(results).extracting(ProductBulkResult::getId).containsExactly(101L, 102L, 103L);
+        // batch-size = 2 -> un lot plein + un lot partiel
+        verify(batchWriter, times(2)).persist(anyList());
+    }
+
+    @Test
+    void ndjson_invalidItemsAreRejected_andOthersPersisted() {
+        ingest("""
+                { "name": "A", "price": 1.00, "country": "FRANCE" }
+                { "name": "Neg", "price": -1, "country": "FRANCE" }
+                { "name": "X", "price": 1.00, "country": "MARS" }
+                { "name": "B", "price": 2.00, "country": "USA" }
+                """);
+
+        assertThat(results).extracting(ProductBulkResult::getStatus)
+                .containsExactlyInAnyOrder(Status.CREATED, Status.REJECTED, Status.REJECTED, Status.CREATED);
+        assertThat(results).filteredOn(r -> r.getStatus() == Status.REJECTED)
+                .extracting(ProductBulkResult::getIndex).containsExactly(1L, 2L);
+        assertThat(results).filteredOn(r -> r.getIndex() == 1L)
+                .singleElement().extracting(ProductBulkResult::getError).asString().contains("price");
+    }
+
+    @Test
+    void priceWithMoreDecimalsThanStored_isRejected() {
+        ingest("""
+                { "name": "A", "price": 10.005, "country": "FRANCE" }
+                { "name": "B", "price": 10.5, "country": "FRANCE" }
+                """);
+
+        assertThat(results).extracting(ProductBulkResult::getStatus)
+                .containsExactly(Status.REJECTED, Status.CREATED);
+        assertThat(results.get(0).getError()).startsWith("price ");
+    }
+
+    @Test
+    void malformedJson_stopsReading_afterFlushingValidItems() {
+        long read = ingest("""
+                { "name": "A", "price": 1.00, "country": "FRANCE" }
+                { "name": "B", "price":
+                """);
+
+        assertThat(read).isEqualTo(2);
+        assertThat(results).extracting(ProductBulkResult::getStatus)
+                .containsExactly(Status.REJECTED, Status.CREATED);
+    }
+
+    @Test
+    void dataAccessFailure_marksWholeBatchAsFailed() {
+        when(batchWriter.persist(anyList())).thenThrow(new DataIntegrityViolationException("boom"));
+
+        ingest("""
+                [ { "name": "A", "price": 1.00, "country": "FRANCE" } ]
+                """);
+
+        assertThat(results).singleElement()
+                .extracting(ProductBulkResult::getStatus).isEqualTo(Status.FAILED);
+    }
+
+    @Test
+    void emptyArray_persistsNothing() {
+        assertThat(ingest("[]")).isZero();
+        assertThat(results).isEmpty();
+        verifyNoInteractions(batchWriter);
+    }
+}
@@ -0,0 +1,88 @@
+package albr.com.service;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.config.TaxRulesProperties;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.service.ProductETags;
+import albr.com.tax.service.TaxRuleRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ProductETagsTest {
+
+    private ProductRepository repository;
+    private ProductCache productCache;
+    private TaxRuleRegistry registry;
+    private ProductETags etags;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductRepository.class);
+        productCache = new ProductCache(new ProductCacheProperties(true, 100, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+        registry = new TaxRuleRegistry(new TaxRulesProperties(new ClassPathResource("tax-rules.json")),
+                mock(ApplicationEventPublisher.class));
+        etags = new ProductETags(productCache,
+                new ColumnarProductStore(new ColumnarReadProperties(false, 1000), repository, new SimpleMeterRegistry()),
+                repository, registry);
+    }
+
+    @Test
+    void versionIsReadAlone_whenProductIsNotCached() {
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertThat(etags.product(1L)).contains("\"1-3\"");
+        verify(repository, never()).findSummaryById(any());
+    }
+
+    @Test
+    void cachedProduct_answersWithoutQuery() {
+        productCache.putAll(List.of(
+                new ProductSummary(1L, "P", new BigDecimal("10.00"), Country.FRANCE, null, null, 5L)));
+
+        assertThat(etags.product(1L)).contains("\"1-5\"");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void priceETag_changesWithTaxRulesVersion() {
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        String before = etags.price(1L).orElseThrow();
+
+        registry.swap(TaxRuleTable.of("next", TaxRuleTable.defaults().definitions()));
+
+        assertThat(etags.price(1L)).contains("\"1-3-next\"").isNotEqualTo(Optional.of(before));
+    }
+
+    @Test
+    void cborRepresentation_hasItsOwnETag() {
+        assertThat(ProductETags.variant("\"1-3-2025.1\"", MediaType.APPLICATION_CBOR)).isEqualTo("\"1-3-2025.1-cbor\"");
+        assertThat(ProductETags.variant("\"1-3\"", MediaType.APPLICATION_JSON)).isEqualTo("\"1-3\"");
+    }
+
+    @Test
+    void unknownProduct_hasNoETag() {
+        when(repository.findVersionById(9L)).thenReturn(Optional.empty());
+
+        assertThat(etags.product(9L)).isEmpty();
+        assertThat(etags.price(9L)).isEmpty();
+    }
+}
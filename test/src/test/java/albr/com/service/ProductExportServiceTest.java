@@ -0,0 +1,176 @@
+package albr.com.service;
+
+import albr.com.tax.config.ExportProperties;
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.dto.ProductExportStatus;
+import albr.com.tax.dto.ProductExportStatus.Status;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.CatalogExportWriter.Format;
+import albr.com.tax.service.PrecomputedPrices;
+import albr.com.tax.service.ProductExportService;
+import albr.com.tax.service.ProductListingService;
+import albr.com.tax.service.TaxService;
+import albr.com.tax.service.TaxStraegyCANImp;
+import albr.com.tax.service.TaxStraegyFRImp;
+import albr.com.tax.service.TaxStraegyUSAImp;
+import albr.com.tax.service.TaxStrategyResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductExportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ProductListingService listingService;
+    private TaxService taxService;
+    private ProductExportService exportService;
+
+    private static Product product(long id, String name, String price, Country country) {
+        Product p = new Product(name, price != null ? new BigDecimal(price) : null, country);
+        p.setId(id);
+        return p;
+    }
+
+    @BeforeEach
+    void setUp() {
+        listingService = mock(ProductListingService.class);
+        taxService = spy(new TaxService(new TaxStrategyResolver(List.of(
+                new TaxStraegyFRImp(), new TaxStraegyCANImp(), new TaxStraegyUSAImp()))));
+        // blocs de 2 produits et tampon minimal : plusieurs blocs, noms plus longs que le tampon
+        exportService = new ProductExportService(listingService, taxService,
+                new PrecomputedPrices(new PrecomputeProperties(false, 500), TaxRuleTable::defaults),
+                new ExportProperties(directory, 2, DataSize.ofKilobytes(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportService.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void catalog(Product... products) {
+        when(listingService.scan(eq(0L), any(), any())).thenAnswer(inv -> {
+            Consumer<Product> sink = inv.getArgument(2);
+            for (Product product : products) {
+                sink.accept(product);
+            }
+            return (long) products.length;
+        });
+    }
+
+    @Test
+    void csv_containsBasePriceTaxAndFinalPrice() throws IOException {
+        catalog(product(1, "Chaise", "100.00", Country.FRANCE),
+                product(2, "Table, ronde", "50.00", Country.USA),
+                product(3, "Lampe", "10.00", Country.FRANCE),
+                product(4, "Sans prix", null, Country.CANADA));
+
+        ProductExportStatus status = exportService.export(Format.CSV, false, null);
+
+        assertThat(status.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(status.getRowsWritten()).isEqualTo(4);
+        Path file = directory.resolve(status.getFile());
+        assertThat(status.getFile()).endsWith(".csv");
+        assertThat(status.getBytesWritten()).isEqualTo(Files.size(file));
+        assertThat(Files.readAllLines(file)).containsExactly(
+                "id,name,country,price,tax,final_price",
+                "1,Chaise,FRANCE,100.00,20.00,120.00",
+                "2,\"Table, ronde\",USA,50.00,6.932,56.932",
+                "3,Lampe,FRANCE,10.00,2.00,12.00",
+                "4,Sans prix,CANADA,,,");
+        // une stratégie par pays pour tout l'export
+        verify(taxService, times(2)).findTaxStrategy(any());
+    }
+
+    @Test
+    void columnar_gzip_roundTrip() throws IOException {
+        String longName = "x".repeat(3000);
+        catalog(product(1, "Chaise", "100.00", Country.FRANCE),
+                product(2, longName, "50.00", Country.USA),
+                product(3, "Érable", "10.00", Country.CANADA));
+
+        ProductExportStatus status = exportService.export(Format.COLUMNAR, true, null);
+
+        assertThat(status.getFile()).endsWith(".tcol.gz");
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(Files.newInputStream(directory.resolve(status.getFile()))))) {
+            assertThat(new String(in.readNBytes(6), StandardCharsets.US_ASCII)).isEqualTo("TAXCOL");
+            assertThat(in.readByte()).isEqualTo((byte) 1);
+            assertThat(in.readByte()).isEqualTo((byte) 8);
+            int countries = in.readByte();
+            for (int c = 0; c < countries; c++) {
+                assertThat(new String(in.readNBytes(in.readByte()), StandardCharsets.US_ASCII))
+                        .isEqualTo(Country.values()[c].name());
+            }
+
+            // bloc 1 : produits 1 et 2
+            assertThat(in.readInt()).isEqualTo(2);
+            assertThat(readLongs(in, 2)).containsExactly(1L, 2L);
+            assertThat(in.readNBytes(2)).containsExactly(Country.FRANCE.ordinal(), Country.USA.ordinal());
+            assertThat(readLongs(in, 2)).containsExactly(100_00000000L, 50_00000000L);
+            assertThat(readLongs(in, 2)).containsExactly(20_00000000L, 6_93200000L);
+            assertThat(readLongs(in, 2)).containsExactly(120_00000000L, 56_93200000L);
+            assertThat(in.readInt()).isEqualTo(6);
+            assertThat(in.readInt()).isEqualTo(3000);
+            assertThat(new String(in.readNBytes(6), StandardCharsets.UTF_8)).isEqualTo("Chaise");
+            assertThat(new String(in.readNBytes(3000), StandardCharsets.UTF_8)).isEqualTo(longName);
+
+            // bloc 2 : produit 3
+            assertThat(in.readInt()).isEqualTo(1);
+            assertThat(in.readLong()).isEqualTo(3L);
+            assertThat(in.readByte()).isEqualTo((byte) Country.CANADA.ordinal());
+            assertThat(in.readLong()).isEqualTo(10_00000000L);
+            in.readLong();
+            in.readLong();
+            int length = in.readInt();
+            assertThat(new String(in.readNBytes(length), StandardCharsets.UTF_8)).isEqualTo("Érable");
+
+            // fin
+            assertThat(in.readInt()).isZero();
+            assertThat(in.readLong()).isEqualTo(3L);
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void failedExport_leavesNoFile() throws IOException {
+        when(listingService.scan(anyLong(), any(), any())).thenThrow(new IllegalStateException("db down"));
+
+        ProductExportStatus status = exportService.export(Format.CSV, false, Country.FRANCE);
+
+        assertThat(status.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(status.getError()).isEqualTo("db down");
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+        verify(listingService).scan(eq(0L), eq(Country.FRANCE), any());
+    }
+
+    private static long[] readLongs(DataInputStream in, int count) throws IOException {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+}
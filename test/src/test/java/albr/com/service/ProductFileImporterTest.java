@@ -0,0 +1,125 @@
+package albr.com.service;
+
+import albr.com.tax.config.BulkProperties;
+import albr.com.tax.config.ImportProperties;
+import albr.com.tax.dto.ProductImportStatus;
+import albr.com.tax.dto.ProductImportStatus.Status;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.ProductBatchWriter;
+import albr.com.tax.service.ProductFileImporter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProductFileImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final Queue<String> persisted = new ConcurrentLinkedQueue<>();
+    private ProductFileImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        ProductBatchWriter batchWriter = mock(ProductBatchWriter.class);
+        when(batchWriter.persist(anyList())).thenAnswer(inv -> {
+            List<Product> products = inv.getArgument(0);
+            // un nom "dup" fait échouer tout le lot, comme une contrainte d'unicité
+            if (products.stream().anyMatch(p -> "dup".equals(p.getName()))) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            products.forEach(p -> persisted.add(p.getName()));
+            return products;
+        });
+        // petites portions et petits lots : le découpage et les lots partiels sont exercés
+        importer = new ProductFileImporter(Mappers.getMapper(ProductMapper.class), batchWriter,
+                Validation.buildDefaultValidatorFactory().getValidator(), JsonMapper.builder().build(),
+                new ImportProperties(directory, 3, DataSize.ofBytes(200)), new BulkProperties(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.shutdown();
+    }
+
+    @Test
+    void csv_everyValidRowIsPersistedOnce_andBadRowsGoToRejectFile() throws IOException {
+        StringBuilder csv = new StringBuilder("name,price,country\n");
+        IntStream.range(0, 500).forEach(i -> csv.append("p").append(i).append(',').append(i).append(".99,FRANCE\n"));
+        csv.append("bad,abc,FRANCE\n").append(" ,1.00,USA\n");
+        Path file = Files.writeString(directory.resolve("catalog.csv"), csv);
+
+        ProductImportStatus status = importer.importFile(file);
+
+        assertThat(status.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(status.getRowsImported()).isEqualTo(500);
+        assertThat(status.getRowsRejected()).isEqualTo(2);
+        assertThat(status.getRowsRead()).isEqualTo(502);
+        assertThat(status.getBytesRead()).isEqualTo(status.getBytesTotal());
+        assertThat(persisted).hasSize(500).doesNotHaveDuplicates()
+                .containsAll(IntStream.range(0, 500).mapToObj(i -> "p" + i).toList());
+
+        List<String> rejects = Files.readAllLines(directory.resolve(status.getRejectFile()));
+        assertThat(rejects).hasSize(2);
+        assertThat(rejects.get(0)).contains("price: not a decimal number").contains("bad,abc,FRANCE");
+        assertThat(rejects.get(1)).contains("name must not be blank");
+    }
+
+    @Test
+    void failedBatch_isRetriedRowByRow_andKeepsTheOriginalLine() throws IOException {
+        Path file = Files.writeString(directory.resolve("catalog.csv"), """
+                a,1.00,FRANCE
+                dup,2.00,USA
+                b,3.00,CANADA
+                """);
+
+        ProductImportStatus status = importer.importFile(file);
+
+        assertThat(status.getRowsImported()).isEqualTo(2);
+        assertThat(status.getRowsRejected()).isEqualTo(1);
+        assertThat(persisted).containsExactlyInAnyOrder("a", "b");
+        List<String> rejects = Files.readAllLines(directory.resolve(status.getRejectFile()));
+        assertThat(rejects).singleElement().asString()
+                .contains("Unable to create product").contains("dup,2.00,USA").contains("\"offset\":14");
+    }
+
+    @Test
+    void ndjson_isImported() throws IOException {
+        Path file = Files.writeString(directory.resolve("catalog.ndjson"), """
+                {"name":"A","price":1.00,"country":"FRANCE"}
+                {"name":"B","price":2.00,"country":"USA"}
+                """);
+
+        ProductImportStatus status = importer.importFile(file);
+
+        assertThat(status.getRowsImported()).isEqualTo(2);
+        assertThat(status.getRejectFile()).isNull();
+        assertThat(persisted).containsExactlyInAnyOrder("A", "B");
+    }
+
+    @Test
+    void submit_refusesFilesOutsideImportDirectory() {
+        assertThatThrownBy(() -> importer.submit("../secret.csv")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> importer.submit("missing.csv")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package albr.com.service;
+
+import albr.com.tax.config.IngestProperties;
+import albr.com.tax.dto.ProductIngestStatus;
+import albr.com.tax.dto.ProductIngestStatus.Status;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.ProductBatchWriter;
+import albr.com.tax.service.ProductIngestQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProductIngestQueueTest {
+
+    private ProductBatchWriter batchWriter;
+    private ProductIngestQueue queue;
+
+    private static ProductRequest request(String name) {
+        return new ProductRequest(name, new BigDecimal("10.00"), Country.FRANCE);
+    }
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = mock(ProductBatchWriter.class);
+        // simule les ids attribués par la séquence
+        AtomicLong ids = new AtomicLong(100);
+        when(batchWriter.persist(anyList())).thenAnswer(inv -> {
+            List<Product> products = inv.getArgument(0);
+            products.forEach(p -> p.setId(ids.incrementAndGet()));
+            return products;
+        });
+        queue = new ProductIngestQueue(Mappers.getMapper(ProductMapper.class), batchWriter,
+                new IngestProperties(3, Duration.ZERO, 2, 1, Duration.ofSeconds(5), 100, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void submit_returnsQueuedTicket_andWorkerPersistsInBatches() throws InterruptedException {
+        ProductIngestStatus a = queue.submit(request("A")).orElseThrow();
+        ProductIngestStatus b = queue.submit(request("B")).orElseThrow();
+        ProductIngestStatus c = queue.submit(request("C")).orElseThrow();
+
+        assertThat(a.getStatus()).isEqualTo(Status.QUEUED);
+        assertThat(queue.status(a.getTrackingId())).get().extracting(ProductIngestStatus::getStatus)
+                .isEqualTo(Status.QUEUED);
+        verifyNoInteractions(batchWriter);
+
+        // batch-size = 2 -> un lot plein puis un lot partiel
+        assertThat(queue.processNext(0, TimeUnit.MILLISECONDS)).isEqualTo(2);
+        assertThat(queue.processNext(0, TimeUnit.MILLISECONDS)).isEqualTo(1);
+        assertThat(queue.processNext(0, TimeUnit.MILLISECONDS)).isZero();
+
+        assertThat(List.of(a, b, c))
+                .map(t -> queue.status(t.getTrackingId()).orElseThrow())
+                .extracting(ProductIngestStatus::getStatus, ProductIngestStatus::getId)
+                .containsExactly(
+                        tuple(Status.CREATED, 101L),
+                        tuple(Status.CREATED, 102L),
+                        tuple(Status.CREATED, 103L));
+        verify(batchWriter, times(2)).persist(anyList());
+    }
+
+    @Test
+    void submit_whenQueueIsFull_isRefused() {
+        queue.submit(request("A"));
+        queue.submit(request("B"));
+        queue.submit(request("C"));
+
+        assertThat(queue.submit(request("D"))).isEmpty();
+        assertThat(queue.pending()).isEqualTo(3);
+    }
+
+    @Test
+    void processNext_whenBatchFails_marksEveryRequestFailed() throws InterruptedException {
+        when(batchWriter.persist(anyList())).thenThrow(new DataIntegrityViolationException("boom"));
+        ProductIngestStatus a = queue.submit(request("A")).orElseThrow();
+        ProductIngestStatus b = queue.submit(request("B")).orElseThrow();
+
+        queue.processNext(0, TimeUnit.MILLISECONDS);
+
+        assertThat(List.of(a, b))
+                .map(t -> queue.status(t.getTrackingId()).orElseThrow().getStatus())
+                .containsOnly(Status.FAILED);
+    }
+
+    @Test
+    void stop_drainsPendingRequests_thenRefusesNewOnes() {
+        ProductIngestStatus a = queue.submit(request("A")).orElseThrow();
+        ProductIngestStatus b = queue.submit(request("B")).orElseThrow();
+        ProductIngestStatus c = queue.submit(request("C")).orElseThrow();
+
+        queue.start();
+        queue.stop();
+
+        assertThat(queue.pending()).isZero();
+        assertThat(List.of(a, b, c))
+                .map(t -> queue.status(t.getTrackingId()).orElseThrow().getStatus())
+                .containsOnly(Status.CREATED);
+        assertThat(queue.submit(request("D"))).isEmpty();
+        assertThat(queue.isRunning()).isFalse();
+    }
+}
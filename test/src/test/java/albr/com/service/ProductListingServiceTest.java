@@ -0,0 +1,134 @@
+package albr.com.service;
+
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.dto.ProductPage;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.service.PrecomputedPrices;
+import albr.com.tax.service.ProductListingService;
+import albr.com.tax.service.TaxService;
+import albr.com.tax.service.TaxStraegyCANImp;
+import albr.com.tax.service.TaxStraegyFRImp;
+import albr.com.tax.service.TaxStraegyUSAImp;
+import albr.com.tax.service.TaxStrategyResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductListingServiceTest {
+
+    private ProductRepository repository;
+    private TaxService taxService;
+    private EntityManager entityManager;
+    private ProductListingService service;
+
+    private static Product product(long id, String price, Country country) {
+        Product p = new Product("p" + id, new BigDecimal(price), country);
+        p.setId(id);
+        return p;
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductRepository.class);
+        entityManager = mock(EntityManager.class);
+        taxService = spy(new TaxService(new TaxStrategyResolver(List.of(
+                new TaxStraegyFRImp(), new TaxStraegyCANImp(), new TaxStraegyUSAImp()))));
+        TaxQuoteCache quoteCache = new TaxQuoteCache(new QuoteCacheProperties(false, 0), new SimpleMeterRegistry());
+        service = new ProductListingService(repository, Mappers.getMapper(ProductMapper.class),
+                taxService, quoteCache, entityManager,
+                new PrecomputedPrices(new PrecomputeProperties(false, 500), TaxRuleTable::defaults));
+    }
+
+    @Test
+    void fullPage_returnsLastIdAsCursor() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(product(3, "10.00", Country.FRANCE), product(7, "20.00", Country.USA)));
+
+        ProductPage page = service.page(0, 2, null, false);
+
+        assertThat(page.getItems()).extracting(ProductResponse::getId).containsExactly(3L, 7L);
+        assertThat(page.getItems()).extracting(ProductResponse::getFinalPrice).containsOnlyNulls();
+        assertThat(page.getNextAfterId()).isEqualTo(7L);
+        verifyNoInteractions(taxService);
+    }
+
+    @Test
+    void shortPage_isTheLastOne() {
+        when(repository.findByCountryAndIdGreaterThanOrderByIdAsc(Country.CANADA, 7L, Limit.of(5)))
+                .thenReturn(List.of(product(9, "10.00", Country.CANADA)));
+
+        ProductPage page = service.page(7, 5, Country.CANADA, false);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextAfterId()).isNull();
+        verify(repository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    void withPrices_resolvesEachCountryOncePerPage() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10))).thenReturn(List.of(
+                product(1, "100.00", Country.FRANCE),
+                product(2, "50.00", Country.FRANCE),
+                product(3, "100.00", Country.USA)));
+
+        ProductPage page = service.page(0, 10, null, true);
+
+        // même convention que getProductTTC : finalPrice porte la taxe calculée
+        assertThat(page.getItems()).extracting(ProductResponse::getFinalPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("20.00"), new BigDecimal("10.00"), new BigDecimal("10.864"));
+        verify(taxService, times(2)).findTaxStrategy(any(Product.class));
+    }
+
+    @Test
+    void invalidLimit_isRejected() {
+        assertThatThrownBy(() -> service.page(0, 0, null, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void stream_writesEveryRow_andDetachesIt() {
+        Product a = product(1, "100.00", Country.FRANCE);
+        Product b = product(2, "100.00", Country.FRANCE);
+        Stream<Product> rows = Stream.of(a, b);
+        when(repository.streamByIdGreaterThanOrderByIdAsc(0L)).thenReturn(rows);
+
+        List<ProductResponse> written = new ArrayList<>();
+        long count = service.stream(0, null, true, written::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(written).extracting(ProductResponse::getId).containsExactly(1L, 2L);
+        verify(entityManager).detach(a);
+        verify(entityManager).detach(b);
+        verify(taxService, times(1)).findTaxStrategy(any(Product.class));
+    }
+
+    @Test
+    void stream_byCountry_usesFilteredCursor() {
+        when(repository.streamByCountryAndIdGreaterThanOrderByIdAsc(Country.USA, 5L)).thenReturn(Stream.empty());
+
+        assertThat(service.stream(5, Country.USA, false, r -> { })).isZero();
+        verify(repository, never()).streamByIdGreaterThanOrderByIdAsc(anyLong());
+    }
+}
@@ -0,0 +1,124 @@
+package albr.com.service;
+
+import albr.com.tax.config.ReadCoalescingProperties;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.service.ProductLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ProductLoaderTest {
+
+    private ProductRepository repository;
+    private final ExecutorService pool = Executors.newFixedThreadPool(3);
+
+    private static ProductSummary summary(long id) {
+        return new ProductSummary(id, "p" + id, new BigDecimal("10.00"), Country.FRANCE, null, null, 0L);
+    }
+
+    private ProductLoader loader(Duration window, int maxBatchSize) {
+        return new ProductLoader(repository, new ReadCoalescingProperties(true, window, maxBatchSize),
+                new SimpleMeterRegistry());
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void singleId_isReadById() {
+        when(repository.findSummaryById(1L)).thenReturn(Optional.of(summary(1)));
+
+        assertThat(loader(Duration.ZERO, 10).load(1L)).contains(summary(1));
+        verify(repository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void concurrentReadsOfSameId_shareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findSummaryById(1L)).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(summary(1));
+        });
+        ProductLoader loader = loader(Duration.ZERO, 10);
+
+        Future<Optional<ProductSummary>> first = pool.submit(() -> loader.load(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Optional<ProductSummary>> second = pool.submit(() -> loader.load(1L));
+        Future<Optional<ProductSummary>> third = pool.submit(() -> loader.load(1L));
+        // laisse aux deux suivantes le temps de rejoindre le chargement en cours
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(List.of(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS),
+                third.get(5, TimeUnit.SECONDS))).containsOnly(Optional.of(summary(1)));
+        verify(repository, times(1)).findSummaryById(1L);
+    }
+
+    @Test
+    void distinctIdsInSameWindow_areReadWithOneInQuery() throws Exception {
+        when(repository.findSummariesByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            // l'id 3 n'existe pas
+            return ids.stream().filter(id -> id != 3L).map(ProductLoaderTest::summary).toList();
+        });
+        // fenêtre longue : c'est le remplissage du lot (3 ids) qui déclenche la lecture
+        ProductLoader loader = loader(Duration.ofSeconds(30), 3);
+
+        Future<Optional<ProductSummary>> a = pool.submit(() -> loader.load(1L));
+        Future<Optional<ProductSummary>> b = pool.submit(() -> loader.load(2L));
+        Future<Optional<ProductSummary>> c = pool.submit(() -> loader.load(3L));
+
+        assertThat(a.get(5, TimeUnit.SECONDS)).contains(summary(1));
+        assertThat(b.get(5, TimeUnit.SECONDS)).contains(summary(2));
+        assertThat(c.get(5, TimeUnit.SECONDS)).isEmpty();
+        verify(repository, times(1)).findSummariesByIdIn(anyCollection());
+        verify(repository, never()).findSummaryById(any());
+    }
+
+    @Test
+    void failedLoad_isPropagated_andNotRemembered() {
+        when(repository.findSummaryById(1L))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(Optional.of(summary(1)));
+        ProductLoader loader = loader(Duration.ZERO, 10);
+
+        assertThatThrownBy(() -> loader.load(1L)).isInstanceOf(QueryTimeoutException.class);
+        assertThat(loader.load(1L)).contains(summary(1));
+    }
+
+    @Test
+    void loadFailingWithAnError_doesNotBlockLaterReads() throws Exception {
+        when(repository.findSummaryById(1L))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(Optional.of(summary(1)));
+        ProductLoader loader = loader(Duration.ZERO, 10);
+
+        assertThatThrownBy(() -> loader.load(1L)).isInstanceOf(StackOverflowError.class);
+        assertThat(pool.submit(() -> loader.load(1L)).get(5, TimeUnit.SECONDS)).contains(summary(1));
+    }
+}
@@ -1,11 +1,23 @@
 package albr.com.service;
 
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.config.ReadCoalescingProperties;
 import albr.com.tax.dto.ProductRequest;
 import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.enumTax.Country;
 import albr.com.tax.exception.ProductCreationException;
 import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.metrics.PricingMetrics;
 import albr.com.tax.repository.Product;
 import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.service.PrecomputedPrices;
+import albr.com.tax.service.ProductLoader;
 import albr.com.tax.service.ProductService;
 import albr.com.tax.service.TaxService;
 import albr.com.tax.service.TaxStrategy;
@@ -13,15 +25,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 
@@ -36,13 +53,27 @@ class ProductServiceTest {
     private TaxService taxService;
     @Mock
     private TaxStrategy taxStrategy;
+    @Spy
+    private ProductCache productCache = new ProductCache(
+            new ProductCacheProperties(true, 100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+    @Spy
+    private TaxQuoteCache quoteCache = new TaxQuoteCache(new QuoteCacheProperties(true, 100), new SimpleMeterRegistry());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private PricingMetrics pricingMetrics = new PricingMetrics(meterRegistry);
+    @Mock
+    private PrecomputedPrices precomputedPrices;
 
-    @InjectMocks
     private ProductService service;
 
     @BeforeEach
     void setup() {
-        // Rien de spécial : @InjectMocks crée l'instance avec les mocks
+        // loader réel au-dessus du repository mocké : un id seul passe par findSummaryById
+        ProductLoader productLoader = new ProductLoader(repository,
+                new ReadCoalescingProperties(true, Duration.ZERO, 200), meterRegistry);
+        service = new ProductService(repository, productMapper, taxService, productCache, quoteCache,
+                pricingMetrics, precomputedPrices, productLoader,
+                new ColumnarProductStore(new ColumnarReadProperties(false, 1000), repository, meterRegistry));
     }
 
     // ---------------- add(request) ----------------
@@ -94,6 +125,22 @@ class ProductServiceTest {
             verify(repository).save(mapped);
             verify(productMapper).toResponse(saved);
         }
+
+        @Test
+        void shouldInvalidateCachedProduct_onSave() throws ProductCreationException {
+            ProductRequest req = mock(ProductRequest.class);
+            Product mapped = mock(Product.class);
+            Product saved = mock(Product.class);
+
+            when(productMapper.toEntity(req)).thenReturn(mapped);
+            when(mapped.getPrice()).thenReturn(new BigDecimal("1.00"));
+            when(repository.save(mapped)).thenReturn(saved);
+            when(saved.getId()).thenReturn(3L);
+
+            service.add(req);
+
+            verify(productCache).invalidate(3L);
+        }
     }
 
     // ---------------- getProduct(id) ----------------
@@ -111,7 +158,7 @@ class ProductServiceTest {
         @Test
         void shouldThrowIllegalArgument_whenNotFound() {
             Long id = 42L;
-            when(repository.findById(id)).thenReturn(Optional.empty());
+            when(repository.findSummaryById(id)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> service.getProduct(id))
                     .isInstanceOf(IllegalArgumentException.class)
@@ -121,16 +168,66 @@ class ProductServiceTest {
         @Test
         void shouldMapFoundEntity_toResponse() {
             Long id = 7L;
-            Product entity = mock(Product.class);
+            ProductSummary entity = mock(ProductSummary.class);
             ProductResponse resp = mock(ProductResponse.class);
 
-            when(repository.findById(id)).thenReturn(Optional.of(entity));
-            when(productMapper.toResponse(entity)).thenReturn(resp);
+            when(repository.findSummaryById(id)).thenReturn(Optional.of(entity));
+            when(productMapper.summaryToResponse(entity)).thenReturn(resp);
 
             ProductResponse result = service.getProduct(id);
 
             assertThat(result).isSameAs(resp);
-            verify(productMapper).toResponse(entity);
+            verify(productMapper).summaryToResponse(entity);
+        }
+
+        @Test
+        void shouldServeRepeatedLookups_fromCache() {
+            Long id = 8L;
+            ProductSummary entity = mock(ProductSummary.class);
+            when(repository.findSummaryById(id)).thenReturn(Optional.of(entity));
+            when(taxService.findTaxStrategy(entity)).thenReturn(taxStrategy);
+            when(productMapper.summaryToResponse(entity)).thenAnswer(inv -> new ProductResponse());
+
+            service.getProduct(id);
+            service.getProduct(id);
+            service.getProductTTC(id);
+
+            verify(repository, times(1)).findSummaryById(id);
+            assertThat(productCache.stats().hitCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldNotCache_unknownProducts() {
+            Long id = 404L;
+            when(repository.findSummaryById(id)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> service.getProduct(id)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> service.getProduct(id)).isInstanceOf(IllegalArgumentException.class);
+
+            verify(repository, times(2)).findSummaryById(id);
+        }
+
+        @Test
+        void shouldReadColumnarModel_withoutRepositoryNorCache() {
+            ColumnarProductStore columnarStore = new ColumnarProductStore(
+                    new ColumnarReadProperties(true, 1000), repository, meterRegistry);
+            ProductSummary stored = new ProductSummary(5L, "col", new BigDecimal("12.50"), Country.USA,
+                    null, null, 1);
+            when(repository.findSummariesAfter(eq(0L), any())).thenReturn(List.of(stored));
+            columnarStore.build();
+            service = new ProductService(repository, productMapper, taxService, productCache, quoteCache,
+                    pricingMetrics, precomputedPrices, new ProductLoader(repository,
+                    new ReadCoalescingProperties(true, Duration.ZERO, 200), meterRegistry), columnarStore);
+            when(productMapper.summaryToResponse(stored)).thenAnswer(inv -> new ProductResponse());
+
+            service.getProduct(5L);
+
+            verify(productMapper).summaryToResponse(stored);
+            verify(repository, never()).findSummaryById(any());
+            assertThat(productCache.stats().requestCount()).isZero();
+            // id absent du modèle : lecture habituelle
+            when(repository.findSummaryById(6L)).thenReturn(Optional.empty());
+            assertThatThrownBy(() -> service.getProduct(6L)).isInstanceOf(IllegalArgumentException.class);
         }
     }
 
@@ -149,7 +246,7 @@ class ProductServiceTest {
         @Test
         void shouldThrowIllegalArgument_whenNotFound() {
             Long id = 99L;
-            when(repository.findById(id)).thenReturn(Optional.empty());
+            when(repository.findSummaryById(id)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> service.getProductTTC(id))
                     .isInstanceOf(IllegalArgumentException.class)
@@ -159,8 +256,8 @@ class ProductServiceTest {
         @Test
         void shouldComputeTax_mapResponse_andSetFinalPrice() {
             Long id = 5L;
-            Product product = mock(Product.class);
-            when(repository.findById(id)).thenReturn(Optional.of(product));
+            ProductSummary product = mock(ProductSummary.class);
+            when(repository.findSummaryById(id)).thenReturn(Optional.of(product));
 
             // strategy & tax
             when(taxService.findTaxStrategy(product)).thenReturn(taxStrategy);
@@ -169,7 +266,7 @@ class ProductServiceTest {
 
             // mapping & final price setter
             ProductResponse response = mock(ProductResponse.class);
-            when(productMapper.toResponse(product)).thenReturn(response);
+            when(productMapper.summaryToResponse(product)).thenReturn(response);
 
             ProductResponse result = service.getProductTTC(id);
 
@@ -177,7 +274,128 @@ class ProductServiceTest {
             verify(response).setFinalPrice(total);
             verify(taxService).findTaxStrategy(product);
             verify(taxStrategy).calculateTax(product);
-            verify(productMapper).toResponse(product);
+            verify(productMapper).summaryToResponse(product);
+        }
+
+        @Test
+        void shouldRecordStageTimers_perCountry() {
+            Long id = 6L;
+            ProductSummary product = new ProductSummary(id, "P", new BigDecimal("10.00"), Country.CANADA, null, null, 0L);
+            when(repository.findSummaryById(id)).thenReturn(Optional.of(product));
+            when(taxService.findTaxStrategy(product)).thenReturn(taxStrategy);
+            when(taxStrategy.calculateTax(product)).thenReturn(new BigDecimal("1.00"));
+            when(productMapper.summaryToResponse(product)).thenReturn(new ProductResponse());
+
+            service.getProductTTC(id);
+
+            for (String stage : List.of("load", "resolve", "compute", "map", "total")) {
+                assertThat(meterRegistry.get(PricingMetrics.STAGE_TIMER)
+                        .tags("stage", stage, "country", "CANADA").timer().count())
+                        .as(stage).isEqualTo(1);
+            }
+            assertThat(meterRegistry.find(PricingMetrics.ERRORS).counter()).isNull();
+        }
+
+        @Test
+        void shouldCountError_inTheStageThatFailed() {
+            when(repository.findSummaryById(7L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> service.getProductTTC(7L)).isInstanceOf(IllegalArgumentException.class);
+
+            assertThat(meterRegistry.get(PricingMetrics.ERRORS)
+                    .tags("stage", "load", "exception", "IllegalArgumentException").counter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get(PricingMetrics.STAGE_TIMER)
+                    .tags("stage", "total", "country", "none").timer().count()).isZero();
+        }
+
+        @Test
+        void shouldServePrecomputedTax_withoutResolvingStrategy() {
+            Long id = 8L;
+            ProductSummary product = new ProductSummary(id, "P", new BigDecimal("10.00"), Country.FRANCE, null, null, 0L);
+            when(repository.findSummaryById(id)).thenReturn(Optional.of(product));
+            when(precomputedPrices.currentTax(product)).thenReturn(new BigDecimal("2.00"));
+            ProductResponse response = new ProductResponse();
+            when(productMapper.summaryToResponse(product)).thenReturn(response);
+
+            service.getProductTTC(id);
+
+            assertThat(response.getFinalPrice()).isEqualByComparingTo("2.00");
+            verifyNoInteractions(taxService);
+            verify(quoteCache, never()).quote(any(), any());
+        }
+    }
+
+    // ---------------- getProductsTTC(ids) ----------------
+
+    @Nested
+    class GetProductsTTC {
+
+        private ProductSummary product(long id, Country country) {
+            return new ProductSummary(id, "P" + id, new BigDecimal("10.00"), country, null, null, 0L);
+        }
+
+        @Test
+        void shouldThrowNPE_whenIdsAreNull() {
+            assertThatThrownBy(() -> service.getProductsTTC(null))
+                    .isInstanceOf(NullPointerException.class)
+                    .hasMessageContaining("Product ids must not be null");
+        }
+
+        @Test
+        void shouldThrowIllegalArgument_listingMissingIds() {
+            when(repository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(product(1L, Country.FRANCE)));
+
+            assertThatThrownBy(() -> service.getProductsTTC(List.of(1L, 2L, 3L)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Product not found with id=[2, 3]");
+            verifyNoInteractions(taxService);
+        }
+
+        @Test
+        void shouldLoadOnce_resolveStrategyOncePerCountry_andKeepRequestOrder() {
+            ProductSummary fr1 = product(1L, Country.FRANCE);
+            ProductSummary usa = product(2L, Country.USA);
+            ProductSummary fr2 = product(3L, Country.FRANCE);
+            when(repository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(fr1, usa, fr2));
+
+            TaxStrategy usaStrategy = mock(TaxStrategy.class);
+            when(taxService.findTaxStrategy(any(ProductSummary.class))).thenAnswer(inv ->
+                    ((ProductSummary) inv.getArgument(0)).getCountry() == Country.USA ? usaStrategy : taxStrategy);
+            when(taxStrategy.calculateTax(any(ProductSummary.class))).thenReturn(new BigDecimal("2.00"));
+            when(usaStrategy.calculateTax(usa)).thenReturn(new BigDecimal("3.79"));
+            when(productMapper.summaryToResponse(any(ProductSummary.class))).thenAnswer(inv -> {
+                ProductSummary p = inv.getArgument(0);
+                return ProductResponse.builder().id(p.getId()).basePrice(p.getPrice()).build();
+            });
+
+            List<ProductResponse> result = service.getProductsTTC(List.of(3L, 2L, 1L, 3L));
+
+            assertThat(result).extracting(ProductResponse::getId).containsExactly(3L, 2L, 1L, 3L);
+            assertThat(result).extracting(ProductResponse::getFinalPrice)
+                    .containsExactly(new BigDecimal("2.00"), new BigDecimal("3.79"),
+                            new BigDecimal("2.00"), new BigDecimal("2.00"));
+            verify(repository, times(1)).findSummariesByIdIn(anyCollection());
+            verify(repository, never()).findSummaryById(any());
+            verify(taxService, times(2)).findTaxStrategy(any(ProductSummary.class));
+            // 10.00 en France : calculé une fois, puis servi par le cache de cotations
+            verify(taxStrategy, times(1)).calculateTax(any(ProductSummary.class));
+        }
+
+        @Test
+        void shouldOnlyLoadIds_missingFromCache() {
+            ProductSummary cached = product(1L, Country.FRANCE);
+            ProductSummary loaded = product(2L, Country.FRANCE);
+            when(repository.findSummaryById(1L)).thenReturn(Optional.of(cached));
+            when(repository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(loaded));
+            when(taxService.findTaxStrategy(any(ProductSummary.class))).thenReturn(taxStrategy);
+            when(productMapper.summaryToResponse(any(ProductSummary.class))).thenReturn(new ProductResponse());
+
+            service.getProduct(1L);
+            service.getProductsTTC(List.of(1L, 2L));
+
+            verify(repository).findSummariesByIdIn(argThat(ids -> ids.iterator().next().equals(2L)
+                    && ids.spliterator().getExactSizeIfKnown() == 1));
         }
     }
 }
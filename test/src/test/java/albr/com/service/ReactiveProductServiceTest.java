@@ -0,0 +1,302 @@
+package albr.com.service;
+
+import albr.com.tax.cache.ColumnarProductStore;
+import albr.com.tax.cache.ProductCache;
+import albr.com.tax.cache.TaxQuoteCache;
+import albr.com.tax.config.BulkProperties;
+import albr.com.tax.config.ColumnarReadProperties;
+import albr.com.tax.config.PrecomputeProperties;
+import albr.com.tax.config.ProductCacheProperties;
+import albr.com.tax.config.QuoteCacheProperties;
+import albr.com.tax.config.ReactiveProperties;
+import albr.com.tax.config.TaxRulesProperties;
+import albr.com.tax.dto.ProductBulkResult;
+import albr.com.tax.dto.ProductBulkResult.Status;
+import albr.com.tax.dto.ProductRequest;
+import albr.com.tax.dto.ProductResponse;
+import albr.com.tax.engine.TaxRuleTable;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.mapper.ProductMapper;
+import albr.com.tax.metrics.PricingMetrics;
+import albr.com.tax.repository.Product;
+import albr.com.tax.repository.ProductRepository;
+import albr.com.tax.repository.ProductSummary;
+import albr.com.tax.repository.ReactiveProductRepository;
+import albr.com.tax.service.PrecomputedPrices;
+import albr.com.tax.service.ReactiveProductService;
+import albr.com.tax.service.TaxRuleRegistry;
+import albr.com.tax.service.TaxService;
+import albr.com.tax.service.TaxStraegyCANImp;
+import albr.com.tax.service.TaxStraegyFRImp;
+import albr.com.tax.service.TaxStraegyUSAImp;
+import albr.com.tax.service.TaxStrategyResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReactiveProductServiceTest {
+
+    private ReactiveProductRepository repository;
+    private TaxService taxService;
+    private ProductCache productCache;
+    private ReactiveProductService service;
+
+    private static ProductSummary summary(long id, String price, Country country) {
+        return new ProductSummary(id, "p" + id, new BigDecimal(price), country, null, null, 0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReactiveProductRepository.class);
+        taxService = spy(new TaxService(new TaxStrategyResolver(List.of(
+                new TaxStraegyFRImp(), new TaxStraegyCANImp(), new TaxStraegyUSAImp()))));
+        productCache = new ProductCache(new ProductCacheProperties(true, 100, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+        service = newService(new PrecomputedPrices(new PrecomputeProperties(false, 500), TaxRuleTable::defaults));
+    }
+
+    private ReactiveProductService newService(PrecomputedPrices precomputedPrices) {
+        TaxRuleRegistry registry = new TaxRuleRegistry(new TaxRulesProperties(new ClassPathResource("tax-rules.json")),
+                mock(ApplicationEventPublisher.class));
+        return new ReactiveProductService(repository, Mappers.getMapper(ProductMapper.class), taxService,
+                productCache, new TaxQuoteCache(new QuoteCacheProperties(false, 0), new SimpleMeterRegistry()),
+                new ColumnarProductStore(new ColumnarReadProperties(false, 1000), mock(ProductRepository.class),
+                        new SimpleMeterRegistry()),
+                precomputedPrices,
+                new PricingMetrics(new SimpleMeterRegistry()), registry,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ReactiveProperties("mem:test", "admin", "admin", 4, 2), new BulkProperties(2));
+    }
+
+    @Test
+    void getProductTTC_pricesInPipeline_andCachesTheRow() {
+        when(repository.findSummaryById(1L)).thenReturn(Mono.just(summary(1, "100.00", Country.FRANCE)));
+
+        StepVerifier.create(service.getProductTTC(1L))
+                .assertNext(response -> {
+                    assertThat(response.getBasePrice()).isEqualByComparingTo("100.00");
+                    assertThat(response.getFinalPrice()).isEqualByComparingTo("20.00");
+                    assertThat(response.getCurrency()).isEqualTo("EUR");
+                })
+                .verifyComplete();
+        StepVerifier.create(service.getProduct(1L).map(ProductResponse::getName)).expectNext("p1").verifyComplete();
+
+        // deuxième lecture servie par le cache produits
+        verify(repository, times(1)).findSummaryById(1L);
+    }
+
+    @Test
+    void unknownProduct_failsWithIllegalArgument() {
+        when(repository.findSummaryById(9L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getProductTTC(9L))
+                .expectErrorSatisfies(ex -> assertThat(ex)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("Product not found with id=9"))
+                .verify();
+    }
+
+    @Test
+    void etags_matchServletValues() {
+        when(repository.findVersionById(4L)).thenReturn(Mono.just(3L));
+        when(repository.findVersionById(5L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.productETag(4L)).expectNext("\"4-3\"").verifyComplete();
+        StepVerifier.create(service.priceETag(4L)).expectNext("\"4-3-2025.1\"").verifyComplete();
+        StepVerifier.create(service.productETag(5L)).verifyComplete();
+    }
+
+    @Test
+    void batchQuote_keepsOrderAndDuplicates_oneQueryPerGroupOfIds() {
+        when(repository.findSummariesByIdIn(anyCollection())).thenAnswer(inv -> {
+            List<ProductSummary> found = new ArrayList<>();
+            for (Long id : inv.<java.util.Collection<Long>>getArgument(0)) {
+                found.add(summary(id, "50.00", id % 2 == 0 ? Country.USA : Country.FRANCE));
+            }
+            return Flux.fromIterable(found);
+        });
+
+        StepVerifier.create(service.getProductsTTC(Flux.just(3L, 2L, 3L, 4L, 5L)).map(ProductResponse::getFinalPrice))
+                .expectNext(new BigDecimal("10.00"), new BigDecimal("6.932"), new BigDecimal("10.00"),
+                        new BigDecimal("6.932"), new BigDecimal("10.00"))
+                .verifyComplete();
+
+        // groupes de page-size (2) ids : [3, 2], [3, 4], [5] ; 3 déjà en cache au deuxième groupe
+        verify(repository).findSummariesByIdIn(List.of(3L, 2L));
+        verify(repository).findSummariesByIdIn(List.of(4L));
+        verify(repository).findSummariesByIdIn(List.of(5L));
+    }
+
+    @Test
+    void batchQuote_unknownId_failsTheStream() {
+        when(repository.findSummariesByIdIn(anyCollection()))
+                .thenReturn(Flux.just(summary(1, "10.00", Country.FRANCE)));
+
+        StepVerifier.create(service.getProductsTTC(Flux.just(1L, 8L)))
+                .expectErrorSatisfies(ex -> assertThat(ex).hasMessageContaining("[8]"))
+                .verify();
+    }
+
+    @Test
+    void stream_readsAtMostOnePageAhead() {
+        when(repository.findSummariesAfter(anyLong(), any(), anyInt())).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            // pages de 2 : [1, 2], [3, 4], [5]
+            List<ProductSummary> page = new ArrayList<>();
+            for (long id = afterId + 1; id <= Math.min(afterId + 2, 5); id++) {
+                page.add(summary(id, "10.00", Country.CANADA));
+            }
+            return Flux.fromIterable(page);
+        });
+
+        StepVerifier.create(service.stream(0, Country.CANADA, true).map(ProductResponse::getId), 1)
+                .expectNext(1L)
+                .then(() -> verify(repository, atMost(2)).findSummariesAfter(anyLong(), any(), anyInt()))
+                .thenRequest(10)
+                .expectNext(2L, 3L, 4L, 5L)
+                .verifyComplete();
+
+        verify(repository).findSummariesAfter(0L, Country.CANADA, 2);
+        verify(repository).findSummariesAfter(2L, Country.CANADA, 2);
+        verify(repository).findSummariesAfter(4L, Country.CANADA, 2);
+        // une stratégie résolue pour tout le flux
+        verify(taxService, times(1)).findTaxStrategy(any());
+    }
+
+    @Test
+    void page_fullPageReturnsCursor() {
+        when(repository.findSummariesAfter(0L, null, 2)).thenReturn(Flux.just(
+                summary(3, "10.00", Country.FRANCE), summary(7, "20.00", Country.USA)));
+
+        StepVerifier.create(service.page(0, 2, null, false))
+                .assertNext(page -> {
+                    assertThat(page.getItems()).extracting(ProductResponse::getId).containsExactly(3L, 7L);
+                    assertThat(page.getNextAfterId()).isEqualTo(7L);
+                })
+                .verifyComplete();
+        verifyNoInteractions(taxService);
+    }
+
+    @Test
+    void add_rejectsNegativePrice_withoutInsert() {
+        StepVerifier.create(service.add(new ProductRequest("x", new BigDecimal("-1"), Country.USA)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void add_insertsAndMaps() {
+        when(repository.insert(any())).thenAnswer(inv -> {
+            Product product = inv.getArgument(0);
+            product.setId(11L);
+            return Mono.just(product);
+        });
+
+        StepVerifier.create(service.add(new ProductRequest("x", new BigDecimal("5.00"), Country.CANADA)))
+                .assertNext(response -> {
+                    assertThat(response.getId()).isEqualTo(11L);
+                    assertThat(response.getCurrency()).isEqualTo("UCD");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void ingest_rejectsInvalid_insertsByBatch_andReportsFailedBatch() {
+        when(repository.insertAll(anyList()))
+                .thenAnswer(inv -> {
+                    List<Product> products = inv.getArgument(0);
+                    for (Product product : products) {
+                        product.setId(100L + products.indexOf(product));
+                    }
+                    return Flux.fromIterable(products);
+                })
+                .thenReturn(Flux.error(new DataIntegrityViolationException("boom")));
+
+        Flux<ProductRequest> body = Flux.just(
+                new ProductRequest("a", BigDecimal.ONE, Country.USA),
+                new ProductRequest("", BigDecimal.ONE, Country.USA),
+                new ProductRequest("c", BigDecimal.ONE, Country.FRANCE),
+                new ProductRequest("d", BigDecimal.ONE, Country.FRANCE));
+
+        List<ProductBulkResult> results = service.ingest(body).collectList().block();
+
+        assertThat(results).extracting(ProductBulkResult::getIndex, ProductBulkResult::getStatus,
+                        ProductBulkResult::getId)
+                .containsExactly(
+                        tuple(1L, Status.REJECTED, null),
+                        tuple(0L, Status.CREATED, 100L),
+                        tuple(2L, Status.FAILED, null),
+                        tuple(3L, Status.FAILED, null));
+    }
+
+    @Test
+    void ingest_storesPrecomputedPrices() {
+        TaxRuleTable table = TaxRuleTable.defaults();
+        ReactiveProductService precomputing = newService(
+                new PrecomputedPrices(new PrecomputeProperties(true, 500), () -> table));
+        List<Product> inserted = new ArrayList<>();
+        when(repository.insertAll(anyList())).thenAnswer(inv -> {
+            List<Product> products = inv.getArgument(0);
+            inserted.addAll(products);
+            return Flux.fromIterable(products);
+        });
+
+        precomputing.ingest(Flux.just(
+                        new ProductRequest("a", new BigDecimal("100.00"), Country.USA),
+                        new ProductRequest("b", new BigDecimal("100.00"), Country.FRANCE)))
+                .blockLast();
+
+        assertThat(inserted).extracting(Product::getTaxAmount, Product::getTaxRulesVersion)
+                .containsExactly(
+                        tuple(table.rule(Country.USA).tax(new BigDecimal("100.00")), table.version()),
+                        tuple(table.rule(Country.FRANCE).tax(new BigDecimal("100.00")), table.version()));
+    }
+
+    @Test
+    void ingest_unreadableElement_stopsReading_afterPersistingWhatWasRead() {
+        when(repository.insertAll(anyList())).thenAnswer(inv -> {
+            List<Product> products = inv.getArgument(0);
+            products.forEach(product -> product.setId(7L));
+            return Flux.fromIterable(products);
+        });
+
+        Flux<ProductRequest> body = Flux.concat(
+                Flux.just(new ProductRequest("a", BigDecimal.ONE, Country.USA)),
+                Flux.error(new IllegalStateException("Unexpected end-of-input")));
+
+        StepVerifier.create(service.ingest(body))
+                .assertNext(result -> {
+                    assertThat(result.getStatus()).isEqualTo(Status.REJECTED);
+                    assertThat(result.getIndex()).isEqualTo(1L);
+                    assertThat(result.getError()).startsWith("Malformed JSON: Unexpected end-of-input");
+                })
+                .assertNext(result -> assertThat(result.getStatus()).isEqualTo(Status.CREATED))
+                .verifyComplete();
+    }
+
+    private static org.assertj.core.groups.Tuple tuple(Object... values) {
+        return org.assertj.core.groups.Tuple.tuple(values);
+    }
+}
@@ -0,0 +1,84 @@
+package albr.com.service;
+
+import albr.com.tax.config.TaxRulesProperties;
+import albr.com.tax.engine.TaxRulesChangedEvent;
+import albr.com.tax.enumTax.Country;
+import albr.com.tax.repository.Product;
+import albr.com.tax.service.TaxRuleRegistry;
+import albr.com.tax.service.TaxStraegyFRImp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaxRuleRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private ApplicationEventPublisher publisher;
+    private TaxRuleRegistry registry;
+
+    private void writeRules(String version, String franceRate) throws IOException {
+        Files.writeString(file, """
+                { "version": "%s",
+                  "rules": {
+                    "FRANCE": { "rate": "%s" },
+                    "USA":    { "rate": "0.07864", "fixedFee": "3" },
+                    "CANADA": { "rate": "0.10", "threshold": "10", "thresholdFee": "10" } } }
+                """.formatted(version, franceRate));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = dir.resolve("tax-rules.json");
+        writeRules("v1", "0.20");
+        publisher = mock(ApplicationEventPublisher.class);
+        registry = new TaxRuleRegistry(new TaxRulesProperties(new FileSystemResource(file)), publisher);
+    }
+
+    @Test
+    void reload_swapsTable_andStrategiesSeeTheNewRates() throws IOException {
+        TaxStraegyFRImp france = new TaxStraegyFRImp(registry);
+        Product product = new Product("p", new BigDecimal("100.00"), Country.FRANCE);
+        assertThat(france.calculateTax(product)).isEqualByComparingTo("20.00");
+
+        writeRules("v2", "0.055");
+        registry.reload();
+
+        assertThat(registry.current().version()).isEqualTo("v2");
+        assertThat(france.calculateTax(product)).isEqualByComparingTo("5.50");
+        verify(publisher).publishEvent(new TaxRulesChangedEvent("v2"));
+    }
+
+    @Test
+    void invalidFile_keepsCurrentTable() throws IOException {
+        Files.writeString(file, """
+                { "version": "broken", "rules": { "FRANCE": { "rate": "0.1" } } }
+                """);
+
+        assertThatThrownBy(() -> registry.reload()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.current().version()).isEqualTo("v1");
+        verify(publisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void invalidFile_atStartup_failsFast() throws IOException {
+        Files.writeString(file, "{}");
+
+        assertThatThrownBy(() -> new TaxRuleRegistry(new TaxRulesProperties(new FileSystemResource(file)), publisher))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
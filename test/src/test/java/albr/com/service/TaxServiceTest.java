@@ -37,40 +37,41 @@ class TaxServiceTest {
     }
 
     @Test
-    void findTaxStrategy_delegatesToResolver_withCountryName() {
+    void findTaxStrategy_delegatesToResolver_withCountry() {
         // given
         when(product.getCountry()).thenReturn(Country.FRANCE);
-        when(resolver.resolve("FRANCE")).thenReturn(strategy);
+        when(resolver.resolve(Country.FRANCE)).thenReturn(strategy);
 
         // when
         TaxStrategy result = service.findTaxStrategy(product);
 
         // then
         assertThat(result).isSameAs(strategy);
-        verify(resolver).resolve("FRANCE");
+        verify(resolver).resolve(Country.FRANCE);
         verifyNoMoreInteractions(resolver);
     }
 
     @Test
     void findTaxStrategy_propagatesResolverException_whenCountryUnknown() {
         when(product.getCountry()).thenReturn(Country.USA);
-        when(resolver.resolve("USA"))
+        when(resolver.resolve(Country.USA))
                 .thenThrow(new IllegalArgumentException("No TaxStrategy found for country=USA"));
 
         assertThatThrownBy(() -> service.findTaxStrategy(product))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("country=USA");
 
-        verify(resolver).resolve("USA");
+        verify(resolver).resolve(Country.USA);
     }
 
     @Test
-    void findTaxStrategy_nullCountry_throwsNPE_dueToNameCall() {
+    void findTaxStrategy_nullCountry_isRejectedByResolver() {
         when(product.getCountry()).thenReturn(null);
+        when(resolver.resolve((Country) null))
+                .thenThrow(new IllegalArgumentException("No TaxStrategy found for country=null"));
 
         assertThatThrownBy(() -> service.findTaxStrategy(product))
-                .isInstanceOf(NullPointerException.class); // .name() on null
-
-        verifyNoInteractions(resolver);
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("country=null");
     }
 }
@@ -1,27 +1,39 @@
 package albr.com.service;
 
+import albr.com.tax.enumTax.Country;
 import albr.com.tax.service.TaxStrategy;
 import albr.com.tax.service.TaxStrategyResolver;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests unitaires pour TaxStrategyResolver.
  */
 class TaxStrategyResolverTest {
 
+    private static Map<String, TaxStrategy> allCountries() {
+        Map<String, TaxStrategy> map = new HashMap<>();
+        for (Country country : Country.values()) {
+            map.put(country.name(), mock(TaxStrategy.class));
+        }
+        return map;
+    }
+
     @Test
     void resolve_returnsStrategy_whenCountryExists() {
         TaxStrategy fr = mock(TaxStrategy.class);
         TaxStrategy ca = mock(TaxStrategy.class);
 
-        Map<String, TaxStrategy> map = new HashMap<>();
+        Map<String, TaxStrategy> map = allCountries();
         map.put("FRANCE", fr);
         map.put("CANADA", ca);
 
@@ -32,34 +44,93 @@ class TaxStrategyResolverTest {
     }
 
     @Test
-    void resolve_throwsIllegalArgument_whenCountryNotFound() {
-        Map<String, TaxStrategy> map = Map.of("FRANCE", mock(TaxStrategy.class));
-        TaxStrategyResolver resolver = new TaxStrategyResolver(map);
+    void missingCountry_failsAtConstruction() {
+        Map<String, TaxStrategy> map = Map.of("FRANCE", mock(TaxStrategy.class), "default", mock(TaxStrategy.class));
 
-        assertThatThrownBy(() -> resolver.resolve("USA"))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("USA");
+        assertThatThrownBy(() -> new TaxStrategyResolver(map))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("USA")
+                .hasMessageContaining("CANADA");
     }
 
     @Test
     void resolve_throwsIllegalArgument_whenCountryIsNull() {
-        Map<String, TaxStrategy> map = new HashMap<>();
-        TaxStrategyResolver resolver = new TaxStrategyResolver(map);
+        TaxStrategyResolver resolver = new TaxStrategyResolver(allCountries());
 
-        assertThatThrownBy(() -> resolver.resolve(null))
+        assertThatThrownBy(() -> resolver.resolve((String) null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("country=null");
     }
 
     @Test
     void resolve_isCaseSensitive_byDefault() {
-        TaxStrategy fr = mock(TaxStrategy.class);
-        Map<String, TaxStrategy> map = Map.of("FRANCE", fr);
-        TaxStrategyResolver resolver = new TaxStrategyResolver(map);
+        TaxStrategyResolver resolver = new TaxStrategyResolver(allCountries());
 
         // "france" n'existe pas si la clé a été stockée "FRANCE"
         assertThatThrownBy(() -> resolver.resolve("france"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("france");
     }
+
+    @Nested
+    class FromBeans {
+
+        private TaxStrategy strategyFor(Country country) {
+            TaxStrategy strategy = mock(TaxStrategy.class);
+            when(strategy.country()).thenReturn(country);
+            return strategy;
+        }
+
+        @Test
+        void resolve_byCountry_returnsDeclaredStrategy() {
+            TaxStrategy fr = strategyFor(Country.FRANCE);
+            TaxStrategy ca = strategyFor(Country.CANADA);
+            TaxStrategy us = strategyFor(Country.USA);
+
+            TaxStrategyResolver resolver = new TaxStrategyResolver(List.of(fr, ca, us));
+
+            assertThat(resolver.resolve(Country.FRANCE)).isSameAs(fr);
+            assertThat(resolver.resolve(Country.CANADA)).isSameAs(ca);
+            assertThat(resolver.resolve(Country.USA)).isSameAs(us);
+            assertThat(resolver.resolve("USA")).isSameAs(us);
+        }
+
+        @Test
+        void strayStrategy_withoutCountry_isIgnored() {
+            TaxStrategy fr = strategyFor(Country.FRANCE);
+            TaxStrategy stray = mock(TaxStrategy.class);
+
+            TaxStrategyResolver resolver = new TaxStrategyResolver(
+                    List.of(stray, fr, strategyFor(Country.CANADA), strategyFor(Country.USA)));
+
+            assertThat(resolver.resolve(Country.FRANCE)).isSameAs(fr);
+        }
+
+        @Test
+        void missingCountry_failsAtConstruction() {
+            assertThatThrownBy(() -> new TaxStrategyResolver(List.of(strategyFor(Country.FRANCE))))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("CANADA")
+                    .hasMessageContaining("USA");
+        }
+
+        @Test
+        void duplicateCountry_failsAtConstruction() {
+            assertThatThrownBy(() -> new TaxStrategyResolver(List.of(
+                    strategyFor(Country.FRANCE), strategyFor(Country.FRANCE),
+                    strategyFor(Country.CANADA), strategyFor(Country.USA))))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("FRANCE");
+        }
+
+        @Test
+        void resolve_nullCountry_throwsIllegalArgument() {
+            TaxStrategyResolver resolver = new TaxStrategyResolver(List.of(
+                    strategyFor(Country.FRANCE), strategyFor(Country.CANADA), strategyFor(Country.USA)));
+
+            assertThatThrownBy(() -> resolver.resolve((Country) null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("country=null");
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package albr.com.tax.engine;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.math.RoundingMode;
+
+/**
+ * Noyau SIMD de {@link BatchTaxEvaluator} : {@code SPECIES.length()} prix par itération.
+ * <p>
+ * Pas de division entière vectorielle : le quotient {@code prix * taux / 10^échelle} est estimé en double
+ * (exact à une unité près tant que le produit tient sur 53 bits), puis corrigé et arrondi en {@code long}
+ * comme {@link FixedPoint#divide}. Un groupe de prix dont un produit dépasserait 53 bits, et la fin du tableau,
+ * passent par {@link CompiledTaxRule#taxMinor(long)}.
+ */
+final class VectorKernel implements BatchTaxEvaluator.Kernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final long EXACT_DOUBLE_LIMIT = 1L << 53;
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void taxesMinor(CompiledTaxRule rule, long[] pricesMinor, long[] taxesMinor, int length) {
+        long rate = rule.rateUnscaled();
+        long divisor = rule.rateDivisor();
+        double divisorAsDouble = divisor;
+        // |prix| <= limite : |prix * taux| < 2^53, estimation à une unité près
+        long priceLimit = EXACT_DOUBLE_LIMIT / Math.max(Math.abs(rate), 1) - 1;
+        long fixedFee = rule.fixedFeeMinor();
+        boolean hasThreshold = rule.hasThreshold();
+        long threshold = rule.thresholdMinor();
+        long thresholdFee = rule.thresholdFeeMinor();
+        RoundingMode roundingMode = rule.roundingMode();
+
+        int lanes = SPECIES.length();
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += lanes) {
+            LongVector price = LongVector.fromArray(SPECIES, pricesMinor, i);
+            if (price.compare(VectorOperators.GT, priceLimit).or(price.compare(VectorOperators.LT, -priceLimit))
+                    .anyTrue()) {
+                scalar(rule, pricesMinor, taxesMinor, i, i + lanes);
+                continue;
+            }
+
+            LongVector product = price.mul(rate);
+            LongVector quotient = (LongVector) ((DoubleVector) product.convert(VectorOperators.L2D, 0))
+                    .div(divisorAsDouble)
+                    .convert(VectorOperators.D2L, 0);
+            LongVector remainder = product.sub(quotient.mul(divisor));
+
+            // quotient tronqué vers zéro : reste du signe du produit et |reste| < diviseur
+            VectorMask<Long> negative = product.compare(VectorOperators.LT, 0);
+            VectorMask<Long> positive = negative.not();
+            VectorMask<Long> down = positive.and(remainder.compare(VectorOperators.LT, 0))
+                    .or(negative.and(remainder.compare(VectorOperators.LE, -divisor)));
+            VectorMask<Long> up = positive.and(remainder.compare(VectorOperators.GE, divisor))
+                    .or(negative.and(remainder.compare(VectorOperators.GT, 0)));
+            quotient = quotient.sub(1, down).add(1, up);
+            remainder = remainder.add(divisor, down).sub(divisor, up);
+
+            VectorMask<Long> away = awayFromZero(roundingMode, quotient, remainder, negative, divisor);
+            if (away == null) {
+                // UNNECESSARY avec un reste : l'exception vient du chemin scalaire
+                scalar(rule, pricesMinor, taxesMinor, i, i + lanes);
+                continue;
+            }
+            LongVector tax = quotient.add(1, away.and(positive)).sub(1, away.and(negative)).add(fixedFee);
+            if (hasThreshold) {
+                tax = tax.add(thresholdFee, price.compare(VectorOperators.GT, threshold));
+            }
+            tax.intoArray(taxesMinor, i);
+        }
+        scalar(rule, pricesMinor, taxesMinor, i, length);
+    }
+
+    // même table que FixedPoint.divide ; null si l'arrondi est interdit et nécessaire
+    private static VectorMask<Long> awayFromZero(RoundingMode roundingMode, LongVector quotient,
+                                                 LongVector remainder, VectorMask<Long> negative, long divisor) {
+        LongVector absRemainder = remainder.abs();
+        LongVector rest = absRemainder.neg().add(divisor);
+        VectorMask<Long> inexact = remainder.compare(VectorOperators.NE, 0);
+        return switch (roundingMode) {
+            case UP -> inexact;
+            case DOWN -> SPECIES.maskAll(false);
+            case CEILING -> inexact.andNot(negative);
+            case FLOOR -> inexact.and(negative);
+            case HALF_UP -> inexact.and(absRemainder.compare(VectorOperators.GE, rest));
+            case HALF_DOWN -> absRemainder.compare(VectorOperators.GT, rest);
+            case HALF_EVEN -> absRemainder.compare(VectorOperators.GT, rest)
+                    .or(absRemainder.compare(VectorOperators.EQ, rest)
+                            .and(quotient.and(1).compare(VectorOperators.NE, 0)));
+            case UNNECESSARY -> inexact.anyTrue() ? null : inexact;
+        };
+    }
+
+    private static void scalar(CompiledTaxRule rule, long[] pricesMinor, long[] taxesMinor, int from, int to) {
+        for (int i = from; i < to; i++) {
+            taxesMinor[i] = rule.taxMinor(pricesMinor[i]);
+        }
+    }
+}